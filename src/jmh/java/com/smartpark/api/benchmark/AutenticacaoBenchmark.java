@@ -0,0 +1,67 @@
+package com.smartpark.api.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.smartpark.api.entity.Usuario;
+import com.smartpark.api.security.CacheAutenticacao;
+import com.smartpark.api.security.ProvedorAutenticacaoComCache;
+import com.smartpark.api.security.UserDetailsImpl;
+
+/**
+ * Autenticações Basic por segundo com e sem o CacheAutenticacao, usando o mesmo BCryptPasswordEncoder (custo 10) da aplicação.
+ * O usuário vem de memória, então a diferença medida é só a verificação do BCrypt (a consulta ao banco evitada pelo cache é ganho extra).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AutenticacaoBenchmark {
+
+    private AuthenticationProvider semCache;
+    private AuthenticationProvider comCache;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        UserDetails usuario = new UserDetailsImpl(new Usuario(1L, "gate01", passwordEncoder.encode("senha123"), "USER"));
+
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(username -> usuario);
+        dao.setPasswordEncoder(passwordEncoder);
+
+        semCache = dao;
+        comCache = new ProvedorAutenticacaoComCache(dao, new CacheAutenticacao(10_000, Duration.ofMinutes(5)));
+    }
+
+    @Benchmark
+    public Authentication semCache() {
+        return semCache.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+    }
+
+    @Benchmark
+    public Authentication comCache() {
+        return comCache.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartpark.api.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga HTTP com muitos clientes simultâneos contra uma instância já em execução, para comparar latências com e sem
+ * threads virtuais (SMARTPARK_THREADS_VIRTUAIS=true/false). Não é um benchmark JMH; roda direto:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.mainClass=com.smartpark.api.benchmark.CargaHttp
+ *     -Dbenchmark.args="http://localhost:8080/api/v1/estacionamentos/historico?limite=20 5000 30 user:user123"
+ * Argumentos: URL, clientes simultâneos, duração em segundos e usuário:senha (Basic). Cada cliente repete o GET
+ * sem pausa; a latência de cada resposta é medida do envio ao corpo lido. Os primeiros 20% da duração são aquecimento.
+ */
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int clientes = Integer.parseInt(args[1]);
+        Duration duracao = Duration.ofSeconds(Long.parseLong(args[2]));
+        String autorizacao = "Basic " + Base64.getEncoder().encodeToString(args[3].getBytes(StandardCharsets.UTF_8));
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // Uma conexão por cliente, como as cancelas
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).header("Authorization", autorizacao).timeout(Duration.ofSeconds(60)).GET().build();
+
+        // Uma requisição antes da carga: as credenciais entram no cache de autenticação, senão os primeiros milhares
+        // de clientes pagariam o BCrypt todos ao mesmo tempo e a medição seria do BCrypt
+        HttpResponse<Void> primeira = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+        if (primeira.statusCode() != 200) {
+            throw new IllegalStateException("GET " + uri + " respondeu " + primeira.statusCode());
+        }
+
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + duracao.toNanos() / 5;
+        long fim = inicio + duracao.toNanos();
+        AtomicLong erros = new AtomicLong();
+        long[][] latenciasPorCliente = new long[clientes][]; // Cada cliente escreve só na sua posição
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                executor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int quantidade = 0;
+                    long agora;
+                    while ((agora = System.nanoTime()) < fim) {
+                        try {
+                            HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+                            long depois = System.nanoTime();
+                            if (resposta.statusCode() != 200) {
+                                erros.incrementAndGet();
+                            } else if (agora >= inicioMedicao) {
+                                if (quantidade == latencias.length) {
+                                    latencias = Arrays.copyOf(latencias, latencias.length * 2);
+                                }
+                                latencias[quantidade++] = depois - agora;
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                    }
+                    latenciasPorCliente[cliente] = Arrays.copyOf(latencias, quantidade);
+                });
+            }
+        }
+
+        // O fechamento do executor espera todos os clientes, então as posições já estão preenchidas
+        long[] todas = Arrays.stream(latenciasPorCliente).flatMapToLong(Arrays::stream).sorted().toArray();
+        double segundos = (fim - inicioMedicao) / 1e9;
+        System.out.printf("%d clientes, %.0f s medidos: %d respostas 200 (%.0f/s), %d erros/não-200%n",
+                clientes, segundos, todas.length, todas.length / segundos, erros.get());
+        if (todas.length > 0) {
+            System.out.printf("latência (ms): p50 %.1f | p90 %.1f | p99 %.1f | p99.9 %.1f | máx %.1f%n",
+                    percentil(todas, 0.50), percentil(todas, 0.90), percentil(todas, 0.99), percentil(todas, 0.999),
+                    todas[todas.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
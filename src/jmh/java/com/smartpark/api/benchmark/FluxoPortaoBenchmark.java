@@ -0,0 +1,214 @@
+package com.smartpark.api.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.smartpark.api.DioSmartparkApiApplication;
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.service.EstacionamentoService;
+import com.smartpark.api.service.Placa;
+import com.smartpark.api.service.TarifaService;
+import com.smartpark.api.service.VagaService;
+
+/**
+ * Caminho quente dos portões pela aplicação real (perfil test, H2 embutido em modo PostgreSQL), com volume de produção:
+ * 5 mil vagas (metade ocupada), 100 mil veículos cadastrados e 1 milhão de estacionamentos finalizados no histórico.
+ * - registrarEntrada / registrarSaida: um veículo recorrente entra (ou sai). A saída (ou entrada) correspondente roda
+ *   fora da medição, em @Setup/@TearDown por invocação, para a ocupação ficar estável durante todo o benchmark.
+ * - calcularValor: tarifa de uma permanência de 3h10 (só a política em memória).
+ * - listarEstacionamentosAtivos: os 2.500 ativos projetados no DTO.
+ * - getOcupacao: contadores de vagas em memória.
+ * Cada benchmark é medido em vazão (ops/s) e em amostragem (p50/p99/p99.9); com -prof gc, gc.alloc.rate.norm dá os bytes
+ * alocados por operação. Para comparar antes/depois de uma otimização, rode nos dois commits com os mesmos argumentos:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.args="FluxoPortaoBenchmark -prof gc -rf json -rff antes.json"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g") // 1 milhão de linhas no H2 em memória
+@State(Scope.Benchmark)
+public class FluxoPortaoBenchmark {
+
+    static final int VAGAS = 5_000;
+    static final int ATIVOS = VAGAS / 2;
+    static final int VEICULOS = 100_000;
+    static final int HISTORICO = 1_000_000;
+    private static final int BLOCO_INSERCAO = 10_000;
+
+    private ConfigurableApplicationContext contexto;
+    private EstacionamentoService estacionamentoService;
+    private VagaService vagaService;
+    private TarifaService tarifaService;
+
+    private final ArrayDeque<String> fora = new ArrayDeque<>(); // Veículos cadastrados que não estão estacionados
+    private final LocalDateTime entradaTarifa = LocalDateTime.of(2025, 3, 14, 8, 20);
+    private final LocalDateTime saidaTarifa = LocalDateTime.of(2025, 3, 14, 11, 30);
+
+    @Setup(Level.Trial)
+    public void iniciarAplicacao() {
+        contexto = new SpringApplicationBuilder(DioSmartparkApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false", // Argumentos, e não properties(): precisam sobrepor os application*.yml
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:fluxo;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        estacionamentoService = contexto.getBean(EstacionamentoService.class);
+        vagaService = contexto.getBean(VagaService.class);
+        tarifaService = contexto.getBean(TarifaService.class);
+
+        popularBanco(contexto.getBean(JdbcTemplate.class));
+        estacionamentoService.carregarEstacionamentosAtivos();
+        vagaService.carregarVagasLivres();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrarAplicacao() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public EstacionamentoResponseDTO registrarEntrada(EntradaPreparada preparada) {
+        return estacionamentoService.registrarEntrada(entradaDe(preparada.placa));
+    }
+
+    @Benchmark
+    public EstacionamentoResponseDTO registrarSaida(SaidaPreparada preparada) {
+        return estacionamentoService.registrarSaida(preparada.placa);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal calcularValor() {
+        return tarifaService.calcularValor(TipoVeiculo.CARRO, entradaTarifa, saidaTarifa);
+    }
+
+    @Benchmark
+    public List<EstacionamentoResponseDTO> listarEstacionamentosAtivos() {
+        return estacionamentoService.listarEstacionamentosAtivos();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OcupacaoDTO getOcupacao() {
+        return vagaService.getOcupacao();
+    }
+
+    /**
+     * Estado de registrarEntrada: depois de cada invocação, o veículo que entrou sai e volta para a fila de fora.
+     * Os @Setup/@TearDown por invocação ficam nestes estados, e não no benchmark, para não atrasar os benchmarks de nanossegundos.
+     */
+    @State(Scope.Thread)
+    public static class EntradaPreparada {
+
+        String placa;
+
+        @Setup(Level.Invocation)
+        public void escolher(FluxoPortaoBenchmark benchmark) {
+            placa = benchmark.fora.pollFirst();
+        }
+
+        @TearDown(Level.Invocation)
+        public void sair(FluxoPortaoBenchmark benchmark) {
+            benchmark.estacionamentoService.registrarSaida(placa);
+            benchmark.fora.addLast(placa);
+        }
+    }
+
+    /**
+     * Estado de registrarSaida: antes de cada invocação, um veículo de fora entra; depois, ele volta para a fila de fora.
+     */
+    @State(Scope.Thread)
+    public static class SaidaPreparada {
+
+        String placa;
+
+        @Setup(Level.Invocation)
+        public void entrar(FluxoPortaoBenchmark benchmark) {
+            placa = benchmark.fora.pollFirst();
+            benchmark.estacionamentoService.registrarEntrada(entradaDe(placa));
+        }
+
+        @TearDown(Level.Invocation)
+        public void devolver(FluxoPortaoBenchmark benchmark) {
+            benchmark.fora.addLast(placa);
+        }
+    }
+
+    private static VeiculoEntradaDTO entradaDe(String placa) {
+        return new VeiculoEntradaDTO(placa, "Fiat", "Argo", "Prata", TipoVeiculo.CARRO);
+    }
+
+    // Inserção direta por JDBC em blocos: pelo Hibernate, 1 milhão de linhas levaria minutos
+    private void popularBanco(JdbcTemplate jdbc) {
+        List<Object[]> linhas = new ArrayList<>(BLOCO_INSERCAO);
+        for (int i = 1; i <= VAGAS; i++) {
+            linhas.add(new Object[] {i, "V" + i, i <= ATIVOS ? "OCUPADA" : "LIVRE"});
+        }
+        jdbc.batchUpdate("insert into tb_vagas (id, numero, status) values (?, ?, ?)", linhas);
+
+        linhas.clear();
+        for (int i = 1; i <= VEICULOS; i++) {
+            String placa = Placa.formatar(i * 6_000L); // Placas distintas e válidas, espalhadas pelo espaço de códigos
+            linhas.add(new Object[] {i, placa, "Fiat", "Argo", "Prata", TipoVeiculo.CARRO.name()});
+            if (i > ATIVOS) { // Os primeiros ATIVOS veículos estão estacionados (estacionamentos ativos abaixo)
+                fora.addLast(placa);
+            }
+            if (linhas.size() == BLOCO_INSERCAO) {
+                jdbc.batchUpdate("insert into tb_veiculos (id, placa, marca, modelo, cor, tipo_veiculo) values (?, ?, ?, ?, ?, ?)", linhas);
+                linhas.clear();
+            }
+        }
+
+        // Histórico: cada veículo e cada vaga aparecem várias vezes, como em meses de operação
+        LocalDateTime inicio = LocalDateTime.now().minusDays(365);
+        String insercao = "insert into tb_estacionamentos (id, veiculo_id, vaga_id, data_hora_entrada, data_hora_saida, valor_cobrado, status)"
+                + " values (?, ?, ?, ?, ?, ?, ?)";
+        for (int i = 1; i <= HISTORICO + ATIVOS; i++) {
+            boolean ativo = i > HISTORICO;
+            LocalDateTime entrada = inicio.plusSeconds(i * 30L);
+            linhas.add(new Object[] {i,
+                    ativo ? i - HISTORICO : 1 + i % VEICULOS,
+                    ativo ? i - HISTORICO : 1 + i % VAGAS,
+                    Timestamp.valueOf(entrada),
+                    ativo ? null : Timestamp.valueOf(entrada.plusMinutes(95)),
+                    ativo ? null : new BigDecimal("7.00"),
+                    ativo ? "ATIVO" : "FINALIZADO"});
+            if (linhas.size() == BLOCO_INSERCAO) {
+                jdbc.batchUpdate(insercao, linhas);
+                linhas.clear();
+            }
+        }
+        jdbc.batchUpdate(insercao, linhas);
+
+        // As sequências continuam depois dos IDs inseridos
+        jdbc.execute("alter sequence seq_vagas restart with " + (VAGAS + 1));
+        jdbc.execute("alter sequence seq_veiculos restart with " + (VEICULOS + 1));
+        jdbc.execute("alter sequence seq_estacionamentos restart with " + (HISTORICO + ATIVOS + 1));
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartpark.api.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import com.smartpark.api.service.MapaPlacas;
+import com.smartpark.api.service.Placa;
+
+/**
+ * Memória ocupada por 1 milhão de placas -> ID em cada estrutura (grafo de objetos completo, medido pelo JOL).
+ * Não é um benchmark JMH; roda direto:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.mainClass=com.smartpark.api.benchmark.PegadaMemoriaPlacas
+ */
+public class PegadaMemoriaPlacas {
+
+    public static void main(String[] args) {
+        String[] placas = PlacaBenchmark.placasAleatorias(PlacaBenchmark.QUANTIDADE);
+
+        Map<String, Long> mapaString = new ConcurrentHashMap<>();
+        Map<Long, Long> mapaLong = new HashMap<>();
+        MapaPlacas mapaPlacas = new MapaPlacas();
+        for (int i = 0; i < placas.length; i++) {
+            long id = 1_000_000L + i; // Fora do cache de Long.valueOf, como os IDs reais
+            mapaString.put(placas[i], id);
+            mapaLong.put(Placa.codificar(placas[i]), id);
+            mapaPlacas.guardar(Placa.codificar(placas[i]), id);
+        }
+
+        System.out.printf("%-40s %10s %14s%n", "Estrutura (1 milhão de placas)", "MB", "bytes/placa");
+        imprimir("ConcurrentHashMap<String, Long>", GraphLayout.parseInstance(mapaString).totalSize(), placas.length);
+        imprimir("HashMap<Long, Long> (código da placa)", GraphLayout.parseInstance(mapaLong).totalSize(), placas.length);
+        imprimir("MapaPlacas", GraphLayout.parseInstance(mapaPlacas).totalSize(), placas.length);
+    }
+
+    private static void imprimir(String estrutura, long bytes, int quantidade) {
+        System.out.printf("%-40s %10.1f %14.1f%n", estrutura, bytes / (1024.0 * 1024.0), (double) bytes / quantidade);
+    }
+}
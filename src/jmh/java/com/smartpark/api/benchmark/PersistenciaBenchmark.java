@@ -0,0 +1,135 @@
+package com.smartpark.api.benchmark;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartpark.api.DioSmartparkApiApplication;
+import com.smartpark.api.dto.EventoPortaoDTO;
+import com.smartpark.api.dto.ResultadoLoteDTO;
+import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.enums.TipoMovimentacao;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.service.EstacionamentoService;
+import com.smartpark.api.service.VagaService;
+
+/**
+ * Escrita em massa pela aplicação real (perfil test), com e sem lotes JDBC (hibernate.jdbc.batch_size).
+ * - criarVagas: cadastro de 500 vagas numa transação.
+ * - reprocessarLote: POST /api/v1/estacionamentos/lote com 250 entradas seguidas das 250 saídas, sempre com placas novas.
+ * O H2 roda como servidor TCP local: com o banco embutido cada "ida ao banco" é uma chamada de método e os lotes não fazem diferença.
+ * Contra o PostgreSQL pela rede a latência por comando é maior e o ganho também.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenciaBenchmark {
+
+    private static final int VAGAS_POR_OPERACAO = 500;
+    private static final int VEICULOS_POR_LOTE = 250;
+
+    @Param({"1", "50"}) // 1 desliga os lotes JDBC: um INSERT/UPDATE por ida ao banco
+    public int batchSize;
+
+    private Server servidorH2;
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transactionTemplate;
+    private VagaRepository vagaRepository;
+    private EstacionamentoService estacionamentoService;
+    private int sequencial;
+
+    @Setup(Level.Trial)
+    public void iniciarAplicacao() throws SQLException {
+        servidorH2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        contexto = new SpringApplicationBuilder(DioSmartparkApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false", // Argumentos, e não properties(): precisam sobrepor os application*.yml
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:tcp://localhost:" + servidorH2.getPort()
+                                + "/mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+        vagaRepository = contexto.getBean(VagaRepository.class);
+        estacionamentoService = contexto.getBean(EstacionamentoService.class);
+
+        // Vagas suficientes para as entradas de um lote
+        transactionTemplate.executeWithoutResult(status -> vagaRepository.saveAll(novasVagas(VEICULOS_POR_LOTE)));
+        contexto.getBean(VagaService.class).carregarVagasLivres();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrarAplicacao() {
+        contexto.close();
+        servidorH2.stop();
+    }
+
+    @Benchmark
+    public List<Vaga> criarVagas() {
+        return transactionTemplate.execute(status -> vagaRepository.saveAll(novasVagas(VAGAS_POR_OPERACAO)));
+    }
+
+    @Benchmark
+    public ResultadoLoteDTO reprocessarLote() {
+        LocalDateTime entrada = LocalDateTime.now().minusHours(2);
+        List<EventoPortaoDTO> eventos = new ArrayList<>(2 * VEICULOS_POR_LOTE);
+        List<String> placas = new ArrayList<>(VEICULOS_POR_LOTE);
+        for (int i = 0; i < VEICULOS_POR_LOTE; i++) {
+            String placa = novaPlaca();
+            placas.add(placa);
+            eventos.add(new EventoPortaoDTO(TipoMovimentacao.ENTRADA, entrada.plusSeconds(i),
+                    new VeiculoEntradaDTO(placa, "Fiat", "Argo", "Prata", TipoVeiculo.CARRO), null));
+        }
+        for (String placa : placas) {
+            eventos.add(new EventoPortaoDTO(TipoMovimentacao.SAIDA, entrada.plusHours(1), null, placa));
+        }
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(eventos);
+        if (resultado.getFalhas() > 0) {
+            throw new IllegalStateException("Lote com falhas: " + resultado.getResultados().get(0).getErro());
+        }
+        return resultado;
+    }
+
+    private List<Vaga> novasVagas(int quantidade) {
+        List<Vaga> vagas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            vagas.add(new Vaga(null, "B" + (sequencial++), StatusVaga.LIVRE));
+        }
+        return vagas;
+    }
+
+    // Placas no formato antigo (ABC1234), sem repetição
+    private String novaPlaca() {
+        int n = sequencial++;
+        int letras = n / 10_000;
+        return "" + (char) ('A' + letras / 676 % 26) + (char) ('A' + letras / 26 % 26) + (char) ('A' + letras % 26)
+                + String.format("%04d", n % 10_000);
+    }
+}
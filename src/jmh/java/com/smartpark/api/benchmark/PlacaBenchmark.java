@@ -0,0 +1,107 @@
+package com.smartpark.api.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.smartpark.api.service.MapaPlacas;
+import com.smartpark.api.service.Placa;
+
+/**
+ * Busca de 1 milhão de placas: ConcurrentHashMap&lt;String, Long&gt; (índice original) x MapaPlacas com o código da placa.
+ * As placas consultadas são Strings novas, como as que chegam desserializadas em cada requisição (hash ainda não
+ * calculado). Também mede codificar/formatar isolados; com -prof gc, codificar deve mostrar 0 B/op.
+ * A memória ocupada pelas mesmas estruturas é medida por PegadaMemoriaPlacas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlacaBenchmark {
+
+    static final int QUANTIDADE = 1_000_000;
+
+    private String[] placas;
+    private char[][] caracteres; // Para recriar a String a cada consulta, sem o hash em cache
+    private long[] codigos;
+    private Map<String, Long> mapaString;
+    private MapaPlacas mapaPlacas;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        placas = placasAleatorias(QUANTIDADE);
+        caracteres = new char[QUANTIDADE][];
+        codigos = new long[QUANTIDADE];
+        mapaString = new ConcurrentHashMap<>(QUANTIDADE);
+        mapaPlacas = new MapaPlacas(QUANTIDADE);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            caracteres[i] = placas[i].toCharArray();
+            codigos[i] = Placa.codificar(placas[i]);
+            mapaString.put(placas[i], (long) i + 1);
+            mapaPlacas.guardar(codigos[i], i + 1);
+        }
+    }
+
+    @Benchmark
+    public Long buscarMapaString() {
+        return mapaString.get(new String(caracteres[indice()]));
+    }
+
+    @Benchmark
+    public long buscarMapaPlacas() {
+        return mapaPlacas.buscar(Placa.codificar(new String(caracteres[indice()])));
+    }
+
+    @Benchmark
+    public int hashString() {
+        return new String(caracteres[indice()]).hashCode();
+    }
+
+    @Benchmark
+    public long codificar() {
+        return Placa.codificar(placas[indice()]);
+    }
+
+    @Benchmark
+    public String formatar() {
+        return Placa.formatar(codigos[indice()]);
+    }
+
+    // Percorre as placas em sequência: cada consulta cai em uma posição diferente das tabelas (sem favorecer o cache da CPU)
+    private int indice() {
+        int i = proxima;
+        proxima = i + 1 == QUANTIDADE ? 0 : i + 1;
+        return i;
+    }
+
+    // Placas distintas, metade no formato antigo e metade Mercosul, com semente fixa
+    static String[] placasAleatorias(int quantidade) {
+        Random random = new Random(20250101L);
+        Map<Long, String> unicas = new HashMap<>(2 * quantidade);
+        while (unicas.size() < quantidade) {
+            String placa = Placa.formatar((long) (random.nextDouble() * Placa.QUANTIDADE_CODIGOS));
+            if (random.nextBoolean() && Character.isLetter(placa.charAt(4))) {
+                placa = placa.substring(0, 4) + (char) ('0' + (placa.charAt(4) - 'A') % 10) + placa.substring(5);
+            }
+            unicas.putIfAbsent(Placa.codificar(placa), placa);
+        }
+        return unicas.values().toArray(String[]::new);
+    }
+}
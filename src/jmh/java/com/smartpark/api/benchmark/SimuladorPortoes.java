@@ -0,0 +1,454 @@
+package com.smartpark.api.benchmark;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartpark.api.DioSmartparkApiApplication;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.service.Placa;
+import com.smartpark.api.service.VagaService;
+
+/**
+ * Simulador de um dia de movimento dos portões contra uma instância embutida (perfil test, H2 em modo PostgreSQL),
+ * com o relógio da aplicação acelerado (bean Clock): as datas de entrada e saída, e portanto as tarifas, são as do
+ * dia simulado. Não é um benchmark JMH; roda direto:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.mainClass=com.smartpark.api.benchmark.SimuladorPortoes
+ *     -Dbenchmark.args="todos 4 3"
+ * Argumentos (todos opcionais): cenário (dia-util, pico, lotado ou todos), quantidade de portões e minutos reais por
+ * dia simulado. Cada cenário sobe uma instância nova, com semente fixa: duas execuções geram o mesmo tráfego.
+ * - Chegadas: processo de Poisson com picos às 8h, 12h30 e 18h e pouco movimento de madrugada.
+ * - Permanência: lognormal (a maioria fica pouco tempo, alguns ficam o dia todo).
+ * - Cada portão atende um veículo por vez (POST /entrar e PUT /sair/{placa}); a saída é agendada quando a entrada é aceita.
+ * A latência é medida a partir do horário em que o evento deveria acontecer, e não do envio: se a aplicação atrasa,
+ * a fila que se forma no portão entra na medição (sem omissão coordenada).
+ */
+public class SimuladorPortoes {
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+    private static final LocalDate DIA_SIMULADO = LocalDate.of(2025, 3, 14);
+    private static final String CREDENCIAIS = "admin:admin123"; // Criado pelo DataLoader
+    private static final Pattern PLACA = Pattern.compile("[A-Z]{3}[0-9][0-9A-Z][0-9]{2}");
+    private static final long SEMENTE = 42;
+
+    enum Cenario {
+        // vagas, chegadas no dia, permanência mediana em minutos, chegadas extras concentradas às 8h15
+        DIA_UTIL("dia-util", 500, 2_000, 90, 0), // Ocupação máxima em torno de 70%
+        PICO("pico", 500, 2_000, 90, 1_000),
+        LOTADO("lotado", 200, 2_000, 360, 0);
+
+        final String nome;
+        final int vagas;
+        final int chegadas;
+        final int permanenciaMediana;
+        final int chegadasPico;
+
+        Cenario(String nome, int vagas, int chegadas, int permanenciaMediana, int chegadasPico) {
+            this.nome = nome;
+            this.vagas = vagas;
+            this.chegadas = chegadas;
+            this.permanenciaMediana = permanenciaMediana;
+            this.chegadasPico = chegadasPico;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String escolhido = args.length > 0 ? args[0] : "todos";
+        int portoes = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double minutosPorDia = args.length > 2 ? Double.parseDouble(args[2]) : 3;
+        long fator = Math.round(24 * 60 / minutosPorDia);
+        System.setProperty("spring.devtools.restart.enabled", "false"); // O restart do DevTools reexecutaria este main
+
+        for (Cenario cenario : Cenario.values()) {
+            if (escolhido.equals("todos") || escolhido.equals(cenario.nome)) {
+                new SimuladorPortoes(cenario, portoes, fator).executar();
+            }
+        }
+    }
+
+    private final Cenario cenario;
+    private final int portoes;
+    private final RelogioAcelerado relogio;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String autorizacao = "Basic " + Base64.getEncoder().encodeToString(CREDENCIAIS.getBytes(StandardCharsets.UTF_8));
+
+    // Resultados do cenário
+    private final Latencias latenciasEntrada = new Latencias();
+    private final Latencias latenciasSaida = new Latencias();
+    private final Map<String, LongAdder> erros = new ConcurrentHashMap<>();
+    private final LongAdder faturamentoCentavos = new LongAdder();
+    private final LongAdder entradasAceitas = new LongAdder();
+    private final LongAdder saidasAceitas = new LongAdder();
+
+    private SimuladorPortoes(Cenario cenario, int portoes, long fator) {
+        this.cenario = cenario;
+        this.portoes = portoes;
+        this.relogio = new RelogioAcelerado(fator);
+    }
+
+    private void executar() throws Exception {
+        relogio.iniciar(DIA_SIMULADO.atStartOfDay(ZONA).toInstant());
+        try (ConfigurableApplicationContext contexto = iniciarAplicacao();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/v1/estacionamentos";
+            aquecer(http, base);
+
+            List<Evento> chegadas = gerarChegadas(new Random(SEMENTE));
+            Instant inicioDia = DIA_SIMULADO.atStartOfDay(ZONA).toInstant();
+            Instant fimDia = inicioDia.plus(Duration.ofDays(1));
+            relogio.iniciar(inicioDia);
+            long inicioReal = System.nanoTime();
+            int restantes = simular(http, base, chegadas, fimDia);
+            relogio.parar();
+            imprimir(chegadas.size(), restantes, (System.nanoTime() - inicioReal) / 1e9);
+        }
+    }
+
+    private ConfigurableApplicationContext iniciarAplicacao() {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DioSmartparkApiApplication.class)
+                .profiles("test")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("relogio", relogio)) // No lugar do Clock do sistema
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:simulador-" + cenario.nome
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        List<Vaga> vagas = new ArrayList<>(cenario.vagas);
+        for (int i = 1; i <= cenario.vagas; i++) {
+            vagas.add(new Vaga(null, "S" + i, StatusVaga.LIVRE));
+        }
+        contexto.getBean(VagaRepository.class).saveAll(vagas);
+        contexto.getBean(VagaService.class).carregarVagasLivres();
+        return contexto;
+    }
+
+    // Coloca as credenciais no cache de autenticação antes do primeiro portão (senão a medição começa pelo BCrypt)
+    private void aquecer(HttpClient http, String base) throws Exception {
+        HttpResponse<Void> resposta = http.send(requisicao(base + "/ativos").GET().build(), HttpResponse.BodyHandlers.discarding());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + base + "/ativos respondeu " + resposta.statusCode());
+        }
+    }
+
+    /**
+     * Despacha os eventos no horário simulado de cada um, até o fim do dia.
+     * @return Saídas agendadas para depois da meia-noite (veículos que passam a noite).
+     */
+    private int simular(HttpClient http, String base, List<Evento> chegadas, Instant fimDia) throws InterruptedException {
+        PriorityBlockingQueue<Evento> fila = new PriorityBlockingQueue<>(chegadas);
+        Set<String> placasEmUso = ConcurrentHashMap.newKeySet(); // Dentro ou entrando: a mesma placa não chega duas vezes
+        AtomicInteger emAndamento = new AtomicInteger();
+        List<String> frota = frota(cenario.chegadas, new Random(SEMENTE + 1));
+        Random sorteio = new Random(SEMENTE + 2);
+        ExecutorService[] cancelas = new ExecutorService[portoes];
+        for (int i = 0; i < portoes; i++) {
+            cancelas[i] = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("portao-" + (i + 1)).factory());
+        }
+
+        int proximaCancela = 0;
+        while (true) {
+            Evento evento = fila.peek();
+            if (evento == null || !evento.instante.isBefore(fimDia)) {
+                if (emAndamento.get() == 0) {
+                    break; // Só restam saídas depois da meia-noite (uma entrada em andamento ainda pode agendar saída no dia)
+                }
+                Thread.sleep(1);
+                continue;
+            }
+            long esperaNanos = relogio.nanosAte(evento.instante);
+            if (esperaNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(esperaNanos, TimeUnit.MILLISECONDS.toNanos(5)));
+                continue; // Uma saída agendada enquanto dormia pode ser anterior
+            }
+            fila.poll();
+            long devidoEm = System.nanoTime() + esperaNanos; // Horário (real) em que o evento deveria acontecer
+            emAndamento.incrementAndGet();
+            ExecutorService cancela = cancelas[proximaCancela++ % portoes];
+            if (evento.placa == null) {
+                String placa = sortearPlaca(frota, placasEmUso, sorteio);
+                cancela.execute(() -> {
+                    try {
+                        if (entrar(http, base, placa, devidoEm)) {
+                            fila.add(new Evento(evento.instante.plus(evento.permanencia), placa, null));
+                        } else {
+                            placasEmUso.remove(placa);
+                        }
+                    } finally {
+                        emAndamento.decrementAndGet();
+                    }
+                });
+            } else {
+                cancela.execute(() -> {
+                    try {
+                        sair(http, base, evento.placa, devidoEm);
+                        placasEmUso.remove(evento.placa);
+                    } finally {
+                        emAndamento.decrementAndGet();
+                    }
+                });
+            }
+        }
+        for (ExecutorService cancela : cancelas) {
+            cancela.close();
+        }
+        return fila.size();
+    }
+
+    private boolean entrar(HttpClient http, String base, String placa, long devidoEm) {
+        String corpo = "{\"placa\":\"" + placa + "\",\"marca\":\"Fiat\",\"modelo\":\"Argo\",\"cor\":\"Prata\",\"tipoVeiculo\":\"CARRO\"}";
+        HttpRequest requisicao = requisicao(base + "/entrar")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        JsonNode resposta = enviar(http, requisicao, "entrar", 201, devidoEm, latenciasEntrada);
+        if (resposta == null) {
+            return false;
+        }
+        entradasAceitas.increment();
+        return true;
+    }
+
+    private void sair(HttpClient http, String base, String placa, long devidoEm) {
+        HttpRequest requisicao = requisicao(base + "/sair/" + placa).PUT(HttpRequest.BodyPublishers.noBody()).build();
+        JsonNode resposta = enviar(http, requisicao, "sair", 200, devidoEm, latenciasSaida);
+        if (resposta != null) {
+            saidasAceitas.increment();
+            faturamentoCentavos.add(new BigDecimal(resposta.path("valorCobrado").asText("0")).movePointRight(2).longValue());
+        }
+    }
+
+    // Corpo da resposta esperada, ou null (com o erro contabilizado) em qualquer outra resposta
+    private JsonNode enviar(HttpClient http, HttpRequest requisicao, String operacao, int statusEsperado, long devidoEm, Latencias latencias) {
+        try {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            latencias.registrar(System.nanoTime() - devidoEm);
+            if (resposta.statusCode() == statusEsperado) {
+                return objectMapper.readTree(resposta.body());
+            }
+            String mensagem = resposta.body().isEmpty() ? "" : objectMapper.readTree(resposta.body()).path("message").asText("");
+            contarErro(operacao + " " + resposta.statusCode() + " " + PLACA.matcher(mensagem).replaceAll("<placa>"));
+        } catch (Exception e) {
+            latencias.registrar(System.nanoTime() - devidoEm);
+            contarErro(operacao + " " + e.getClass().getSimpleName());
+        }
+        return null;
+    }
+
+    private HttpRequest.Builder requisicao(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", autorizacao).timeout(Duration.ofSeconds(30));
+    }
+
+    private void contarErro(String tipo) {
+        erros.computeIfAbsent(tipo, chave -> new LongAdder()).increment();
+    }
+
+    /**
+     * Chegadas do dia, minuto a minuto: a quantidade em cada minuto segue uma distribuição de Poisson com a média dada
+     * pela curva de movimento, e cada chegada recebe a sua permanência (lognormal) na geração.
+     */
+    private List<Evento> gerarChegadas(Random aleatorio) {
+        double[] movimento = new double[24 * 60];
+        double[] pico = new double[24 * 60];
+        for (int minuto = 0; minuto < movimento.length; minuto++) {
+            double hora = minuto / 60.0;
+            double base = hora < 6 || hora >= 22 ? 0.05 : 0.3;
+            movimento[minuto] = base + sino(hora, 8, 1.0) + 0.6 * sino(hora, 12.5, 1.0) + sino(hora, 18, 1.2);
+            pico[minuto] = sino(hora, 8.25, 0.4);
+        }
+        double escala = cenario.chegadas / Arrays.stream(movimento).sum();
+        double escalaPico = cenario.chegadasPico / Arrays.stream(pico).sum();
+
+        List<Evento> chegadas = new ArrayList<>();
+        Instant inicioDia = DIA_SIMULADO.atStartOfDay(ZONA).toInstant();
+        for (int minuto = 0; minuto < movimento.length; minuto++) {
+            int quantidade = poisson(movimento[minuto] * escala + pico[minuto] * escalaPico, aleatorio);
+            for (int i = 0; i < quantidade; i++) {
+                Instant instante = inicioDia.plusSeconds(minuto * 60L + aleatorio.nextInt(60));
+                chegadas.add(new Evento(instante, null, permanencia(aleatorio)));
+            }
+        }
+        return chegadas;
+    }
+
+    private Duration permanencia(Random aleatorio) {
+        double minutos = cenario.permanenciaMediana * Math.exp(0.8 * aleatorio.nextGaussian());
+        return Duration.ofSeconds(Math.round(Math.max(5, Math.min(16 * 60, minutos)) * 60));
+    }
+
+    // Veículos que frequentam o estacionamento: cerca de 2/3 das chegadas do dia são de clientes que voltam
+    private static List<String> frota(int chegadas, Random aleatorio) {
+        Set<String> placas = new HashSet<>();
+        while (placas.size() < chegadas * 2 / 3) {
+            placas.add(Placa.formatar(Math.floorMod(aleatorio.nextLong(), Placa.QUANTIDADE_CODIGOS)));
+        }
+        return new ArrayList<>(placas);
+    }
+
+    private static String sortearPlaca(List<String> frota, Set<String> placasEmUso, Random sorteio) {
+        while (true) {
+            String placa = frota.get(sorteio.nextInt(frota.size()));
+            if (placasEmUso.add(placa)) {
+                return placa;
+            }
+        }
+    }
+
+    private static double sino(double x, double centro, double largura) {
+        return Math.exp(-0.5 * Math.pow((x - centro) / largura, 2));
+    }
+
+    // Algoritmo de Knuth: suficiente para as médias por minuto usadas aqui (poucas dezenas)
+    private static int poisson(double media, Random aleatorio) {
+        double limite = Math.exp(-media);
+        double produto = aleatorio.nextDouble();
+        int quantidade = 0;
+        while (produto > limite) {
+            quantidade++;
+            produto *= aleatorio.nextDouble();
+        }
+        return quantidade;
+    }
+
+    private void imprimir(int chegadas, int pernoite, double segundos) {
+        long requisicoes = latenciasEntrada.quantidade() + latenciasSaida.quantidade();
+        System.out.printf("%n== %s: %d portões, %d vagas, 1 dia simulado em %.0f s (%dx) ==%n",
+                cenario.nome, portoes, cenario.vagas, segundos, relogio.fator);
+        System.out.printf("chegadas %d | entradas aceitas %d | saídas %d | pernoite %d | faturamento R$ %s%n",
+                chegadas, entradasAceitas.sum(), saidasAceitas.sum(), pernoite, BigDecimal.valueOf(faturamentoCentavos.sum(), 2));
+        System.out.printf("vazão: %.1f req/s (%d requisições)%n", requisicoes / segundos, requisicoes);
+        latenciasEntrada.imprimir("entrar");
+        latenciasSaida.imprimir("sair  ");
+        if (erros.isEmpty()) {
+            System.out.println("erros: nenhum");
+        } else {
+            System.out.println("erros:");
+            new TreeMap<>(erros).forEach((tipo, quantidade) -> System.out.printf("  %-90s %d%n", tipo, quantidade.sum()));
+        }
+    }
+
+    /**
+     * Chegada (placa nula: sorteada no despacho) ou saída de um veículo, no horário simulado.
+     */
+    private record Evento(Instant instante, String placa, Duration permanencia) implements Comparable<Evento> {
+
+        @Override
+        public int compareTo(Evento outro) {
+            return instante.compareTo(outro.instante);
+        }
+    }
+
+    private static final class Latencias {
+
+        private long[] valores = new long[4096];
+        private int quantidade;
+
+        synchronized void registrar(long nanos) {
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+            }
+            valores[quantidade++] = nanos;
+        }
+
+        synchronized int quantidade() {
+            return quantidade;
+        }
+
+        synchronized void imprimir(String operacao) {
+            if (quantidade == 0) {
+                return;
+            }
+            long[] ordenadas = Arrays.copyOf(valores, quantidade);
+            Arrays.sort(ordenadas);
+            System.out.printf("%s latência (ms): p50 %.1f | p90 %.1f | p99 %.1f | p99.9 %.1f | máx %.1f%n", operacao,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99), percentil(ordenadas, 0.999),
+                    ordenadas[ordenadas.length - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+        }
+    }
+
+    /**
+     * Relógio que avança "fator" vezes mais rápido que o real a partir de um instante simulado. Substitui o Clock da
+     * aplicação, então as entradas e saídas são gravadas com o horário do dia simulado.
+     */
+    static final class RelogioAcelerado extends Clock {
+
+        private final long fator;
+        private volatile Instant inicioSimulado = Instant.EPOCH;
+        private volatile long inicioReal = System.nanoTime();
+        private volatile boolean parado;
+
+        RelogioAcelerado(long fator) {
+            this.fator = fator;
+        }
+
+        void iniciar(Instant instante) {
+            inicioReal = System.nanoTime();
+            inicioSimulado = instante;
+            parado = false;
+        }
+
+        void parar() {
+            inicioSimulado = instant();
+            parado = true;
+        }
+
+        // Tempo real até o instante simulado (negativo se já passou)
+        long nanosAte(Instant instante) {
+            return Duration.between(instant(), instante).toNanos() / fator;
+        }
+
+        @Override
+        public Instant instant() {
+            return parado ? inicioSimulado : inicioSimulado.plusNanos((System.nanoTime() - inicioReal) * fator);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONA;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException("O relógio simulado usa sempre a zona do sistema.");
+        }
+    }
+}
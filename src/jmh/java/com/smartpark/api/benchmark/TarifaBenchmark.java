@@ -0,0 +1,60 @@
+package com.smartpark.api.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.smartpark.api.service.CalculoTarifaLegado;
+import com.smartpark.api.service.TabelaTarifaria;
+
+/**
+ * Compara a tarifação original (BigDecimal, laço por hora e recursão por dia) com a TabelaTarifaria em centavos.
+ * Permanências: 15 min, 3 h, 11 h e 30 dias. Rodar com "-prof gc" para ver a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TarifaBenchmark {
+
+    @Param({"15", "180", "660", "43200"})
+    private long minutosPermanencia;
+
+    private LocalDateTime entrada;
+    private LocalDateTime saida;
+
+    @Setup
+    public void setUp() {
+        entrada = LocalDateTime.of(2025, 3, 10, 7, 45);
+        saida = entrada.plusMinutes(minutosPermanencia).plusSeconds(30);
+    }
+
+    @Benchmark
+    public BigDecimal legado() {
+        return CalculoTarifaLegado.calcularValor(entrada, saida);
+    }
+
+    @Benchmark
+    public long tabelaCentavos() {
+        return TabelaTarifaria.PADRAO.calcularCentavos(entrada, saida);
+    }
+
+    @Benchmark
+    public BigDecimal tabelaComConversaoParaReais() {
+        return TabelaTarifaria.paraReais(TabelaTarifaria.PADRAO.calcularCentavos(entrada, saida));
+    }
+}
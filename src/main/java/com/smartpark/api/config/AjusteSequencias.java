@@ -0,0 +1,56 @@
+package com.smartpark.api.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Garante, na inicialização, que cada sequência de IDs (@SequenceGenerator) está à frente do maior ID da sua tabela.
+ * Em bancos criados antes das sequências (IDs de coluna identity), o ddl-auto cria as sequências começando em 1 e os
+ * primeiros INSERTs colidiriam com as linhas existentes. Roda antes do servidor web aceitar requisições.
+ */
+@Component
+public class AjusteSequencias {
+
+    private static final Logger log = LoggerFactory.getLogger(AjusteSequencias.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource; // Fora de transação readOnly: com a réplica de leitura, sempre o primário
+
+    @PostConstruct
+    public void ajustar() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(entidade -> {
+            if (entidade.getGenerator() instanceof SequenceStyleGenerator gerador && entidade instanceof AbstractEntityPersister persister) {
+                ajustar(jdbcTemplate, dialect, gerador.getDatabaseStructure().getPhysicalName().render(),
+                        persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+            }
+        });
+    }
+
+    private void ajustar(JdbcTemplate jdbcTemplate, Dialect dialect, String sequencia, String tabela, String colunaId) {
+        Long maiorId = jdbcTemplate.queryForObject("select coalesce(max(" + colunaId + "), 0) from " + tabela, Long.class);
+        // Consome um valor: com pooled-lo, o bloco reservado por ele fica sem uso, o que não causa problema
+        Long proximo = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequencia), Long.class);
+        if (proximo != null && maiorId != null && proximo <= maiorId) {
+            jdbcTemplate.execute("alter sequence " + sequencia + " restart with " + (maiorId + 1));
+            log.warn("Sequência {} estava atrás do maior ID de {} ({}): reiniciada em {}", sequencia, tabela, maiorId, maiorId + 1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartpark.api.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache com Caffeine) para Vaga, Usuario e Veiculo, ligado em
+ * spring.jpa.properties.hibernate.cache (application.yml). As regiões são criadas aqui, uma a uma, a partir de
+ * CacheSegundoNivelProperties, e entregues ao Hibernate já prontas; o Hibernate fecha o CacheManager junto com a
+ * SessionFactory. Acertos e falhas por região saem nas métricas hibernate.second.level.cache.* e
+ * hibernate.cache.query.* em /actuator/prometheus.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheSegundoNivelProperties propriedades) {
+        return propriedadesHibernate -> propriedadesHibernate.put(ConfigSettings.CACHE_MANAGER, criarCacheManager(propriedades));
+    }
+
+    private static CacheManager criarCacheManager(CacheSegundoNivelProperties propriedades) {
+        // URI própria por SessionFactory: o provedor devolve o mesmo CacheManager para a mesma URI, e contextos
+        // diferentes (ex: testes) não podem compartilhar regiões
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("smartpark-hibernate-" + UUID.randomUUID()), CacheSegundoNivelConfig.class.getClassLoader());
+        propriedades.getRegioes().forEach((nome, regiao) ->
+                cacheManager.createCache(nome, configuracao(OptionalLong.of(regiao.getTamanhoMaximo()), regiao.getExpiracao())));
+        // Horário da última alteração de cada tabela, usado para descartar resultados de consultas desatualizados.
+        // Não pode perder entradas por tamanho nem por tempo, senão o cache de consultas passaria a devolver dados velhos
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuracao(OptionalLong.empty(), null));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracao(OptionalLong tamanhoMaximo, Duration expiracao) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setStoreByValue(false); // O Hibernate já guarda o estado desmontado da entidade, sem referências a instâncias
+        configuracao.setMaximumSize(tamanhoMaximo);
+        configuracao.setExpireAfterWrite(expiracao == null ? OptionalLong.empty() : OptionalLong.of(expiracao.toNanos()));
+        return configuracao;
+    }
+}
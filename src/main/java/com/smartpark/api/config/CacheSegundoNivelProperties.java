@@ -0,0 +1,36 @@
+package com.smartpark.api.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Regiões do cache de segundo nível do Hibernate, lidas de "smartpark.cache-segundo-nivel" (application.yml).
+ * Cada região de entidade (@Cache(region = ...)) e a região de resultados de consultas precisam estar declaradas aqui:
+ * com missing_cache_strategy=fail, uma região sem configuração impede a aplicação de subir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "smartpark.cache-segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    private Map<String, Regiao> regioes = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Regiao {
+        private long tamanhoMaximo = 10_000;
+
+        // O cache é local de cada instância: a expiração limita por quanto tempo uma alteração feita por outra
+        // instância (ou direto no banco) pode deixar de aparecer aqui
+        private Duration expiracao = Duration.ofMinutes(5);
+    }
+}
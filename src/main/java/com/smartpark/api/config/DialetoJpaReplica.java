@@ -0,0 +1,45 @@
+package com.smartpark.api.config;
+
+import java.sql.SQLException;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+
+/**
+ * HibernateJpaDialect usado com a réplica de leitura: em transações readOnly, a sessão lê do cache de segundo nível
+ * mas não grava nele (CacheStoreMode.BYPASS). O cache é compartilhado com as transações de escrita, que vão ao
+ * primário, e não pode receber entidades lidas de uma réplica atrasada.
+ * O modo vai nas propriedades do EntityManager, e não no CacheMode da sessão: find() e as consultas o leem de lá.
+ */
+public class DialetoJpaReplica extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object dadosTransacao = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return dadosTransacao;
+        }
+        Object storeModeAnterior = entityManager.getProperties().get(SpecHints.HINT_SPEC_CACHE_STORE_MODE);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new TransacaoSomenteLeitura(dadosTransacao, entityManager, storeModeAnterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof TransacaoSomenteLeitura transacao) {
+            if (transacao.entityManager().isOpen() && transacao.storeModeAnterior() != null) {
+                transacao.entityManager().setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, transacao.storeModeAnterior());
+            }
+            super.cleanupTransaction(transacao.dadosTransacao());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record TransacaoSomenteLeitura(Object dadosTransacao, EntityManager entityManager, Object storeModeAnterior) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartpark.api.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.service.ContadorOcupacao;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Medidores lidos sob demanda na coleta do Prometheus, sem custo nas requisições: ocupação por status (da contagem em
+ * memória, sem consultar o banco) e a réplica de leitura. Os timers dos portões ficam em MetricasEstacionamento;
+ * HikariCP (hikaricp.*), Hibernate (hibernate.*) e requisições HTTP (http.server.requests) vêm do Spring Boot Actuator.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasOcupacao(ContadorOcupacao contadorOcupacao) {
+        return registry -> {
+            for (StatusVaga status : StatusVaga.values()) {
+                Gauge.builder("smartpark.vagas", contadorOcupacao, contador -> contador.quantidade(status))
+                        .description("Vagas por status")
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+        };
+    }
+
+    // O roteador só existe com smartpark.replica.habilitado=true
+    @Bean
+    public MeterBinder metricasReplica(ObjectProvider<RoteadorReplica> roteadorReplica) {
+        return registry -> roteadorReplica.ifAvailable(roteador -> {
+            Gauge.builder("smartpark.replica.disponivel", roteador, r -> r.isDisponivel() ? 1 : 0)
+                    .description("1 enquanto as transações readOnly vão para a réplica de leitura")
+                    .register(registry);
+            Gauge.builder("smartpark.replica.atraso", roteador, RoteadorReplica::getAtrasoSegundos)
+                    .description("Atraso da réplica de leitura medido na última verificação")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("smartpark.replica.leituras.primario", roteador, RoteadorReplica::getLeiturasNoPrimario)
+                    .description("Transações readOnly atendidas pelo primário com a réplica atrasada ou fora do ar")
+                    .register(registry);
+        });
+    }
+}
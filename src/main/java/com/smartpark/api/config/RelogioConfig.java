@@ -0,0 +1,19 @@
+package com.smartpark.api.config;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RelogioConfig {
+
+    // Relógio das datas de entrada e saída dos estacionamentos. O simulador de portões (SimuladorPortoes, em src/jmh)
+    // registra um relógio acelerado no lugar deste, para um dia de movimento caber em poucos minutos
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock relogio() {
+        return Clock.systemDefaultZone();
+    }
+}
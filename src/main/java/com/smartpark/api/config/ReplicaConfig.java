@@ -0,0 +1,75 @@
+package com.smartpark.api.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Réplica de leitura (smartpark.replica.habilitado=true): transações @Transactional(readOnly = true) usam o pool da
+ * réplica e as demais o pool do primário (spring.datasource). Sem a propriedade, o Spring Boot cria o DataSource
+ * único de sempre. As leituras que alimentam o estado em memória dos portões, a autenticação e as leituras de vagas
+ * respondidas com ETag da geração em memória usam transações de escrita para ler sempre do primário.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "smartpark.replica", name = "habilitado", havingValue = "true")
+public class ReplicaConfig {
+
+    // Mesmo pool que o Spring Boot criaria sem a réplica (spring.datasource e spring.datasource.hikari)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Propriedades do HikariCP (jdbc-url, username, maximum-pool-size...). O pool só abre conexões no primeiro uso:
+    // a aplicação sobe mesmo com a réplica fora do ar
+    @Bean
+    @ConfigurationProperties("smartpark.replica.datasource")
+    public HikariDataSource dataSourceReplica() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public RoteadorReplica roteadorReplica(@Qualifier("dataSourcePrimario") DataSource primario,
+                                           @Qualifier("dataSourceReplica") DataSource replica,
+                                           @Value("${smartpark.replica.atraso-maximo:5s}") Duration atrasoMaximo,
+                                           @Value("${smartpark.replica.consulta-atraso}") String consultaAtraso,
+                                           @Value("${smartpark.replica.timeout-consulta-atraso:2s}") Duration timeoutConsulta) {
+        return new RoteadorReplica(primario, replica, atrasoMaximo, consultaAtraso, timeoutConsulta);
+    }
+
+    // O Hibernate pega a conexão no início da transação, antes de ela ser marcada como readOnly. Com o proxy, a conexão
+    // real só é obtida do roteador no primeiro comando SQL
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorReplica roteadorReplica) {
+        return new LazyConnectionDataSourceProxy(roteadorReplica);
+    }
+
+    @Bean
+    public static BeanPostProcessor dialetoJpaReplica() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean fabrica) {
+                    fabrica.setJpaDialect(new DialetoJpaReplica());
+                }
+                return bean;
+            }
+        };
+    }
+}
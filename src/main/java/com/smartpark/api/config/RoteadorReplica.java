@@ -0,0 +1,123 @@
+package com.smartpark.api.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envia as transações @Transactional(readOnly = true) para a réplica e todo o resto para o primário.
+ * Precisa ficar atrás de um LazyConnectionDataSourceProxy (ReplicaConfig): a conexão só é escolhida no primeiro
+ * comando SQL, quando a transação já está marcada como somente leitura.
+ * A réplica só recebe leituras enquanto a última verificação (a cada smartpark.replica.intervalo-verificacao) mediu um
+ * atraso de no máximo "atraso-maximo". Com atraso maior, com a consulta de atraso falhando ou sem conseguir abrir
+ * conexão, as leituras voltam para o primário até a próxima verificação bem-sucedida.
+ */
+public class RoteadorReplica extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteadorReplica.class);
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final Duration atrasoMaximo;
+    private final JdbcTemplate consultaReplica;
+    private final String consultaAtraso;
+
+    private volatile boolean disponivel; // Só depois da primeira verificação as leituras vão para a réplica
+    private volatile boolean verificada;
+    private volatile double atrasoSegundos = Double.NaN;
+    private final LongAdder leiturasNoPrimario = new LongAdder();
+
+    public RoteadorReplica(DataSource primario, DataSource replica, Duration atrasoMaximo, String consultaAtraso, Duration timeoutConsulta) {
+        this.primario = primario;
+        this.replica = replica;
+        this.atrasoMaximo = atrasoMaximo;
+        this.consultaAtraso = consultaAtraso;
+        this.consultaReplica = new JdbcTemplate(replica);
+        this.consultaReplica.setQueryTimeout((int) Math.max(1, timeoutConsulta.toSeconds()));
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && disponivel ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primario.getConnection();
+        }
+        if (disponivel) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                // A réplica caiu entre duas verificações: esta e as próximas leituras vão para o primário
+                marcarIndisponivel("sem conexão (" + e.getMessage() + ")");
+            }
+        }
+        leiturasNoPrimario.increment();
+        return primario.getConnection();
+    }
+
+    /**
+     * Mede o atraso da réplica e decide se as próximas leituras podem ir para ela.
+     */
+    @Scheduled(fixedDelayString = "${smartpark.replica.intervalo-verificacao:PT5S}")
+    public void verificar() {
+        Double atraso;
+        try {
+            atraso = consultaReplica.queryForObject(consultaAtraso, Double.class);
+        } catch (RuntimeException e) {
+            atrasoSegundos = Double.NaN;
+            marcarIndisponivel("falha ao medir o atraso (" + e.getMessage() + ")");
+            return;
+        }
+        atrasoSegundos = atraso == null ? 0 : atraso;
+        if (atrasoSegundos * 1000 > atrasoMaximo.toMillis()) {
+            marcarIndisponivel(String.format("atraso de %.1f s acima do máximo de %d s", atrasoSegundos, atrasoMaximo.toSeconds()));
+        } else if (!disponivel) {
+            disponivel = true;
+            verificada = true;
+            log.info("Réplica de leitura disponível (atraso de {} s): transações readOnly voltam para a réplica", atrasoSegundos);
+        }
+    }
+
+    private void marcarIndisponivel(String motivo) {
+        if (disponivel || !verificada) {
+            disponivel = false;
+            verificada = true;
+            log.warn("Réplica de leitura indisponível, {}: transações readOnly vão para o primário", motivo);
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    // NaN enquanto a réplica não responde à consulta de atraso
+    public double getAtrasoSegundos() {
+        return atrasoSegundos;
+    }
+
+    // Transações readOnly atendidas pelo primário porque a réplica estava atrasada ou fora do ar
+    public long getLeiturasNoPrimario() {
+        return leiturasNoPrimario.sum();
+    }
+
+    private enum Destino {
+        PRIMARIO, REPLICA
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartpark.api.config;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import com.smartpark.api.enums.TipoVeiculo;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Regras de tarifação lidas de "smartpark.tarifa" (application.yml) ou enviadas pelo endpoint /api/v1/tarifas.
+ * Os valores padrão reproduzem a tarifação original.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Validated
+@ConfigurationProperties(prefix = "smartpark.tarifa")
+public class TarifaProperties {
+
+    @NotNull(message = "A carência é obrigatória.")
+    @Min(value = 0, message = "A carência não pode ser negativa.")
+    private Integer carenciaMinutos = 15;
+
+    @NotNull(message = "A tarifa da primeira hora é obrigatória.")
+    @DecimalMin(value = "0.00", message = "A tarifa da primeira hora não pode ser negativa.")
+    private BigDecimal primeiraHora = new BigDecimal("5.00");
+
+    @NotNull(message = "A tarifa da hora adicional é obrigatória.")
+    @DecimalMin(value = "0.00", message = "A tarifa da hora adicional não pode ser negativa.")
+    private BigDecimal horaAdicional = new BigDecimal("2.00");
+
+    @NotNull(message = "A diária é obrigatória.")
+    @DecimalMin(value = "0.01", message = "A diária deve ser maior que zero.")
+    private BigDecimal diaria = new BigDecimal("25.00");
+
+    @NotNull(message = "As horas para cobrança da diária são obrigatórias.")
+    @Min(value = 1, message = "A diária deve começar a partir de pelo menos 1 hora.")
+    @Max(value = 24, message = "A diária deve começar em no máximo 24 horas.")
+    private Integer horasParaDiaria = 10;
+
+    // Tarifas específicas por tipo de veículo; campos nulos herdam a tarifa geral
+    @Valid
+    private Map<TipoVeiculo, TarifaVeiculo> porTipoVeiculo = new EnumMap<>(TipoVeiculo.class);
+
+    // Ajustes percentuais conforme o horário de entrada (ex: noturno com 80%); a última faixa que cobre o horário vale
+    // Em permanências de vários dias, o percentual vale só para o resto do último dia: as diárias são integrais
+    @Valid
+    private List<FaixaHoraria> faixasHorarias = new ArrayList<>();
+
+    /**
+     * Cópia independente destas regras, inclusive das tarifas por tipo de veículo e das faixas horárias.
+     * O bean de @ConfigurationProperties é alterado no lugar a cada rebind, então a política em vigor guarda uma cópia.
+     */
+    public TarifaProperties copia() {
+        Map<TipoVeiculo, TarifaVeiculo> copiaPorTipo = new EnumMap<>(TipoVeiculo.class);
+        if (porTipoVeiculo != null) {
+            porTipoVeiculo.forEach((tipo, tarifa) -> copiaPorTipo.put(tipo, tarifa == null ? null
+                    : new TarifaVeiculo(tarifa.getPrimeiraHora(), tarifa.getHoraAdicional(), tarifa.getDiaria())));
+        }
+        List<FaixaHoraria> copiaFaixas = new ArrayList<>();
+        if (faixasHorarias != null) {
+            faixasHorarias.forEach(faixa -> copiaFaixas.add(faixa == null ? null
+                    : new FaixaHoraria(faixa.getInicio(), faixa.getFim(), faixa.getPercentual())));
+        }
+        return new TarifaProperties(carenciaMinutos, primeiraHora, horaAdicional, diaria, horasParaDiaria, copiaPorTipo, copiaFaixas);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TarifaVeiculo {
+        @DecimalMin(value = "0.00", message = "A tarifa da primeira hora não pode ser negativa.")
+        private BigDecimal primeiraHora;
+
+        @DecimalMin(value = "0.00", message = "A tarifa da hora adicional não pode ser negativa.")
+        private BigDecimal horaAdicional;
+
+        @DecimalMin(value = "0.01", message = "A diária deve ser maior que zero.")
+        private BigDecimal diaria;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FaixaHoraria {
+        @NotNull(message = "O início da faixa horária é obrigatório.")
+        private LocalTime inicio;
+
+        @NotNull(message = "O fim da faixa horária é obrigatório.")
+        private LocalTime fim; // Exclusive; se for menor que o início, a faixa atravessa a meia-noite
+
+        @NotNull(message = "O percentual da faixa horária é obrigatório.")
+        @Min(value = 0, message = "O percentual não pode ser negativo.")
+        @Max(value = 1000, message = "O percentual deve ser no máximo 1000.")
+        private Integer percentual;
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartpark.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.smartpark.api.dto.LoginRequestDTO;
+import com.smartpark.api.dto.TokenResponseDTO;
+import com.smartpark.api.security.TokenService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+public class AuthController {
+
+    @Autowired
+    private TokenService tokenService;
+
+    // Endpoint público: troca usuário e senha por um token Bearer usado nas chamadas seguintes
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponseDTO> login(@RequestBody @Valid LoginRequestDTO dto) {
+        TokenResponseDTO token = tokenService.login(dto);
+        return ResponseEntity.ok(token);
+    }
+}
@@ -1,20 +1,39 @@
 package com.smartpark.api.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.FiltroHistoricoDTO;
+import com.smartpark.api.dto.LoteEventosRequestDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.ResultadoLoteDTO;
 import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.enums.StatusEstacionamento;
 import com.smartpark.api.service.EstacionamentoService;
 
 import jakarta.validation.Valid;
@@ -23,9 +42,17 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/v1/estacionamentos")
 public class EstacionamentoController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    // Registro finalizado não muda mais: o cliente pode guardar por um ano sem revalidar
+    private static final CacheControl CACHE_FINALIZADO = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
     @Autowired
     private EstacionamentoService estacionamentoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/entrar")
     public ResponseEntity<EstacionamentoResponseDTO> registrarEntrada(@RequestBody @Valid VeiculoEntradaDTO veiculoDto) {
         EstacionamentoResponseDTO response = estacionamentoService.registrarEntrada(veiculoDto);
@@ -38,21 +65,68 @@ public class EstacionamentoController {
         return ResponseEntity.ok(response);
     }
 
+    // Reenvio em lote de entradas/saídas registradas offline pelos portões; o resultado vem item a item, na mesma ordem
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> registrarLote(@RequestBody @Valid LoteEventosRequestDTO lote) {
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(lote.getEventos());
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping("/ativos")
     public ResponseEntity<List<EstacionamentoResponseDTO>> listarEstacionamentosAtivos() {
         List<EstacionamentoResponseDTO> ativos = estacionamentoService.listarEstacionamentosAtivos();
         return ResponseEntity.ok(ativos);
     }
 
+    // Histórico paginado por cursor: use o "proximoCursor" da resposta como parâmetro "apos" da próxima chamada
     @GetMapping("/historico")
-    public ResponseEntity<List<EstacionamentoResponseDTO>> listarHistoricoEstacionamentos() {
-        List<EstacionamentoResponseDTO> historico = estacionamentoService.listarHistoricoEstacionamentos();
+    public ResponseEntity<PaginaCursorDTO<EstacionamentoResponseDTO>> listarHistoricoEstacionamentos(
+            FiltroHistoricoDTO filtro,
+            @RequestParam(required = false) Long apos,
+            @RequestParam(required = false) Integer limite) {
+        PaginaCursorDTO<EstacionamentoResponseDTO> historico = estacionamentoService.listarHistoricoEstacionamentos(filtro, apos, limite);
         return ResponseEntity.ok(historico);
     }
 
+    // Exporta todo o histórico filtrado em NDJSON (um registro JSON por linha), escrevendo à medida que lê do banco
+    @GetMapping(value = "/historico/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarHistoricoEstacionamentos(FiltroHistoricoDTO filtro) {
+        ObjectWriter escritor = objectMapper.writerFor(EstacionamentoResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); // Deixa o buffer do gerador agrupar as escritas
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gerador.setRootValueSeparator(null); // Cada registro termina com '\n', sem separador extra
+                estacionamentoService.percorrerHistoricoEstacionamentos(filtro, registro -> {
+                    try {
+                        escritor.writeValue(gerador, registro);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON)).body(corpo);
+    }
+
+    // A ETag é o id + status: um registro só muda uma vez (ATIVO -> FINALIZADO), e o finalizado é imutável,
+    // então quem já tem a versão finalizada recebe 304 depois de uma checagem de existência, sem montar o corpo.
+    // A ETag pode ser montada por qualquer cliente: sem a checagem, um ID inexistente (ou removido) responderia 304
     @GetMapping("/{id}")
-    public ResponseEntity<EstacionamentoResponseDTO> buscarEstacionamentoPorId(@PathVariable Long id) {
+    public ResponseEntity<EstacionamentoResponseDTO> buscarEstacionamentoPorId(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etagFinalizado = etagEstacionamento(id, StatusEstacionamento.FINALIZADO);
+        if (RespostaCondicional.naoModificado(ifNoneMatch, etagFinalizado) && estacionamentoService.estaFinalizado(id)) {
+            return RespostaCondicional.responder(ifNoneMatch, etagFinalizado, CACHE_FINALIZADO, () -> null);
+        }
         EstacionamentoResponseDTO estacionamento = estacionamentoService.buscarEstacionamentoPorId(id);
-        return ResponseEntity.ok(estacionamento);
+        boolean finalizado = estacionamento.getStatus() == StatusEstacionamento.FINALIZADO;
+        return RespostaCondicional.responder(ifNoneMatch, etagEstacionamento(id, estacionamento.getStatus()),
+                finalizado ? CACHE_FINALIZADO : RespostaCondicional.REVALIDAR, () -> estacionamento);
+    }
+
+    private static String etagEstacionamento(Long id, StatusEstacionamento status) {
+        return "estacionamento-" + id + "-" + status;
     }
 }
\ No newline at end of file
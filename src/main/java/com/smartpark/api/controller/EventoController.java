@@ -0,0 +1,25 @@
+package com.smartpark.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.smartpark.api.service.DifusorEventos;
+
+@RestController
+@RequestMapping("/api/v1/eventos")
+public class EventoController {
+
+    @Autowired
+    private DifusorEventos difusorEventos;
+
+    // Stream SSE com os eventos "ocupacao" (total, ocupadas, livres, cheio), "entrada", "saida" e "eventos-descartados".
+    // Substitui o polling dos contadores de vagas e de /estacionamentos/ativos
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar() {
+        return difusorEventos.assinar();
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartpark.api.controller;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * GET condicional com ETag: se o If-None-Match do cliente já tem a versão atual, responde 304 sem montar o corpo
+ * (nem consultar o banco ou serializar o JSON). A versão vem de algo barato de ler, como a geração das vagas em memória.
+ */
+final class RespostaCondicional {
+
+    // Distingue as gerações desta execução das anteriores: após reiniciar, a geração volta a zero e "vagas-3" seria repetida
+    private static final String INSTANCIA = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    // Dados que mudam a qualquer momento: o cliente pode guardar, mas revalida a cada uso (barato, com 304)
+    static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * @param ifNoneMatch Cabeçalho If-None-Match da requisição (pode ser nulo).
+     * @param etag ETag da versão atual, sem aspas.
+     * @param cacheControl Cache-Control enviado tanto no 200 quanto no 304.
+     * @param corpo Monta o corpo; só é chamado se o cliente não tiver a versão atual.
+     */
+    static <T> ResponseEntity<T> responder(String ifNoneMatch, String etag, CacheControl cacheControl, Supplier<T> corpo) {
+        if (naoModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(corpo.get());
+    }
+
+    /**
+     * @return ETag de uma geração em memória, única entre reinicializações da aplicação.
+     */
+    static String etagGeracao(String recurso, long geracao) {
+        return recurso + "-" + INSTANCIA + "-" + geracao;
+    }
+
+    // Comparação fraca, como manda a RFC 9110 para If-None-Match
+    static boolean naoModificado(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag atual = ETag.create(etag);
+        for (ETag recebida : ETag.parse(ifNoneMatch)) {
+            if (recebida.isWildcard() || recebida.compare(atual, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartpark.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.smartpark.api.config.TarifaProperties;
+import com.smartpark.api.service.TarifaService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/tarifas")
+public class TarifaController {
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @GetMapping
+    public ResponseEntity<TarifaProperties> buscarRegrasAtuais() {
+        return ResponseEntity.ok(tarifaService.buscarRegrasAtuais());
+    }
+
+    // Apenas ADMIN pode alterar a tarifação; as novas regras valem a partir da próxima saída, sem reiniciar a aplicação
+    @PutMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TarifaProperties> atualizarRegras(@RequestBody @Valid TarifaProperties regras) {
+        TarifaProperties regrasAtualizadas = tarifaService.atualizarRegras(regras);
+        return ResponseEntity.ok(regrasAtualizadas);
+    }
+
+    // Relê "smartpark.tarifa.*" do arquivo smartpark.tarifa-arquivo (e do Environment) sem reiniciar a aplicação
+    @PostMapping("/recarregar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TarifaProperties> recarregarRegras() {
+        return ResponseEntity.ok(tarifaService.recarregarRegras());
+    }
+}
@@ -1,7 +1,5 @@
 package com.smartpark.api.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,8 +11,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.smartpark.api.dto.EstatisticasCacheDTO;
+import com.smartpark.api.dto.FiltroUsuariosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
 import com.smartpark.api.dto.UsuarioRequestDTO;
 import com.smartpark.api.dto.UsuarioResponseDTO;
 import com.smartpark.api.service.UsuarioService;
@@ -36,11 +38,14 @@ public class UsuarioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(novoUsuario);
     }
 
-    // Apenas ADMIN pode listar todos os usuários
+    // Apenas ADMIN pode listar os usuários (paginado por cursor, com filtro opcional ?role=ADMIN)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UsuarioResponseDTO>> listarTodosUsuarios() {
-        List<UsuarioResponseDTO> usuarios = usuarioService.listarTodosUsuarios();
+    public ResponseEntity<PaginaCursorDTO<UsuarioResponseDTO>> listarUsuarios(
+            FiltroUsuariosDTO filtro,
+            @RequestParam(required = false) Long apos,
+            @RequestParam(required = false) Integer limite) {
+        PaginaCursorDTO<UsuarioResponseDTO> usuarios = usuarioService.listarUsuarios(filtro, apos, limite);
         return ResponseEntity.ok(usuarios);
     }
 
@@ -70,4 +75,12 @@ public class UsuarioController {
         usuarioService.deletarUsuario(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Apenas ADMIN pode ver as estatísticas do cache de autenticação (acertos, falhas e taxa de acerto)
+    @GetMapping("/cache-autenticacao/estatisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EstatisticasCacheDTO> buscarEstatisticasCacheAutenticacao() {
+        EstatisticasCacheDTO estatisticas = usuarioService.buscarEstatisticasCacheAutenticacao();
+        return ResponseEntity.ok(estatisticas);
+    }
 }
\ No newline at end of file
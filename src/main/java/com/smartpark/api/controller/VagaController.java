@@ -1,8 +1,7 @@
 package com.smartpark.api.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,9 +10,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.smartpark.api.dto.FiltroVagasDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.VagaResponseDTO;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.service.VagaService;
 
@@ -23,31 +28,39 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/v1/vagas")
 public class VagaController {
 
+    private static final String RECURSO_VAGAS = "vagas";
+
     @Autowired
     private VagaService vagaService;
 
     @PostMapping
-    public ResponseEntity<Vaga> criarVaga(@RequestBody @Valid Vaga vaga) {
+    public ResponseEntity<VagaResponseDTO> criarVaga(@RequestBody @Valid Vaga vaga) {
         Vaga novaVaga = vagaService.criarVaga(vaga);
-        return ResponseEntity.status(HttpStatus.CREATED).body(novaVaga);
+        return ResponseEntity.status(HttpStatus.CREATED).body(VagaResponseDTO.de(novaVaga));
     }
 
+    // Paginado por cursor, com filtros opcionais ?status=LIVRE&prefixo=B: use o "proximoCursor" da resposta como "apos"
     @GetMapping
-    public ResponseEntity<List<Vaga>> listarTodasVagas() {
-        List<Vaga> vagas = vagaService.listarTodasVagas();
-        return ResponseEntity.ok(vagas);
+    public ResponseEntity<PaginaCursorDTO<VagaResponseDTO>> listarVagas(
+            FiltroVagasDTO filtro,
+            @RequestParam(required = false) Long apos,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR,
+                () -> vagaService.listarVagas(filtro, apos, limite));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Vaga> buscarVagaPorId(@PathVariable Long id) {
-        Vaga vaga = vagaService.buscarVagaPorId(id);
-        return ResponseEntity.ok(vaga);
+    public ResponseEntity<VagaResponseDTO> buscarVagaPorId(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR,
+                () -> vagaService.buscarResumoVagaPorId(id));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Vaga> atualizarVaga(@PathVariable Long id, @RequestBody @Valid Vaga vaga) {
+    public ResponseEntity<VagaResponseDTO> atualizarVaga(@PathVariable Long id, @RequestBody @Valid Vaga vaga) {
         Vaga vagaAtualizada = vagaService.atualizarVaga(id, vaga);
-        return ResponseEntity.ok(vagaAtualizada);
+        return ResponseEntity.ok(VagaResponseDTO.de(vagaAtualizada));
     }
 
     @DeleteMapping("/{id}")
@@ -57,26 +70,34 @@ public class VagaController {
     }
 
     @GetMapping("/total")
-    public ResponseEntity<Integer> getTotalVagas() {
-        int total = vagaService.getTotalVagas();
-        return ResponseEntity.ok(total);
+    public ResponseEntity<Integer> getTotalVagas(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR, vagaService::getTotalVagas);
     }
 
     @GetMapping("/ocupadas")
-    public ResponseEntity<Integer> getVagasOcupadas() {
-        int ocupadas = vagaService.getVagasOcupadas();
-        return ResponseEntity.ok(ocupadas);
+    public ResponseEntity<Integer> getVagasOcupadas(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR, vagaService::getVagasOcupadas);
     }
 
     @GetMapping("/livres")
-    public ResponseEntity<Integer> getVagasLivres() {
-        int livres = vagaService.getVagasLivres();
-        return ResponseEntity.ok(livres);
+    public ResponseEntity<Integer> getVagasLivres(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR, vagaService::getVagasLivres);
     }
 
     @GetMapping("/cheio")
-    public ResponseEntity<Boolean> isEstacionamentoCheio() {
-        boolean cheio = vagaService.isEstacionamentoCheio();
-        return ResponseEntity.ok(cheio);
+    public ResponseEntity<Boolean> isEstacionamentoCheio(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR, vagaService::isEstacionamentoCheio);
+    }
+
+    // Os quatro valores acima numa única chamada, servidos da contagem em memória (para painéis que consultam a cada segundo)
+    @GetMapping("/ocupacao")
+    public ResponseEntity<OcupacaoDTO> getOcupacao(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespostaCondicional.responder(ifNoneMatch, etagVagas(), RespostaCondicional.REVALIDAR, vagaService::getOcupacao);
+    }
+
+    // Lida antes dos dados: uma alteração concorrente pode vir no corpo com a ETag anterior (o próximo GET recebe 200),
+    // mas nunca o contrário, que faria o cliente guardar dados antigos com a ETag nova
+    private String etagVagas() {
+        return RespostaCondicional.etagGeracao(RECURSO_VAGAS, vagaService.getGeracaoVagas());
     }
-}
\ No newline at end of file
+}
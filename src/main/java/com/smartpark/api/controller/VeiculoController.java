@@ -1,7 +1,5 @@
 package com.smartpark.api.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,8 +10,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.smartpark.api.dto.FiltroVeiculosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.VeiculoResponseDTO;
 import com.smartpark.api.entity.Veiculo;
 import com.smartpark.api.service.VeiculoService;
 
@@ -27,27 +29,31 @@ public class VeiculoController {
     private VeiculoService veiculoService;
 
     @PostMapping
-    public ResponseEntity<Veiculo> criarVeiculo(@RequestBody @Valid Veiculo veiculo) {
+    public ResponseEntity<VeiculoResponseDTO> criarVeiculo(@RequestBody @Valid Veiculo veiculo) {
         Veiculo novoVeiculo = veiculoService.criarVeiculo(veiculo);
-        return ResponseEntity.status(HttpStatus.CREATED).body(novoVeiculo);
+        return ResponseEntity.status(HttpStatus.CREATED).body(VeiculoResponseDTO.de(novoVeiculo));
     }
 
+    // Paginado por cursor, com filtro opcional ?tipoVeiculo=MOTO: use o "proximoCursor" da resposta como "apos"
     @GetMapping
-    public ResponseEntity<List<Veiculo>> listarTodosVeiculos() {
-        List<Veiculo> veiculos = veiculoService.listarTodosVeiculos();
+    public ResponseEntity<PaginaCursorDTO<VeiculoResponseDTO>> listarVeiculos(
+            FiltroVeiculosDTO filtro,
+            @RequestParam(required = false) Long apos,
+            @RequestParam(required = false) Integer limite) {
+        PaginaCursorDTO<VeiculoResponseDTO> veiculos = veiculoService.listarVeiculos(filtro, apos, limite);
         return ResponseEntity.ok(veiculos);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Veiculo> buscarVeiculoPorId(@PathVariable Long id) {
-        Veiculo veiculo = veiculoService.buscarVeiculoPorId(id);
+    public ResponseEntity<VeiculoResponseDTO> buscarVeiculoPorId(@PathVariable Long id) {
+        VeiculoResponseDTO veiculo = veiculoService.buscarResumoVeiculoPorId(id);
         return ResponseEntity.ok(veiculo);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Veiculo> atualizarVeiculo(@PathVariable Long id, @RequestBody @Valid Veiculo veiculo) {
+    public ResponseEntity<VeiculoResponseDTO> atualizarVeiculo(@PathVariable Long id, @RequestBody @Valid Veiculo veiculo) {
         Veiculo veiculoAtualizado = veiculoService.atualizarVeiculo(id, veiculo);
-        return ResponseEntity.ok(veiculoAtualizado);
+        return ResponseEntity.ok(VeiculoResponseDTO.de(veiculoAtualizado));
     }
 
     @DeleteMapping("/{id}")
@@ -57,9 +63,9 @@ public class VeiculoController {
     }
 
     @GetMapping("/placa/{placa}")
-    public ResponseEntity<Veiculo> buscarVeiculoPorPlaca(@PathVariable String placa) {
+    public ResponseEntity<VeiculoResponseDTO> buscarVeiculoPorPlaca(@PathVariable String placa) {
         // Retorna 200 OK se encontrar, 404 Not Found se não
-        return veiculoService.findByPlaca(placa)
+        return veiculoService.buscarResumoVeiculoPorPlaca(placa)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
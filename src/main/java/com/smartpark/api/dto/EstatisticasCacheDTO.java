@@ -0,0 +1,16 @@
+package com.smartpark.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasCacheDTO {
+    private long tamanho;
+    private long acertos;
+    private long falhas;
+    private double taxaAcerto; // Entre 0 e 1; 1 quando ainda não houve consultas
+    private long remocoes;
+}
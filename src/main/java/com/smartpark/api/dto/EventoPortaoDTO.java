@@ -0,0 +1,23 @@
+package com.smartpark.api.dto;
+
+import java.time.LocalDateTime;
+
+import com.smartpark.api.enums.TipoMovimentacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada ou saída registrada pelo controlador do portão, possivelmente offline, com o horário do próprio portão.
+ * Entradas usam "veiculo"; saídas usam "placa". A validação é feita item a item no processamento do lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoPortaoDTO {
+    private TipoMovimentacao tipo;
+    private LocalDateTime dataHora;
+    private VeiculoEntradaDTO veiculo; // Obrigatório na ENTRADA
+    private String placa; // Obrigatória na SAIDA
+}
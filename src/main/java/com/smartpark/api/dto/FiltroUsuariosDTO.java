@@ -0,0 +1,12 @@
+package com.smartpark.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroUsuariosDTO {
+    private String role; // Ex: "ADMIN", "USER" (sem diferenciar maiúsculas)
+}
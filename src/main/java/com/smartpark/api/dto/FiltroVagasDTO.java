@@ -0,0 +1,15 @@
+package com.smartpark.api.dto;
+
+import com.smartpark.api.enums.StatusVaga;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroVagasDTO {
+    private StatusVaga status;
+    private String prefixo; // Início do número da vaga (ex: "B" para o piso B, "B1" para o setor B1)
+}
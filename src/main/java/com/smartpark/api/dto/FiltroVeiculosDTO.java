@@ -0,0 +1,14 @@
+package com.smartpark.api.dto;
+
+import com.smartpark.api.enums.TipoVeiculo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroVeiculosDTO {
+    private TipoVeiculo tipoVeiculo;
+}
@@ -0,0 +1,18 @@
+package com.smartpark.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRequestDTO {
+
+    @NotBlank(message = "O username é obrigatório.")
+    private String username;
+
+    @NotBlank(message = "A senha é obrigatória.")
+    private String password;
+}
@@ -0,0 +1,19 @@
+package com.smartpark.api.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteEventosRequestDTO {
+
+    @NotEmpty(message = "O lote deve ter pelo menos um evento.")
+    @Size(max = 10000, message = "O lote deve ter no máximo 10000 eventos.")
+    private List<EventoPortaoDTO> eventos; // Processados na ordem recebida
+}
@@ -0,0 +1,15 @@
+package com.smartpark.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacaoDTO {
+    private int total;
+    private int ocupadas;
+    private int livres;
+    private boolean cheio;
+}
@@ -0,0 +1,34 @@
+package com.smartpark.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private List<T> itens;
+    private Long proximoCursor; // Passar como "apos" para buscar a próxima página; nulo quando não há mais itens
+
+    // Tamanho de página pedido pelo cliente, entre 1 e LIMITE_MAXIMO (LIMITE_PADRAO se não informado)
+    public static int tamanhoPagina(Integer limite) {
+        return limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    // Monta a página a partir de uma consulta que buscou um item a mais, para saber se existe próxima página sem COUNT
+    public static <T> PaginaCursorDTO<T> de(List<T> registros, int tamanhoPagina, Function<T, Long> id) {
+        if (registros.size() <= tamanhoPagina) {
+            return new PaginaCursorDTO<>(registros, null);
+        }
+        List<T> itens = registros.subList(0, tamanhoPagina);
+        return new PaginaCursorDTO<>(itens, id.apply(itens.get(tamanhoPagina - 1)));
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartpark.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoEventoDTO {
+    private int indice; // Posição do evento no lote recebido
+    private boolean sucesso;
+    private EstacionamentoResponseDTO estacionamento; // Preenchido em caso de sucesso
+    private String erro; // Preenchido em caso de falha
+
+    public static ResultadoEventoDTO sucesso(int indice, EstacionamentoResponseDTO estacionamento) {
+        return new ResultadoEventoDTO(indice, true, estacionamento, null);
+    }
+
+    public static ResultadoEventoDTO falha(int indice, String erro) {
+        return new ResultadoEventoDTO(indice, false, null, erro);
+    }
+}
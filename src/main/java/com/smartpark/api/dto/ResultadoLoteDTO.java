@@ -0,0 +1,17 @@
+package com.smartpark.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    private int total;
+    private int sucessos;
+    private int falhas;
+    private List<ResultadoEventoDTO> resultados; // Na mesma ordem dos eventos enviados
+}
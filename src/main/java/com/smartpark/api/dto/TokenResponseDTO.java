@@ -0,0 +1,14 @@
+package com.smartpark.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponseDTO {
+    private String token;
+    private String tipo; // Sempre "Bearer"
+    private long expiraEmSegundos;
+}
@@ -0,0 +1,22 @@
+package com.smartpark.api.dto;
+
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dados da vaga sem o histórico de estacionamentos (a entidade nunca é serializada)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VagaResponseDTO {
+    private Long id;
+    private String numero;
+    private StatusVaga status;
+
+    public static VagaResponseDTO de(Vaga vaga) {
+        return new VagaResponseDTO(vaga.getId(), vaga.getNumero(), vaga.getStatus());
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartpark.api.dto;
+
+import com.smartpark.api.entity.Veiculo;
+import com.smartpark.api.enums.TipoVeiculo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dados do veículo sem o histórico de estacionamentos (a entidade nunca é serializada)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VeiculoResponseDTO {
+    private Long id;
+    private String placa;
+    private String marca;
+    private String modelo;
+    private String cor;
+    private TipoVeiculo tipoVeiculo;
+
+    public static VeiculoResponseDTO de(Veiculo veiculo) {
+        return new VeiculoResponseDTO(veiculo.getId(), veiculo.getPlaca(), veiculo.getMarca(), veiculo.getModelo(),
+                veiculo.getCor(), veiculo.getTipoVeiculo());
+    }
+}
@@ -9,32 +9,43 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_estacionamentos")
+@Table(name = "tb_estacionamentos", indexes = {
+        // Atende a listagem de ativos e a busca do registro ativo de um veículo (status + veículo)
+        @Index(name = "idx_estacionamentos_status_veiculo", columnList = "status, veiculo_id"),
+        // Histórico filtrado por placa (keyset pelo id)
+        @Index(name = "idx_estacionamentos_veiculo_id", columnList = "veiculo_id, id"),
+        // Histórico filtrado por período de entrada
+        @Index(name = "idx_estacionamentos_entrada_id", columnList = "data_hora_entrada, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Estacionamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gen_estacionamentos")
+    @SequenceGenerator(name = "gen_estacionamentos", sequenceName = "seq_estacionamentos", allocationSize = 50) // IDs reservados em blocos (pooled-lo): INSERTs em lote
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // Quem precisa do veículo/vaga faz join fetch ou projeta direto no DTO
     @JoinColumn(name = "veiculo_id", nullable = false)
     private Veiculo veiculo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vaga_id", nullable = false)
     private Vaga vaga;
 
@@ -3,22 +3,31 @@ package com.smartpark.api.entity;
 import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_usuarios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios") // Lido a cada autenticação que não está no CacheAutenticacao
+@Table(name = "tb_usuarios", indexes = {
+        // Listagem filtrada por role (keyset pelo id)
+        @Index(name = "idx_usuarios_role_id", columnList = "role, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,8 +2,12 @@ package com.smartpark.api.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.smartpark.api.enums.StatusVaga;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,21 +16,29 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_vagas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vagas") // O UPDATE condicional da alocação (alterarStatusSeIgual) descarta só a vaga ocupada
+@Table(name = "tb_vagas", indexes = {
+        // Listagem filtrada por status (keyset pelo id) e busca de candidatas livres para o alocador
+        @Index(name = "idx_vagas_status_id", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Vaga {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gen_vagas")
+    @SequenceGenerator(name = "gen_vagas", sequenceName = "seq_vagas", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 10)
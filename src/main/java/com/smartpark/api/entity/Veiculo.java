@@ -12,21 +12,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_veiculos")
+@Table(name = "tb_veiculos", indexes = {
+        // Listagem filtrada por tipo (keyset pelo id)
+        @Index(name = "idx_veiculos_tipo_id", columnList = "tipo_veiculo, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Veiculo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gen_veiculos")
+    @SequenceGenerator(name = "gen_veiculos", sequenceName = "seq_veiculos", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 10)
@@ -0,0 +1,6 @@
+package com.smartpark.api.enums;
+
+public enum TipoMovimentacao {
+    ENTRADA,
+    SAIDA
+}
@@ -0,0 +1,17 @@
+package com.smartpark.api.event;
+
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.enums.TipoMovimentacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Publicado por EstacionamentoService a cada entrada ou saída registrada.
+ */
+@Data
+@AllArgsConstructor
+public class MovimentacaoEstacionamentoEvent {
+    private TipoMovimentacao tipo;
+    private EstacionamentoResponseDTO estacionamento;
+}
@@ -0,0 +1,15 @@
+package com.smartpark.api.event;
+
+import com.smartpark.api.dto.OcupacaoDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Publicado por ContadorOcupacao sempre que a contagem em memória muda (já após o commit).
+ */
+@Data
+@AllArgsConstructor
+public class OcupacaoAlteradaEvent {
+    private OcupacaoDTO ocupacao;
+}
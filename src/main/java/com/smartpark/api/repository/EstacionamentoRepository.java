@@ -1,22 +1,72 @@
 package com.smartpark.api.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
 import com.smartpark.api.entity.Estacionamento;
 import com.smartpark.api.enums.StatusEstacionamento;
 
 @Repository
-public interface EstacionamentoRepository extends JpaRepository<Estacionamento, Long> {
+public interface EstacionamentoRepository extends JpaRepository<Estacionamento, Long>, EstacionamentoRepositoryCustom {
 
     /**
      * Busca um registro de estacionamento ativo para um veículo específico pela placa.
      * Um registro é considerado ativo se o StatusEstacionamento for ATIVO.
      * @param placa A placa do veículo.
      * @param status O status do estacionamento (deve ser StatusEstacionamento.ATIVO).
+     * Veículo e vaga vêm no mesmo SELECT: a saída usa os dois (tarifa e liberação da vaga).
      * @return Um Optional contendo o registro de Estacionamento ativo, se encontrado.
      */
+    @Query("select e from Estacionamento e join fetch e.veiculo v join fetch e.vaga where v.placa = :placa and e.status = :status")
     Optional<Estacionamento> findByVeiculoPlacaAndStatus(String placa, StatusEstacionamento status);
-}
\ No newline at end of file
+
+    /**
+     * Lista os registros com o status informado projetando direto no DTO, em um único SELECT com os joins.
+     * O filtro é feito no banco (índice em status, veiculo_id), sem carregar o histórico inteiro.
+     * @param status O status do estacionamento (ex: StatusEstacionamento.ATIVO).
+     * @return Os registros de estacionamento com o status especificado, ordenados pela entrada.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.EstacionamentoResponseDTO(
+                e.id, v.placa, g.numero, e.dataHoraEntrada, e.dataHoraSaida, e.valorCobrado, e.status)
+            from Estacionamento e join e.veiculo v join e.vaga g
+            where e.status = :status
+            order by e.dataHoraEntrada""")
+    List<EstacionamentoResponseDTO> listarResumosPorStatus(StatusEstacionamento status);
+
+    /**
+     * Busca um registro projetando direto no DTO, em um único SELECT com os joins.
+     * @param id O ID do registro.
+     * @return Um Optional contendo o registro, se encontrado.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.EstacionamentoResponseDTO(
+                e.id, v.placa, g.numero, e.dataHoraEntrada, e.dataHoraSaida, e.valorCobrado, e.status)
+            from Estacionamento e join e.veiculo v join e.vaga g
+            where e.id = :id""")
+    Optional<EstacionamentoResponseDTO> buscarResumoPorId(Long id);
+
+    /**
+     * Confere se um registro existe com o status informado, sem carregar a entidade.
+     * @param id O ID do registro.
+     * @param status O status esperado.
+     * @return true se o registro existir com esse status.
+     */
+    boolean existsByIdAndStatus(Long id, StatusEstacionamento status);
+
+    /**
+     * Busca os registros com o status informado para um conjunto de placas, já trazendo veículo e vaga.
+     * Usado no processamento em lote para resolver todas as placas de um bloco com um único SELECT.
+     * @param status O status do estacionamento (ex: StatusEstacionamento.ATIVO).
+     * @param placas As placas dos veículos.
+     * @return Os registros encontrados.
+     */
+    @Query("select e from Estacionamento e join fetch e.veiculo v join fetch e.vaga where e.status = :status and v.placa in :placas")
+    List<Estacionamento> findAllByStatusAndPlacaIn(StatusEstacionamento status, Collection<String> placas);
+}
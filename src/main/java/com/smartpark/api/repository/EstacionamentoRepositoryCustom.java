@@ -0,0 +1,41 @@
+package com.smartpark.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+
+/**
+ * Consultas do histórico montadas à mão (EstacionamentoRepositoryCustomImpl): só os filtros informados entram no
+ * WHERE, para que o banco use o índice de cada combinação em vez de um plano genérico com "parâmetro is null or ...".
+ */
+public interface EstacionamentoRepositoryCustom {
+
+    /**
+     * Busca uma página do histórico por keyset (id maior que o cursor), com filtros opcionais, projetando direto no DTO.
+     * Parâmetros nulos não filtram. Um SELECT por página. Com placa, percorre o índice (veiculo_id, id) a partir do
+     * cursor; sem filtros, a chave primária. Com período e sem placa, o índice (data_hora_entrada, id) limita as linhas
+     * às do período, que ainda são ordenadas por id: o custo cresce com o tamanho do período, não com o do histórico.
+     * @param cursor Último id já recebido (exclusive), ou nulo para a primeira página.
+     * @param placa Placa do veículo.
+     * @param de Entrada a partir de (inclusive).
+     * @param ate Entrada antes de (exclusive).
+     * @param limit Tamanho máximo da página.
+     * @return Os registros da página, ordenados por id.
+     */
+    List<EstacionamentoResponseDTO> findHistorico(Long cursor, String placa, LocalDateTime de, LocalDateTime ate, Limit limit);
+
+    /**
+     * Percorre o histórico filtrado como Stream, lendo do banco em blocos de tamanho fixo (fetch size).
+     * Projeta direto no DTO para que nenhuma entidade fique presa no contexto de persistência.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * @param placa Placa do veículo.
+     * @param de Entrada a partir de (inclusive).
+     * @param ate Entrada antes de (exclusive).
+     * @return Stream com os registros do histórico, ordenados por id.
+     */
+    Stream<EstacionamentoResponseDTO> streamHistorico(String placa, LocalDateTime de, LocalDateTime ate);
+}
@@ -0,0 +1,77 @@
+package com.smartpark.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.entity.Estacionamento;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.entity.Veiculo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class EstacionamentoRepositoryCustomImpl implements EstacionamentoRepositoryCustom {
+
+    private static final int TAMANHO_BLOCO_STREAM = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EstacionamentoResponseDTO> findHistorico(Long cursor, String placa, LocalDateTime de, LocalDateTime ate, Limit limit) {
+        TypedQuery<EstacionamentoResponseDTO> consulta = consultarHistorico(cursor, placa, de, ate);
+        if (limit.isLimited()) {
+            consulta.setMaxResults(limit.max());
+        }
+        return consulta.getResultList();
+    }
+
+    @Override
+    public Stream<EstacionamentoResponseDTO> streamHistorico(String placa, LocalDateTime de, LocalDateTime ate) {
+        return consultarHistorico(null, placa, de, ate)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_BLOCO_STREAM)
+                .getResultStream();
+    }
+
+    private TypedQuery<EstacionamentoResponseDTO> consultarHistorico(Long cursor, String placa, LocalDateTime de, LocalDateTime ate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EstacionamentoResponseDTO> query = cb.createQuery(EstacionamentoResponseDTO.class);
+        Root<Estacionamento> e = query.from(Estacionamento.class);
+        Join<Estacionamento, Veiculo> v = e.join("veiculo");
+        Join<Estacionamento, Vaga> g = e.join("vaga");
+
+        // Só os filtros informados: cada combinação vira uma consulta própria, com o plano (e o índice) dela
+        List<Predicate> filtros = new ArrayList<>();
+        if (cursor != null) {
+            filtros.add(cb.greaterThan(e.get("id"), cursor));
+        }
+        if (placa != null) {
+            filtros.add(cb.equal(v.get("placa"), placa));
+        }
+        if (de != null) {
+            filtros.add(cb.greaterThanOrEqualTo(e.get("dataHoraEntrada"), de));
+        }
+        if (ate != null) {
+            filtros.add(cb.lessThan(e.get("dataHoraEntrada"), ate));
+        }
+
+        query.select(cb.construct(EstacionamentoResponseDTO.class,
+                        e.get("id"), v.get("placa"), g.get("numero"), e.get("dataHoraEntrada"),
+                        e.get("dataHoraSaida"), e.get("valorCobrado"), e.get("status")))
+                .where(filtros.toArray(Predicate[]::new))
+                .orderBy(cb.asc(e.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -1,19 +1,45 @@
 package com.smartpark.api.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.smartpark.api.dto.UsuarioResponseDTO;
 import com.smartpark.api.entity.Usuario;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     /**
      * Busca um usuário pelo seu username. Essencial para a autenticação com Spring Security.
+     * O resultado fica no cache de consultas (o ID) e a entidade no cache de segundo nível: qualquer alteração em
+     * tb_usuarios descarta os resultados guardados.
      * @param username O username do usuário a ser buscado.
      * @return Um Optional contendo o Usuario, se encontrado.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Usuario> findByUsername(String username);
+
+    /**
+     * Busca uma página de usuários por keyset (id maior que o cursor), com filtro opcional de role,
+     * projetando direto no DTO (a senha nunca sai do banco). Com role, percorre o índice (role, id).
+     * @param cursor Último id já recebido (exclusive), ou nulo para a primeira página.
+     * @param role A role dos usuários (em maiúsculas), ou nulo para todas.
+     * @param limit Tamanho máximo da página.
+     * @return Os usuários da página, ordenados por id.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.UsuarioResponseDTO(u.id, u.username, u.role) from Usuario u
+            where (:cursor is null or u.id > :cursor)
+              and (:role is null or u.role = :role)
+            order by u.id""")
+    List<UsuarioResponseDTO> listarResumos(Long cursor, String role, Limit limit);
 }
\ No newline at end of file
@@ -1,21 +1,31 @@
 package com.smartpark.api.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.smartpark.api.dto.VagaResponseDTO;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.enums.StatusVaga;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface VagaRepository extends JpaRepository<Vaga, Long> {
+public interface VagaRepository extends JpaRepository<Vaga, Long>, VagaRepositoryCustom {
 
     /**
-     * Busca uma vaga pelo seu número identificador.
+     * Busca uma vaga pelo seu número identificador, pelo cache de consultas. Alterações de vagas pela entidade descartam
+     * os resultados guardados; o UPDATE condicional das entradas não (ele só muda o status, não o número).
      * @param numero O número da vaga a ser buscada.
      * @return Um Optional contendo a Vaga, se encontrada.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Vaga> findByNumero(String numero);
 
     /**
@@ -31,4 +41,48 @@ public interface VagaRepository extends JpaRepository<Vaga, Long> {
      * @return Um Optional contendo a primeira Vaga encontrada com o status.
      */
     Optional<Vaga> findTopByStatus(StatusVaga status); // findFirstByStatus também funcionaria
+
+    /**
+     * Lista apenas os IDs das vagas com o status especificado, sem carregar as entidades.
+     * Usado para aquecer o alocador de vagas livres em memória.
+     * @param status O status das vagas.
+     * @return Os IDs das vagas com o status especificado.
+     */
+    @Query("select v.id from Vaga v where v.status = :status order by v.id")
+    List<Long> findIdsByStatus(StatusVaga status);
+
+    /**
+     * Lista no máximo {@code limit} IDs de vagas com o status especificado.
+     * @param status O status das vagas.
+     * @param limit Quantidade máxima de IDs retornados.
+     * @return Os IDs das vagas com o status especificado.
+     */
+    @Query("select v.id from Vaga v where v.status = :status order by v.id")
+    List<Long> findIdsByStatus(StatusVaga status, Limit limit);
+
+    /**
+     * Busca uma página de vagas por keyset (id maior que o cursor), com filtros opcionais, projetando direto no DTO
+     * (sem carregar entidades nem o histórico). Parâmetros nulos não filtram.
+     * Com status, percorre o índice (status, id); sem filtros, a chave primária. Em ambos os casos lê só a página.
+     * @param cursor Último id já recebido (exclusive), ou nulo para a primeira página.
+     * @param status O status das vagas.
+     * @param prefixo Padrão LIKE do início do número (ex: "B%"), com os curingas informados pelo usuário já escapados.
+     * @param limit Tamanho máximo da página.
+     * @return As vagas da página, ordenadas por id.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.VagaResponseDTO(v.id, v.numero, v.status) from Vaga v
+            where (:cursor is null or v.id > :cursor)
+              and (:status is null or v.status = :status)
+              and (:prefixo is null or v.numero like :prefixo escape '\\')
+            order by v.id""")
+    List<VagaResponseDTO> listarResumos(Long cursor, StatusVaga status, String prefixo, Limit limit);
+
+    /**
+     * Busca uma vaga projetando direto no DTO.
+     * @param id O ID da vaga.
+     * @return Um Optional contendo a vaga, se encontrada.
+     */
+    @Query("select new com.smartpark.api.dto.VagaResponseDTO(v.id, v.numero, v.status) from Vaga v where v.id = :id")
+    Optional<VagaResponseDTO> buscarResumoPorId(Long id);
 }
\ No newline at end of file
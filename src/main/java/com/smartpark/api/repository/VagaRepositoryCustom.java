@@ -0,0 +1,21 @@
+package com.smartpark.api.repository;
+
+import com.smartpark.api.enums.StatusVaga;
+
+/**
+ * Operações de vagas implementadas à mão (VagaRepositoryCustomImpl), fora das consultas derivadas do Spring Data.
+ */
+public interface VagaRepositoryCustom {
+
+    /**
+     * Altera o status da vaga somente se ela ainda estiver no status esperado, em um único UPDATE condicional.
+     * Duas transações concorrentes nunca conseguem mudar a mesma vaga de LIVRE para OCUPADA.
+     * No cache de segundo nível, só a entrada desta vaga é descartada (agora e ao fim da transação): as demais vagas
+     * e o cache de consultas de tb_vagas continuam valendo.
+     * @param id O ID da vaga.
+     * @param statusAtual O status que a vaga precisa ter para ser alterada.
+     * @param novoStatus O novo status da vaga.
+     * @return 1 se a vaga foi alterada, 0 se ela não existe ou já não estava no status esperado.
+     */
+    int alterarStatusSeIgual(Long id, StatusVaga statusAtual, StatusVaga novoStatus);
+}
@@ -0,0 +1,51 @@
+package com.smartpark.api.repository;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class VagaRepositoryCustomImpl implements VagaRepositoryCustom {
+
+    // Espaço de consulta que nenhuma entidade usa. Um UPDATE em JPQL (ou nativo sem espaço declarado) faz o Hibernate
+    // esvaziar a região "vagas" inteira e invalidar o cache de consultas de tb_vagas antes e depois da transação,
+    // o que, a cada entrada, jogaria fora todo o cache de vagas
+    private static final String ESPACO_SEM_ENTIDADES = "smartpark_alocacao_vaga";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int alterarStatusSeIgual(Long id, StatusVaga statusAtual, StatusVaga novoStatus) {
+        int alteradas = entityManager.createNativeQuery("update tb_vagas set status = :novoStatus where id = :id and status = :statusAtual")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(ESPACO_SEM_ENTIDADES)
+                .setParameter("novoStatus", novoStatus.name())
+                .setParameter("id", id)
+                .setParameter("statusAtual", statusAtual.name())
+                .executeUpdate();
+        if (alteradas > 0) {
+            descartarDoCache(id);
+        }
+        return alteradas;
+    }
+
+    // Descarta agora (leituras desta transação) e de novo ao fim dela: uma leitura concorrente pode ter guardado
+    // o status anterior entre os dois momentos, e um rollback precisa voltar a ler o banco
+    private void descartarDoCache(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Vaga.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManager.getEntityManagerFactory().getCache().evict(Vaga.class, id);
+                }
+            });
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.smartpark.api.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.smartpark.api.dto.VeiculoResponseDTO;
 import com.smartpark.api.entity.Veiculo;
+import com.smartpark.api.enums.TipoVeiculo;
 
 @Repository
 public interface VeiculoRepository extends JpaRepository<Veiculo, Long> {
@@ -23,4 +29,47 @@ public interface VeiculoRepository extends JpaRepository<Veiculo, Long> {
      * @return true se um veículo com a placa existe, false caso contrário.
      */
     boolean existsByPlaca(String placa);
+
+    /**
+     * Busca de uma vez os veículos com as placas informadas.
+     * @param placas As placas dos veículos.
+     * @return Os veículos encontrados (placas sem cadastro são ignoradas).
+     */
+    List<Veiculo> findByPlacaIn(Collection<String> placas);
+
+    /**
+     * Busca uma página de veículos por keyset (id maior que o cursor), com filtro opcional de tipo, projetando direto
+     * no DTO (sem carregar entidades nem o histórico). Com tipo, percorre o índice (tipo_veiculo, id).
+     * @param cursor Último id já recebido (exclusive), ou nulo para a primeira página.
+     * @param tipoVeiculo O tipo dos veículos, ou nulo para todos.
+     * @param limit Tamanho máximo da página.
+     * @return Os veículos da página, ordenados por id.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.VeiculoResponseDTO(v.id, v.placa, v.marca, v.modelo, v.cor, v.tipoVeiculo)
+            from Veiculo v
+            where (:cursor is null or v.id > :cursor)
+              and (:tipoVeiculo is null or v.tipoVeiculo = :tipoVeiculo)
+            order by v.id""")
+    List<VeiculoResponseDTO> listarResumos(Long cursor, TipoVeiculo tipoVeiculo, Limit limit);
+
+    /**
+     * Busca um veículo projetando direto no DTO.
+     * @param id O ID do veículo.
+     * @return Um Optional contendo o veículo, se encontrado.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.VeiculoResponseDTO(v.id, v.placa, v.marca, v.modelo, v.cor, v.tipoVeiculo)
+            from Veiculo v where v.id = :id""")
+    Optional<VeiculoResponseDTO> buscarResumoPorId(Long id);
+
+    /**
+     * Busca um veículo pela placa projetando direto no DTO.
+     * @param placa A placa do veículo.
+     * @return Um Optional contendo o veículo, se encontrado.
+     */
+    @Query("""
+            select new com.smartpark.api.dto.VeiculoResponseDTO(v.id, v.placa, v.marca, v.modelo, v.cor, v.tipoVeiculo)
+            from Veiculo v where v.placa = :placa""")
+    Optional<VeiculoResponseDTO> buscarResumoPorPlaca(String placa);
 }
\ No newline at end of file
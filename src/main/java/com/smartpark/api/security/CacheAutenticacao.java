@@ -0,0 +1,141 @@
+package com.smartpark.api.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache das credenciais já verificadas pelo BCrypt, para que requisições repetidas do mesmo usuário
+ * (ex: terminais das cancelas) não paguem a verificação completa e a consulta ao banco a cada chamada.
+ * A senha nunca é guardada: cada entrada tem apenas um HMAC-SHA256 de "username:senha" com uma chave aleatória
+ * gerada na inicialização (o valor não serve para nada fora deste processo).
+ * A chave do cache é o username, para que alterações no usuário possam invalidar a entrada diretamente.
+ * As entradas expiram após o tempo configurado e o tamanho é limitado.
+ */
+@Component
+public class CacheAutenticacao {
+
+    private static final String ALGORITMO_HMAC = "HmacSHA256";
+
+    private final Cache<String, CredencialVerificada> cache;
+    private final SecretKeySpec chaveHmac;
+    // Já inicializado com a chave e clonado a cada cálculo. Um ThreadLocal não serve com threads virtuais
+    // (spring.threads.virtual.enabled): cada requisição roda numa thread nova e criaria um Mac por requisição
+    private final Mac prototipoMac;
+
+    public CacheAutenticacao(@Value("${smartpark.seguranca.cache-autenticacao.tamanho-maximo:10000}") long tamanhoMaximo,
+                             @Value("${smartpark.seguranca.cache-autenticacao.expiracao:5m}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        byte[] chave = new byte[32];
+        new SecureRandom().nextBytes(chave);
+        this.chaveHmac = new SecretKeySpec(chave, ALGORITMO_HMAC);
+        this.prototipoMac = criarMac();
+    }
+
+    /**
+     * Busca o usuário autenticado anteriormente com as mesmas credenciais.
+     * @param username Username informado.
+     * @param senha Senha informada.
+     * @return Um Optional com o usuário, ou vazio se não houver entrada ou se a senha não conferir.
+     */
+    public Optional<UserDetails> buscar(String username, String senha) {
+        CredencialVerificada credencial = cache.getIfPresent(username);
+        if (credencial == null || !MessageDigest.isEqual(credencial.hmac(), calcularHmac(username, senha))) {
+            return Optional.empty();
+        }
+        return Optional.of(credencial.usuario());
+    }
+
+    /**
+     * Guarda credenciais que acabaram de ser verificadas com sucesso.
+     * @param username Username informado.
+     * @param senha Senha informada.
+     * @param usuario Usuário carregado na autenticação.
+     */
+    public void registrar(String username, String senha, UserDetails usuario) {
+        cache.put(username, new CredencialVerificada(calcularHmac(username, senha), usuario));
+    }
+
+    /**
+     * Remove as credenciais do usuário imediatamente e, se houver transação ativa, de novo ao final dela,
+     * para descartar uma autenticação concorrente que tenha lido os dados antigos antes do commit.
+     * @param username Username do usuário alterado ou removido.
+     */
+    public void invalidar(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    public void invalidarTodos() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Estatísticas acumuladas (acertos, falhas, remoções) desde a inicialização.
+     */
+    public CacheStats estatisticas() {
+        return cache.stats();
+    }
+
+    public long tamanho() {
+        return cache.estimatedSize();
+    }
+
+    private byte[] calcularHmac(String username, String senha) {
+        Mac mac = novoMac();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) ':');
+        return mac.doFinal(senha.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac novoMac() {
+        try {
+            return (Mac) prototipoMac.clone();
+        } catch (CloneNotSupportedException e) {
+            return criarMac(); // Provedor sem suporte a clone
+        }
+    }
+
+    private Mac criarMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HMAC);
+            mac.init(chaveHmac);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível na JVM.", e);
+        }
+    }
+
+    private record CredencialVerificada(byte[] hmac, UserDetails usuario) {
+    }
+}
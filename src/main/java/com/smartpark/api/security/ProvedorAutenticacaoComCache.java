@@ -0,0 +1,51 @@
+package com.smartpark.api.security;
+
+import java.util.Optional;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * AuthenticationProvider que consulta o CacheAutenticacao antes de delegar ao provedor real (BCrypt + banco).
+ * Só autenticações bem-sucedidas entram no cache; senhas erradas sempre passam pelo provedor real.
+ */
+public class ProvedorAutenticacaoComCache implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegado;
+    private final CacheAutenticacao cacheAutenticacao;
+
+    public ProvedorAutenticacaoComCache(AuthenticationProvider delegado, CacheAutenticacao cacheAutenticacao) {
+        this.delegado = delegado;
+        this.cacheAutenticacao = cacheAutenticacao;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        if (!(authentication.getCredentials() instanceof String senha) || username == null) {
+            return delegado.authenticate(authentication);
+        }
+
+        Optional<UserDetails> emCache = cacheAutenticacao.buscar(username, senha);
+        if (emCache.isPresent()) {
+            UserDetails usuario = emCache.get();
+            UsernamePasswordAuthenticationToken resultado = UsernamePasswordAuthenticationToken.authenticated(usuario, null, usuario.getAuthorities());
+            resultado.setDetails(authentication.getDetails());
+            return resultado;
+        }
+
+        Authentication resultado = delegado.authenticate(authentication);
+        if (resultado != null && resultado.getPrincipal() instanceof UserDetails usuario) {
+            cacheAutenticacao.registrar(username, senha, usuario);
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegado.supports(authentication);
+    }
+}
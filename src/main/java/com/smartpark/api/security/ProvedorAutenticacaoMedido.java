@@ -0,0 +1,55 @@
+package com.smartpark.api.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * AuthenticationProvider que mede o tempo de cada autenticação Basic/login do provedor delegado, com a tag "resultado"
+ * (sucesso ou falha). Com o CacheAutenticacao na frente do BCrypt, o histograma mostra os dois grupos: acertos do cache
+ * (microssegundos) e verificações BCrypt (dezenas de milissegundos). O usuário não vira tag.
+ */
+public class ProvedorAutenticacaoMedido implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegado;
+    private final Timer sucesso;
+    private final Timer falha;
+
+    public ProvedorAutenticacaoMedido(AuthenticationProvider delegado, MeterRegistry registry) {
+        this.delegado = delegado;
+        this.sucesso = timer(registry, "sucesso");
+        this.falha = timer(registry, "falha");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long inicio = System.nanoTime();
+        Timer timer = falha;
+        try {
+            Authentication resultado = delegado.authenticate(authentication);
+            if (resultado != null) {
+                timer = sucesso;
+            }
+            return resultado;
+        } finally {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegado.supports(authentication);
+    }
+
+    private static Timer timer(MeterRegistry registry, String resultado) {
+        return Timer.builder("smartpark.autenticacao")
+                .description("Tempo de verificação de usuário e senha")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
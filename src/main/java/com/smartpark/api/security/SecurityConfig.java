@@ -3,10 +3,16 @@ package com.smartpark.api.security;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,12 +22,24 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.keygen.KeyGenerators;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity // Permite usar @PreAuthorize nos métodos dos controllers/services
@@ -39,13 +57,50 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
-    // Configura o provedor de autenticação que usa nosso UserDetailsService e PasswordEncoder
+    // Configura o provedor de autenticação que usa nosso UserDetailsService e PasswordEncoder.
+    // Com o cache habilitado, credenciais já verificadas não passam de novo pelo BCrypt nem pelo banco (ver CacheAutenticacao).
+    // O tempo de cada autenticação vai para a métrica smartpark.autenticacao
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(CacheAutenticacao cacheAutenticacao, MeterRegistry meterRegistry,
+                                                         @Value("${smartpark.seguranca.cache-autenticacao.habilitado:true}") boolean cacheHabilitado) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService());
         authenticationProvider.setPasswordEncoder(passwordEncoder());
-        return authenticationProvider;
+        AuthenticationProvider provedor = cacheHabilitado ? new ProvedorAutenticacaoComCache(authenticationProvider, cacheAutenticacao) : authenticationProvider;
+        return new ProvedorAutenticacaoMedido(provedor, meterRegistry);
+    }
+
+    // Chave HMAC dos tokens. Sem "smartpark.seguranca.token.segredo" (Base64, 32 bytes ou mais) é gerada uma chave aleatória:
+    // os tokens deixam de valer ao reiniciar e não são aceitos por outras instâncias
+    @Bean
+    public SecretKey chaveToken(@Value("${smartpark.seguranca.token.segredo:}") String segredo) {
+        byte[] chave = segredo.isBlank() ? KeyGenerators.secureRandom(32).generateKey() : Base64.getDecoder().decode(segredo);
+        if (chave.length < 32) {
+            throw new IllegalStateException("smartpark.seguranca.token.segredo deve ter pelo menos 32 bytes (256 bits) para HS256.");
+        }
+        return new SecretKeySpec(chave, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey chaveToken) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(chaveToken));
+    }
+
+    // Valida só a assinatura HS256 e as datas do token: nenhuma consulta ao banco nem BCrypt por requisição
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey chaveToken) {
+        return NimbusJwtDecoder.withSecretKey(chaveToken).macAlgorithm(MacAlgorithm.HS256).build();
+    }
+
+    // Converte a claim "role" do token (ex: "ADMIN") na authority "ROLE_ADMIN" usada pelos @PreAuthorize
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(TokenService.CLAIM_ROLE);
+        authoritiesConverter.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
     }
 
     // Configuração principal da cadeia de filtros de segurança
@@ -57,6 +112,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Permite acesso irrestrito ao Swagger UI e documentação OpenAPI
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Login para obter o token Bearer
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/login").permitAll()
+                        // Health check liberado para o balanceador; métricas (/actuator/prometheus) só para ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Permite acesso irrestrito para endpoints de criação de usuário (se houver, ou para teste inicial)
                         // .requestMatchers("/api/v1/usuarios/registrar").permitAll() // Exemplo, se você tiver um endpoint público para registro
                         // Exige autenticação para todos os outros endpoints da API
@@ -65,6 +125,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .httpBasic(withDefaults()) // Habilita autenticação Basic (username/password no header)
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))) // Token Bearer de /api/v1/auth/login
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)); // API REST é stateless
 
         return http.build();
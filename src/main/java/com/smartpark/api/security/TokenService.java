@@ -0,0 +1,71 @@
+package com.smartpark.api.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import com.smartpark.api.dto.LoginRequestDTO;
+import com.smartpark.api.dto.TokenResponseDTO;
+
+/**
+ * Troca usuário e senha (verificados uma única vez pelo BCrypt) por um JWT HS256 de curta duração.
+ * Nas chamadas seguintes só a assinatura do token é conferida (ver SecurityConfig), sem banco nem BCrypt.
+ */
+@Service
+public class TokenService {
+
+    public static final String CLAIM_ROLE = "role";
+    private static final String PREFIXO_ROLE = "ROLE_";
+    private static final String EMISSOR = "dio-smartpark-api";
+
+    @Autowired
+    private AuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Value("${smartpark.seguranca.token.expiracao:15m}")
+    private Duration expiracao;
+
+    public TokenResponseDTO login(LoginRequestDTO dto) {
+        Authentication autenticacao = authenticationProvider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(dto.getUsername(), dto.getPassword()));
+        return new TokenResponseDTO(gerarToken(autenticacao), "Bearer", expiracao.toSeconds());
+    }
+
+    /**
+     * Gera o token de um usuário já autenticado. A role vai sem o prefixo "ROLE_" (ex: "ADMIN"),
+     * no mesmo formato gravado em Usuario.
+     * @param autenticacao Autenticação bem-sucedida.
+     * @return O JWT assinado.
+     */
+    public String gerarToken(Authentication autenticacao) {
+        Instant agora = Instant.now();
+        String role = autenticacao.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(autoridade -> autoridade.startsWith(PREFIXO_ROLE) ? autoridade.substring(PREFIXO_ROLE.length()) : autoridade)
+                .collect(Collectors.joining(" "));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(EMISSOR)
+                .subject(autenticacao.getName())
+                .issuedAt(agora)
+                .expiresAt(agora.plus(expiracao))
+                .claim(CLAIM_ROLE, role)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
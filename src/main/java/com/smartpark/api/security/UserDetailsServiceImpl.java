@@ -7,6 +7,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.smartpark.api.entity.Usuario;
 import com.smartpark.api.repository.UsuarioRepository;
@@ -19,7 +20,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Lê do primário (transação de escrita), nunca da réplica de leitura: logo depois de uma troca de senha, a senha
+    // antiga ainda estaria na réplica e, aceita uma vez, ficaria no CacheAutenticacao
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Optional<Usuario> usuarioOptional = usuarioRepository.findByUsername(username);
         return usuarioOptional.map(UserDetailsImpl::new)
@@ -0,0 +1,141 @@
+package com.smartpark.api.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Estrutura em memória com os IDs das vagas livres, usada para alocar vagas na entrada
+ * sem precisar consultar o banco a cada veículo.
+ * A fila guarda a ordem de chegada das vagas e o conjunto diz quais IDs ainda estão de fato livres;
+ * IDs removidos do conjunto ficam "mortos" na fila e são descartados quando chegam à frente.
+ * O banco continua sendo a fonte da verdade: o alocador é aquecido a partir dele na inicialização.
+ */
+@Component
+public class AlocadorVagasLivres {
+
+    private final ConcurrentLinkedQueue<Long> fila = new ConcurrentLinkedQueue<>();
+    private final Set<Long> livres = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Substitui o conteúdo do alocador pelos IDs informados (carga inicial a partir do banco).
+     * @param idsLivres IDs das vagas com status LIVRE.
+     */
+    public void carregar(Collection<Long> idsLivres) {
+        livres.clear();
+        fila.clear();
+        idsLivres.forEach(this::devolver);
+    }
+
+    /**
+     * Retira uma vaga livre do alocador em O(1).
+     * Se houver transação ativa e ela for desfeita, o ID volta automaticamente para o alocador.
+     * @return Um Optional com o ID da vaga reservada, ou vazio se não houver vagas livres conhecidas.
+     */
+    public Optional<Long> reservar() {
+        Long id;
+        while ((id = fila.poll()) != null) {
+            if (livres.remove(id)) {
+                devolverSeRollback(id);
+                return Optional.of(id);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Marca a vaga como livre imediatamente. Chamadas repetidas para o mesmo ID não o duplicam.
+     * @param id ID da vaga.
+     */
+    public void devolver(Long id) {
+        if (id != null && livres.add(id)) {
+            fila.offer(id);
+        }
+    }
+
+    /**
+     * Marca a vaga como livre somente após o commit da transação corrente (ou imediatamente, se não houver transação),
+     * evitando que outra entrada receba uma vaga cuja liberação ainda pode ser desfeita.
+     * Um remover() do mesmo ID antes do commit, na mesma transação, cancela a devolução.
+     * @param id ID da vaga.
+     */
+    public void devolverAposCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            devolucoesPendentes(true).add(id);
+        } else {
+            devolver(id);
+        }
+    }
+
+    /**
+     * Retira a vaga do alocador (vaga ocupada ou removida) imediatamente, para nenhuma entrada concorrente recebê-la.
+     * Também cancela a devolução pendente do ID na transação corrente (vaga liberada e reocupada no mesmo lote).
+     * Se houver transação ativa e ela for desfeita, o ID volta para o alocador (se estava nele).
+     * @param id ID da vaga.
+     */
+    public void remover(Long id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<Long> pendentes = devolucoesPendentes(false);
+            if (pendentes != null) {
+                pendentes.remove(id);
+            }
+        }
+        if (livres.remove(id)) {
+            devolverSeRollback(id);
+        }
+    }
+
+    /**
+     * @return Quantidade de vagas livres conhecidas pelo alocador.
+     */
+    public int quantidadeLivres() {
+        return livres.size();
+    }
+
+    // IDs liberados na transação corrente, devolvidos juntos após o commit. Ficam ligados à transação (recurso com
+    // este alocador como chave) para que remover() encontre e cancele a devolução de uma vaga reocupada antes do commit
+    @SuppressWarnings("unchecked")
+    private Set<Long> devolucoesPendentes(boolean criar) {
+        Set<Long> pendentes = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null && criar) {
+            Set<Long> novas = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    novas.forEach(AlocadorVagasLivres.this::devolver);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AlocadorVagasLivres.this);
+                }
+            });
+            pendentes = novas;
+        }
+        return pendentes;
+    }
+
+    private void devolverSeRollback(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        devolver(id);
+                    }
+                }
+            });
+        }
+    }
+}
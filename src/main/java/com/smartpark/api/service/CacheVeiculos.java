@@ -0,0 +1,118 @@
+package com.smartpark.api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpark.api.entity.Veiculo;
+import com.smartpark.api.enums.TipoVeiculo;
+
+/**
+ * Cache placa -> veículo usado na entrada, para que clientes recorrentes não consultem tb_veiculos a cada passagem.
+ * Guarda apenas uma cópia imutável dos dados do veículo (nunca a entidade gerenciada) e devolve sempre uma nova
+ * instância desanexada, que serve para referenciar o veículo (ex: no Estacionamento), não para alterá-lo.
+ * O tamanho é limitado (política W-TinyLFU do Caffeine: mantém as placas mais frequentes) e as entradas expiram.
+ * A chave é o código da placa (Placa), e não a String: menos memória por entrada e hash/equals sem percorrer caracteres.
+ * Placas fora do padrão brasileiro (cadastradas direto em /veiculos) não são guardadas e sempre vão ao banco.
+ */
+@Component
+public class CacheVeiculos {
+
+    private final Cache<Long, DadosVeiculo> cache;
+
+    public CacheVeiculos(@Value("${smartpark.cache-veiculos.tamanho-maximo:50000}") long tamanhoMaximo,
+                         @Value("${smartpark.cache-veiculos.expiracao:12h}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .build();
+    }
+
+    /**
+     * @param placa Placa do veículo.
+     * @return Um Optional com uma cópia desanexada do veículo, ou vazio se a placa não estiver no cache.
+     */
+    public Optional<Veiculo> buscar(String placa) {
+        if (!Placa.valida(placa)) {
+            return Optional.empty();
+        }
+        DadosVeiculo dados = cache.getIfPresent(Placa.codificar(placa));
+        return dados == null ? Optional.empty() : Optional.of(dados.paraEntidade());
+    }
+
+    /**
+     * Guarda o veículo lido do banco.
+     * @param veiculo Veículo já persistido (com ID).
+     */
+    public void registrar(Veiculo veiculo) {
+        if (Placa.valida(veiculo.getPlaca())) {
+            DadosVeiculo dados = DadosVeiculo.de(veiculo);
+            cache.put(dados.placa(), dados);
+        }
+    }
+
+    /**
+     * Guarda o veículo somente após o commit da transação corrente (ou imediatamente, se não houver transação),
+     * para que um cadastro desfeito não deixe no cache um ID que não existe no banco.
+     * @param veiculo Veículo recém-cadastrado (com ID).
+     */
+    public void registrarAposCommit(Veiculo veiculo) {
+        if (!Placa.valida(veiculo.getPlaca())) {
+            return;
+        }
+        DadosVeiculo dados = DadosVeiculo.de(veiculo);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(dados.placa(), dados);
+                }
+            });
+        } else {
+            cache.put(dados.placa(), dados);
+        }
+    }
+
+    /**
+     * Remove a placa imediatamente e, se houver transação ativa, de novo ao final dela,
+     * para descartar uma entrada concorrente que tenha lido os dados antigos antes do commit.
+     * @param placa Placa do veículo alterado ou removido.
+     */
+    public void invalidar(String placa) {
+        if (!Placa.valida(placa)) {
+            return; // Nunca foi guardada
+        }
+        Long codigo = Placa.codificar(placa);
+        cache.invalidate(codigo);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(codigo);
+                }
+            });
+        }
+    }
+
+    public long tamanho() {
+        return cache.estimatedSize();
+    }
+
+    private record DadosVeiculo(Long id, long placa, String marca, String modelo, String cor, TipoVeiculo tipoVeiculo) {
+
+        static DadosVeiculo de(Veiculo veiculo) {
+            return new DadosVeiculo(veiculo.getId(), Placa.codificar(veiculo.getPlaca()), veiculo.getMarca(), veiculo.getModelo(),
+                    veiculo.getCor(), veiculo.getTipoVeiculo());
+        }
+
+        Veiculo paraEntidade() {
+            return new Veiculo(id, Placa.formatar(placa), marca, modelo, cor, tipoVeiculo);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartpark.api.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.event.OcupacaoAlteradaEvent;
+
+/**
+ * Contagem de vagas por status mantida em memória, para os endpoints de ocupação não consultarem o banco.
+ * As duas contagens ficam num único objeto imutável trocado atomicamente, então uma leitura sempre vê
+ * livres e ocupadas do mesmo instante (total = livres + ocupadas).
+ * As alterações só são aplicadas após o commit da transação que mudou a vaga; o banco continua sendo a fonte da verdade
+ * e a contagem é reconciliada com ele periodicamente (ver VagaService.reconciliarContadorOcupacao).
+ * Cada mudança publica um OcupacaoAlteradaEvent com a nova contagem.
+ * Junto com a contagem fica uma geração, incrementada a cada alteração de vaga (inclusive de número) e a cada
+ * reconciliação: os endpoints de vagas a usam como ETag, sem consultar o banco para responder 304.
+ */
+@Component
+public class ContadorOcupacao {
+
+    private final AtomicReference<Contagem> contagem = new AtomicReference<>(new Contagem(0, 0, 0));
+
+    @Autowired(required = false) // Ausente quando instanciado fora do Spring (testes unitários)
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Substitui a contagem pelos valores lidos do banco.
+     * A geração avança mesmo sem diferença: alterações feitas por outra instância ou direto no banco
+     * (ex: número de uma vaga) invalidam as ETags em no máximo um intervalo de reconciliação.
+     * @param livres Quantidade de vagas LIVRE.
+     * @param ocupadas Quantidade de vagas OCUPADA.
+     */
+    public void reconciliar(int livres, int ocupadas) {
+        Contagem anterior = contagem.getAndUpdate(atual -> new Contagem(livres, ocupadas, atual.geracao() + 1));
+        if (anterior.livres() != livres || anterior.ocupadas() != ocupadas) {
+            publicar();
+        }
+    }
+
+    /**
+     * Registra a alteração de uma vaga, aplicada após o commit da transação corrente
+     * (ou imediatamente, se não houver transação). Se a transação for desfeita, nada muda.
+     * Com o mesmo status antes e depois (ex: só o número mudou), apenas a geração avança.
+     * @param statusAnterior Status antes da mudança, ou null para uma vaga criada.
+     * @param statusNovo Status depois da mudança, ou null para uma vaga removida.
+     */
+    public void registrarAposCommit(StatusVaga statusAnterior, StatusVaga statusNovo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(statusAnterior, statusNovo);
+                }
+            });
+        } else {
+            aplicar(statusAnterior, statusNovo);
+        }
+    }
+
+    public OcupacaoDTO snapshot() {
+        Contagem atual = contagem.get();
+        return new OcupacaoDTO(atual.livres() + atual.ocupadas(), atual.ocupadas(), atual.livres(), atual.livres() == 0);
+    }
+
+    public int total() {
+        Contagem atual = contagem.get();
+        return atual.livres() + atual.ocupadas();
+    }
+
+    /**
+     * @return Geração atual das vagas. Muda junto com a contagem (na mesma troca atômica), então quem lê a geração
+     * antes da contagem nunca associa uma geração nova a uma contagem antiga.
+     */
+    public long geracao() {
+        return contagem.get().geracao();
+    }
+
+    public int quantidade(StatusVaga status) {
+        Contagem atual = contagem.get();
+        return status == StatusVaga.LIVRE ? atual.livres() : atual.ocupadas();
+    }
+
+    private void aplicar(StatusVaga statusAnterior, StatusVaga statusNovo) {
+        int deltaLivres = delta(StatusVaga.LIVRE, statusAnterior, statusNovo);
+        int deltaOcupadas = delta(StatusVaga.OCUPADA, statusAnterior, statusNovo);
+        contagem.updateAndGet(atual -> new Contagem(
+                Math.max(0, atual.livres() + deltaLivres), Math.max(0, atual.ocupadas() + deltaOcupadas), atual.geracao() + 1));
+        if (deltaLivres != 0 || deltaOcupadas != 0) {
+            publicar();
+        }
+    }
+
+    private void publicar() {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new OcupacaoAlteradaEvent(snapshot()));
+        }
+    }
+
+    private static int delta(StatusVaga status, StatusVaga statusAnterior, StatusVaga statusNovo) {
+        return (statusNovo == status ? 1 : 0) - (statusAnterior == status ? 1 : 0);
+    }
+
+    private record Contagem(int livres, int ocupadas, long geracao) {
+    }
+}
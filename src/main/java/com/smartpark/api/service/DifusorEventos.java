@@ -0,0 +1,185 @@
+package com.smartpark.api.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.event.MovimentacaoEstacionamentoEvent;
+import com.smartpark.api.event.OcupacaoAlteradaEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Distribui os eventos de ocupação e de entrada/saída para os clientes conectados em /api/v1/eventos (Server-Sent Events).
+ * Cada assinante tem o próprio buffer e é atendido por uma tarefa de envio que só existe enquanto há algo pendente,
+ * então um cliente lento nunca atrasa a transação que gerou o evento nem os outros clientes:
+ * - Ocupação: só o snapshot mais recente fica pendente (atualizações intermediárias são substituídas).
+ * - Entradas/saídas: fila limitada; se encher, as mais antigas são descartadas e o cliente recebe "eventos-descartados"
+ *   com a quantidade perdida, para recarregar /api/v1/estacionamentos/ativos.
+ * O envio usa virtual threads: uma escrita bloqueada num cliente lento não prende uma thread de plataforma.
+ */
+@Component
+public class DifusorEventos {
+
+    public static final String EVENTO_OCUPACAO = "ocupacao";
+    public static final String EVENTO_DESCARTADOS = "eventos-descartados";
+
+    @Autowired
+    private ContadorOcupacao contadorOcupacao;
+
+    @Value("${smartpark.eventos.capacidade-por-assinante:256}")
+    private int capacidadePorAssinante = 256;
+
+    @Value("${smartpark.eventos.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envio = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Registra um novo assinante, que recebe de imediato a ocupação atual.
+     * @return O emitter SSE a ser devolvido pelo controller.
+     */
+    public SseEmitter assinar() {
+        return assinar(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter assinar(SseEmitter emitter) {
+        Assinante assinante = new Assinante(emitter, capacidadePorAssinante);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        assinante.ocupacaoPendente.set(contadorOcupacao.snapshot());
+        agendarEnvio(assinante);
+        return emitter;
+    }
+
+    public int quantidadeAssinantes() {
+        return assinantes.size();
+    }
+
+    @EventListener
+    public void aoAlterarOcupacao(OcupacaoAlteradaEvent evento) {
+        for (Assinante assinante : assinantes) {
+            assinante.ocupacaoPendente.set(evento.getOcupacao());
+            agendarEnvio(assinante);
+        }
+    }
+
+    // Só após o commit: uma entrada desfeita nunca chega aos painéis
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoMovimentar(MovimentacaoEstacionamentoEvent evento) {
+        String nome = evento.getTipo().name().toLowerCase();
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(new Mensagem(nome, evento.getEstacionamento()));
+            agendarEnvio(assinante);
+        }
+    }
+
+    // Comentário SSE periódico: mantém a conexão aberta em proxies e detecta clientes que já desconectaram
+    @Scheduled(fixedDelayString = "${smartpark.eventos.intervalo-heartbeat:PT15S}")
+    public void enviarHeartbeat() {
+        for (Assinante assinante : assinantes) {
+            assinante.heartbeatPendente.set(true);
+            agendarEnvio(assinante);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+        envio.shutdownNow();
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        if (assinante.envioAgendado.compareAndSet(false, true)) {
+            envio.execute(() -> enviarPendentes(assinante));
+        }
+    }
+
+    private void enviarPendentes(Assinante assinante) {
+        while (true) {
+            try {
+                assinante.enviarPendentes();
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já finalizado
+                assinantes.remove(assinante);
+                assinante.emitter.completeWithError(e);
+                return;
+            }
+            assinante.envioAgendado.set(false);
+            // Algo pode ter chegado entre o último envio e a liberação da flag
+            if (!assinante.possuiPendentes() || !assinante.envioAgendado.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private record Mensagem(String nome, Object dados) {
+    }
+
+    private static final class Assinante {
+        private final SseEmitter emitter;
+        private final Queue<Mensagem> movimentacoes;
+        private final AtomicReference<OcupacaoDTO> ocupacaoPendente = new AtomicReference<>();
+        private final AtomicInteger descartados = new AtomicInteger();
+        private final AtomicBoolean heartbeatPendente = new AtomicBoolean();
+        private final AtomicBoolean envioAgendado = new AtomicBoolean();
+
+        private Assinante(SseEmitter emitter, int capacidade) {
+            this.emitter = emitter;
+            this.movimentacoes = new ArrayBlockingQueue<>(capacidade);
+        }
+
+        private void enfileirar(Mensagem mensagem) {
+            // Cliente lento: descarta as mensagens mais antigas em vez de crescer sem limite
+            while (!movimentacoes.offer(mensagem)) {
+                if (movimentacoes.poll() != null) {
+                    descartados.incrementAndGet();
+                }
+            }
+        }
+
+        private boolean possuiPendentes() {
+            return !movimentacoes.isEmpty() || ocupacaoPendente.get() != null || descartados.get() > 0 || heartbeatPendente.get();
+        }
+
+        private void enviarPendentes() throws IOException {
+            int quantidadeDescartada = descartados.getAndSet(0);
+            if (quantidadeDescartada > 0) {
+                emitter.send(SseEmitter.event().name(EVENTO_DESCARTADOS).data(Map.of("quantidade", quantidadeDescartada)));
+            }
+            Mensagem mensagem;
+            while ((mensagem = movimentacoes.poll()) != null) {
+                emitter.send(SseEmitter.event().name(mensagem.nome()).data(mensagem.dados()));
+            }
+            OcupacaoDTO ocupacao = ocupacaoPendente.getAndSet(null);
+            if (ocupacao != null) {
+                emitter.send(SseEmitter.event().name(EVENTO_OCUPACAO).data(ocupacao));
+            }
+            if (heartbeatPendente.getAndSet(false)) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+}
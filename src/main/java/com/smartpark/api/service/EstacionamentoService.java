@@ -1,23 +1,52 @@
 package com.smartpark.api.service;
 
 import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.EventoPortaoDTO;
+import com.smartpark.api.dto.FiltroHistoricoDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.ResultadoEventoDTO;
+import com.smartpark.api.dto.ResultadoLoteDTO;
 import com.smartpark.api.dto.VeiculoEntradaDTO;
 import com.smartpark.api.entity.Estacionamento;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.entity.Veiculo;
 import com.smartpark.api.enums.StatusEstacionamento;
+import com.smartpark.api.enums.TipoMovimentacao;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.event.MovimentacaoEstacionamentoEvent;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.exception.VeiculoJaEstacionadoException;
 import com.smartpark.api.repository.EstacionamentoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EstacionamentoService {
@@ -31,45 +60,95 @@ public class EstacionamentoService {
     @Autowired
     private VagaService vagaService; // Usaremos para gerenciar vagas
 
-    // Regras de tarifação
-    private static final BigDecimal TARIFA_PRIMEIRA_HORA = new BigDecimal("5.00");
-    private static final BigDecimal TARIFA_HORA_ADICIONAL = new BigDecimal("2.00");
-    private static final BigDecimal TARIFA_DIARIA = new BigDecimal("25.00"); // Exemplo: para mais de X horas ou por dia
+    @Autowired
+    private TarifaService tarifaService; // Política de tarifação em vigor
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher; // Entradas e saídas para os assinantes de /api/v1/eventos
+
+    @Autowired
+    private IndiceEstacionamentosAtivos indiceEstacionamentosAtivos; // Placa -> estacionamento ativo, para a checagem da entrada
+
+    @Autowired
+    private MetricasEstacionamento metricasEstacionamento; // Tempos de entrada, saída e tarifação (/actuator/prometheus)
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Uma transação por bloco no processamento em lote
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private Clock relogio; // Datas de entrada e saída (acelerado no simulador de portões)
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${smartpark.lote.tamanho-bloco:500}")
+    private int tamanhoBlocoLote = 500;
+
+    // Carrega o índice de estacionamentos ativos do banco assim que a aplicação sobe.
+    // Transação de escrita de propósito: lê do primário, nunca da réplica de leitura (que pode estar atrasada)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void carregarEstacionamentosAtivos() {
+        Map<String, Long> ativosPorPlaca = new HashMap<>();
+        estacionamentoRepository.listarResumosPorStatus(StatusEstacionamento.ATIVO)
+                .forEach(estacionamento -> ativosPorPlaca.put(estacionamento.getPlacaVeiculo(), estacionamento.getId()));
+        indiceEstacionamentosAtivos.carregar(ativosPorPlaca);
+    }
 
     @Transactional
     public EstacionamentoResponseDTO registrarEntrada(VeiculoEntradaDTO veiculoDto) {
-        // 1. Verificar se o veículo já está estacionado
-        estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoDto.getPlaca(), StatusEstacionamento.ATIVO)
-                .ifPresent(e -> {
-                    throw new VeiculoJaEstacionadoException("Veículo com placa " + veiculoDto.getPlaca() + " já está estacionado na vaga " + e.getVaga().getNumero() + ".");
-                });
+        return metricasEstacionamento.medirEntrada(() -> executarEntrada(veiculoDto));
+    }
+
+    @Transactional
+    public EstacionamentoResponseDTO registrarSaida(String placa) {
+        return metricasEstacionamento.medirSaida(() -> executarSaida(placa));
+    }
+
+    private EstacionamentoResponseDTO executarEntrada(VeiculoEntradaDTO veiculoDto) {
+        // 1. Verificar se o veículo já está estacionado: respondido pelo índice em memória;
+        //    o banco só é consultado para confirmar quando a placa está no índice
+        Optional<Long> ativoNoIndice = indiceEstacionamentosAtivos.buscar(veiculoDto.getPlaca());
+        if (ativoNoIndice.isPresent()) {
+            estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoDto.getPlaca(), StatusEstacionamento.ATIVO)
+                    .ifPresent(e -> {
+                        throw new VeiculoJaEstacionadoException("Veículo com placa " + veiculoDto.getPlaca() + " já está estacionado na vaga " + e.getVaga().getNumero() + ".");
+                    });
+            indiceEstacionamentosAtivos.descartar(veiculoDto.getPlaca(), ativoNoIndice.get()); // Entrada obsoleta
+        }
 
-        // 2. Encontrar e ocupar uma vaga livre
-        Vaga vagaLivre = vagaService.encontrarProximaVagaLivre();
-        vagaService.ocuparVaga(vagaLivre); // Atualiza o status da vaga no DB
+        // 2. Encontrar e ocupar uma vaga livre (UPDATE condicional, seguro com entradas concorrentes)
+        Vaga vagaLivre = vagaService.ocuparProximaVagaLivre();
 
         // 3. Buscar ou criar o veículo
         Veiculo veiculo = veiculoService.buscarOuCriarVeiculo(veiculoDto);
 
         // 4. Registrar a entrada
-        Estacionamento estacionamento = new Estacionamento(veiculo, vagaLivre, LocalDateTime.now(), StatusEstacionamento.ATIVO);
+        Estacionamento estacionamento = new Estacionamento(veiculo, vagaLivre, LocalDateTime.now(relogio), StatusEstacionamento.ATIVO);
         estacionamento = estacionamentoRepository.save(estacionamento);
+        if (indiceEstacionamentosAtivos.registrarEntrada(veiculo.getPlaca(), estacionamento.getId()) != null) {
+            // Outra entrada da mesma placa passou pela checagem ao mesmo tempo: desfaz esta (a vaga volta no rollback)
+            throw new VeiculoJaEstacionadoException("Veículo com placa " + veiculo.getPlaca() + " já está estacionado.");
+        }
 
-        return toEstacionamentoResponseDTO(estacionamento);
+        EstacionamentoResponseDTO dto = toEstacionamentoResponseDTO(estacionamento);
+        eventPublisher.publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.ENTRADA, dto)); // Entregue após o commit
+        return dto;
     }
 
-    @Transactional
-    public EstacionamentoResponseDTO registrarSaida(String placa) {
+    private EstacionamentoResponseDTO executarSaida(String placa) {
         // 1. Encontrar o registro de estacionamento ativo
         Estacionamento estacionamento = estacionamentoRepository.findByVeiculoPlacaAndStatus(placa, StatusEstacionamento.ATIVO)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Veículo com placa " + placa + " não encontrado no estacionamento ou já saiu."));
 
         // 2. Registrar a hora de saída
-        estacionamento.setDataHoraSaida(LocalDateTime.now());
+        estacionamento.setDataHoraSaida(LocalDateTime.now(relogio));
 
         // 3. Calcular o valor a ser cobrado
-        BigDecimal valor = calcularValor(estacionamento.getDataHoraEntrada(), estacionamento.getDataHoraSaida());
-        estacionamento.setValorCobrado(valor);
+        estacionamento.setValorCobrado(calcularTarifa(estacionamento));
 
         // 4. Finalizar o registro de estacionamento
         estacionamento.setStatus(StatusEstacionamento.FINALIZADO);
@@ -77,94 +156,221 @@ public class EstacionamentoService {
 
         // 5. Liberar a vaga
         vagaService.liberarVaga(estacionamento.getVaga());
+        indiceEstacionamentosAtivos.registrarSaida(placa, estacionamento.getId());
 
-        return toEstacionamentoResponseDTO(estacionamento);
+        EstacionamentoResponseDTO dto = toEstacionamentoResponseDTO(estacionamento);
+        eventPublisher.publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.SAIDA, dto)); // Entregue após o commit
+        return dto;
     }
 
-    @Transactional(readOnly = true)
-    public List<EstacionamentoResponseDTO> listarEstacionamentosAtivos() {
-        return estacionamentoRepository.findAll().stream()
-                .filter(e -> e.getStatus() == StatusEstacionamento.ATIVO)
-                .map(this::toEstacionamentoResponseDTO)
-                .collect(Collectors.toList());
+    /**
+     * Processa, na ordem recebida, entradas e saídas acumuladas por um portão (ex: reenvio após ficar offline).
+     * Os eventos são agrupados em blocos de tamanhoBlocoLote, cada bloco numa transação: os veículos e os estacionamentos
+     * ativos do bloco são lidos com uma consulta cada, e os INSERT/UPDATE saem em lotes JDBC (hibernate.jdbc.batch_size).
+     * Erros de negócio (veículo já estacionado, sem vaga, saída sem entrada) viram falha só do item, sem desfazer o bloco.
+     * Se o bloco falhar por outro motivo, ele é reprocessado item a item para isolar o evento com problema.
+     * @param eventos Eventos com o horário registrado no portão.
+     * @return O resultado de cada evento, na mesma ordem.
+     */
+    public ResultadoLoteDTO registrarLote(List<EventoPortaoDTO> eventos) {
+        List<ResultadoEventoDTO> resultados = new ArrayList<>(eventos.size());
+        for (int inicio = 0; inicio < eventos.size(); inicio += tamanhoBlocoLote) {
+            List<EventoPortaoDTO> bloco = eventos.subList(inicio, Math.min(inicio + tamanhoBlocoLote, eventos.size()));
+            int indiceInicial = inicio;
+            try {
+                resultados.addAll(transactionTemplate.execute(status -> processarBloco(bloco, indiceInicial)));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    List<EventoPortaoDTO> item = List.of(bloco.get(i));
+                    int indice = indiceInicial + i;
+                    try {
+                        resultados.addAll(transactionTemplate.execute(status -> processarBloco(item, indice)));
+                    } catch (RuntimeException erro) {
+                        resultados.add(ResultadoEventoDTO.falha(indice, "Erro ao processar o evento: " + erro.getMessage()));
+                    }
+                }
+            }
+        }
+        int sucessos = (int) resultados.stream().filter(ResultadoEventoDTO::isSucesso).count();
+        return new ResultadoLoteDTO(resultados.size(), sucessos, resultados.size() - sucessos, resultados);
     }
 
-    @Transactional(readOnly = true)
-    public List<EstacionamentoResponseDTO> listarHistoricoEstacionamentos() {
-        return estacionamentoRepository.findAll().stream()
-                .map(this::toEstacionamentoResponseDTO)
-                .collect(Collectors.toList());
+    private List<ResultadoEventoDTO> processarBloco(List<EventoPortaoDTO> bloco, int indiceInicial) {
+        Set<String> placas = new HashSet<>();
+        for (EventoPortaoDTO evento : bloco) {
+            String placa = placaDoEvento(evento);
+            if (placa != null) {
+                placas.add(placa);
+            }
+        }
+        EstadoBloco estado = new EstadoBloco(new HashMap<>(veiculoService.buscarVeiculosPorPlaca(placas)));
+        estacionamentoRepository.findAllByStatusAndPlacaIn(StatusEstacionamento.ATIVO, placas)
+                .forEach(estacionamento -> estado.ativos.put(estacionamento.getVeiculo().getPlaca(), estacionamento));
+
+        // Sem flush automático antes de cada consulta/UPDATE de vaga (cada um reverificaria todas as entidades do bloco):
+        // nenhuma consulta do bloco depende das alterações pendentes, já que as vagas liberadas são reaproveitadas em memória
+        FlushModeType flushModeAnterior = entityManager.getFlushMode();
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        try {
+            List<ResultadoEventoDTO> resultados = new ArrayList<>(bloco.size());
+            for (int i = 0; i < bloco.size(); i++) {
+                resultados.add(processarEvento(bloco.get(i), indiceInicial + i, estado));
+            }
+
+            // Envia os lotes pendentes e solta as entidades do bloco (o EntityManager da requisição é o mesmo em todos os blocos)
+            entityManager.flush();
+            entityManager.clear();
+            return resultados;
+        } finally {
+            entityManager.setFlushMode(flushModeAnterior);
+        }
     }
 
-    @Transactional(readOnly = true)
-    public EstacionamentoResponseDTO buscarEstacionamentoPorId(Long id) {
-        return estacionamentoRepository.findById(id)
-                .map(this::toEstacionamentoResponseDTO)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Registro de estacionamento não encontrado com ID: " + id));
+    private ResultadoEventoDTO processarEvento(EventoPortaoDTO evento, int indice, EstadoBloco estado) {
+        if (evento == null || evento.getTipo() == null || evento.getDataHora() == null) {
+            return ResultadoEventoDTO.falha(indice, "Tipo e data/hora do evento são obrigatórios.");
+        }
+        return switch (evento.getTipo()) {
+            case ENTRADA -> processarEntradaDoLote(evento, indice, estado);
+            case SAIDA -> processarSaidaDoLote(evento, indice, estado);
+        };
     }
 
+    private ResultadoEventoDTO processarEntradaDoLote(EventoPortaoDTO evento, int indice, EstadoBloco estado) {
+        VeiculoEntradaDTO veiculoDto = evento.getVeiculo();
+        if (veiculoDto == null) {
+            return ResultadoEventoDTO.falha(indice, "Os dados do veículo são obrigatórios na entrada.");
+        }
+        Set<ConstraintViolation<VeiculoEntradaDTO>> violacoes = validator.validate(veiculoDto);
+        if (!violacoes.isEmpty()) {
+            return ResultadoEventoDTO.falha(indice, violacoes.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" ")));
+        }
+        Estacionamento ativo = estado.ativos.get(veiculoDto.getPlaca());
+        if (ativo != null) {
+            return ResultadoEventoDTO.falha(indice, "Veículo com placa " + veiculoDto.getPlaca() + " já está estacionado na vaga " + ativo.getVaga().getNumero() + ".");
+        }
+        // Vagas liberadas neste bloco só voltam ao alocador após o commit: são reaproveitadas aqui mesmo
+        Vaga vagaLiberada = estado.vagasLiberadas.poll();
+        Optional<Vaga> vagaLivre = vagaLiberada != null
+                ? Optional.of(vagaService.ocuparVaga(vagaLiberada))
+                : vagaService.tentarOcuparProximaVagaLivre();
+        if (vagaLivre.isEmpty()) {
+            return ResultadoEventoDTO.falha(indice, "Não há vagas livres disponíveis no momento.");
+        }
 
-    /**
-     * Calcula o valor a ser cobrado com base no tempo de permanência.
-     * Exemplo de lógica de tarifação:
-     * - Primeira hora: R$ 5,00
-     * - Horas adicionais: R$ 2,00 por hora ou fração de hora
-     * - Diária: R$ 25,00 (após 10 horas, por exemplo)
-     * @param entrada Data e hora de entrada.
-     * @param saida Data e hora de saída.
-     * @return O valor total a ser cobrado.
-     */
-    private BigDecimal calcularValor(LocalDateTime entrada, LocalDateTime saida) {
-        if (entrada == null || saida == null || saida.isBefore(entrada)) {
-            throw new IllegalArgumentException("Datas de entrada e saída inválidas para cálculo.");
+        Veiculo veiculo = estado.veiculos.computeIfAbsent(veiculoDto.getPlaca(), placa -> veiculoService.criarVeiculoDaEntrada(veiculoDto));
+        Estacionamento estacionamento = estacionamentoRepository.save(
+                new Estacionamento(veiculo, vagaLivre.get(), evento.getDataHora(), StatusEstacionamento.ATIVO));
+        estado.ativos.put(veiculo.getPlaca(), estacionamento);
+        if (indiceEstacionamentosAtivos.registrarEntrada(veiculo.getPlaca(), estacionamento.getId()) != null) {
+            // Entrada da mesma placa registrada por outra transação depois da leitura do bloco: desfaz o bloco, e o
+            // reprocessamento item a item relê o banco e informa a falha só neste evento
+            throw new VeiculoJaEstacionadoException("Veículo com placa " + veiculo.getPlaca() + " já está estacionado.");
         }
 
-        Duration duracao = Duration.between(entrada, saida);
-        long minutos = duracao.toMinutes();
+        EstacionamentoResponseDTO dto = toEstacionamentoResponseDTO(estacionamento);
+        eventPublisher.publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.ENTRADA, dto));
+        return ResultadoEventoDTO.sucesso(indice, dto);
+    }
 
-        if (minutos <= 15) { // Exemplo: Carência de 15 minutos
-            return BigDecimal.ZERO;
+    private ResultadoEventoDTO processarSaidaDoLote(EventoPortaoDTO evento, int indice, EstadoBloco estado) {
+        String placa = evento.getPlaca();
+        if (placa == null || placa.isBlank()) {
+            return ResultadoEventoDTO.falha(indice, "A placa é obrigatória na saída.");
+        }
+        Estacionamento estacionamento = estado.ativos.get(placa);
+        if (estacionamento == null) {
+            return ResultadoEventoDTO.falha(indice, "Veículo com placa " + placa + " não encontrado no estacionamento ou já saiu.");
         }
+        if (evento.getDataHora().isBefore(estacionamento.getDataHoraEntrada())) {
+            return ResultadoEventoDTO.falha(indice, "A data/hora de saída é anterior à entrada do veículo com placa " + placa + ".");
+        }
+        estado.ativos.remove(placa);
+
+        estacionamento.setDataHoraSaida(evento.getDataHora());
+        estacionamento.setValorCobrado(calcularTarifa(estacionamento));
+        estacionamento.setStatus(StatusEstacionamento.FINALIZADO);
+        estado.vagasLiberadas.offer(vagaService.liberarVaga(estacionamento.getVaga())); // Entidades gerenciadas: os UPDATEs saem no flush do bloco
+        indiceEstacionamentosAtivos.registrarSaida(placa, estacionamento.getId());
 
-        BigDecimal valorTotal = BigDecimal.ZERO;
+        EstacionamentoResponseDTO dto = toEstacionamentoResponseDTO(estacionamento);
+        eventPublisher.publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.SAIDA, dto));
+        return ResultadoEventoDTO.sucesso(indice, dto);
+    }
 
-        // Converter minutos para horas e frações
-        double horasCompletas = Math.floor(minutos / 60.0);
-        double fracaoDeHora = (minutos % 60) / 60.0;
+    // Estado das placas e vagas de um bloco, atualizado em memória à medida que os eventos são aplicados
+    private static final class EstadoBloco {
+        private final Map<String, Veiculo> veiculos;
+        private final Map<String, Estacionamento> ativos = new HashMap<>();
+        private final Deque<Vaga> vagasLiberadas = new ArrayDeque<>();
 
-        if (horasCompletas == 0 && minutos > 0) { // Menos de 1 hora, mas acima da carência
-            valorTotal = TARIFA_PRIMEIRA_HORA;
-        } else if (horasCompletas > 0) {
-            valorTotal = TARIFA_PRIMEIRA_HORA; // Primeira hora completa
+        private EstadoBloco(Map<String, Veiculo> veiculos) {
+            this.veiculos = veiculos;
+        }
+    }
 
-            // Adicionar horas adicionais
-            for (int i = 0; i < horasCompletas - 1; i++) { // Desconta a primeira hora já cobrada
-                valorTotal = valorTotal.add(TARIFA_HORA_ADICIONAL);
-            }
-            
-            // Cobrar fração da última hora, se houver
-            if (fracaoDeHora > 0) {
-                valorTotal = valorTotal.add(TARIFA_HORA_ADICIONAL);
-            }
+    private BigDecimal calcularTarifa(Estacionamento estacionamento) {
+        TipoVeiculo tipoVeiculo = estacionamento.getVeiculo().getTipoVeiculo();
+        return metricasEstacionamento.medirTarifa(tipoVeiculo, () -> tarifaService.calcularValor(tipoVeiculo,
+                estacionamento.getDataHoraEntrada(), estacionamento.getDataHoraSaida()));
+    }
+
+    private static String placaDoEvento(EventoPortaoDTO evento) {
+        if (evento == null || evento.getTipo() == null) {
+            return null;
+        }
+        return evento.getTipo() == TipoMovimentacao.ENTRADA
+                ? (evento.getVeiculo() == null ? null : evento.getVeiculo().getPlaca())
+                : evento.getPlaca();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EstacionamentoResponseDTO> listarEstacionamentosAtivos() {
+        return estacionamentoRepository.listarResumosPorStatus(StatusEstacionamento.ATIVO);
+    }
+
+    /**
+     * Lista uma página do histórico usando paginação por cursor (keyset pelo id).
+     * @param filtro Filtros opcionais de placa e período de entrada.
+     * @param cursor Último id recebido na página anterior, ou nulo para começar do início.
+     * @param limite Tamanho da página (limitado a PaginaCursorDTO.LIMITE_MAXIMO).
+     * @return A página com os registros e o cursor da próxima página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<EstacionamentoResponseDTO> listarHistoricoEstacionamentos(FiltroHistoricoDTO filtro, Long cursor, Integer limite) {
+        int tamanhoPagina = PaginaCursorDTO.tamanhoPagina(limite);
+        List<EstacionamentoResponseDTO> registros = estacionamentoRepository.findHistorico(
+                cursor, filtro.getPlaca(), filtro.getDe(), filtro.getAte(), Limit.of(tamanhoPagina + 1));
+        return PaginaCursorDTO.de(registros, tamanhoPagina, EstacionamentoResponseDTO::getId);
+    }
+
+    /**
+     * Percorre todo o histórico filtrado, entregando um registro por vez ao consumidor.
+     * A leitura é feita em blocos pelo banco, então o uso de memória não depende do tamanho do histórico.
+     * @param filtro Filtros opcionais de placa e período de entrada.
+     * @param consumidor Recebe cada registro na ordem do id (ex: escreve na resposta HTTP).
+     */
+    @Transactional(readOnly = true)
+    public void percorrerHistoricoEstacionamentos(FiltroHistoricoDTO filtro, Consumer<EstacionamentoResponseDTO> consumidor) {
+        try (Stream<EstacionamentoResponseDTO> historico = estacionamentoRepository.streamHistorico(filtro.getPlaca(), filtro.getDe(), filtro.getAte())) {
+            historico.forEach(consumidor);
         }
-        
-        // Exemplo de lógica de diária (após X horas, cobra-se diária)
-        // Se a duração for maior que, digamos, 10 horas, cobra uma diária
-        if (duracao.toHours() >= 10 && duracao.toDays() < 1) { // Mais de 10h, mas menos de 24h
-            valorTotal = TARIFA_DIARIA;
-        } else if (duracao.toDays() >= 1) { // Cobrar diárias completas
-             long diasCompletos = duracao.toDays();
-             valorTotal = TARIFA_DIARIA.multiply(new BigDecimal(diasCompletos));
-             // Adicionar lógica para a fração do último dia, se necessário
-             Duration restoDoDia = duracao.minusDays(diasCompletos);
-             if (restoDoDia.toMinutes() > 0) {
-                 // Poderia ser outra tarifa ou uma fração da diária
-                 valorTotal = valorTotal.add(calcularValor(entrada.plusDays(diasCompletos), saida)); // Recalcula a parte restante
-             }
-        }
-
-        // Simplicidade para este exemplo, você pode refinar as regras
-        return valorTotal.setScale(2, BigDecimal.ROUND_HALF_UP);
+    }
+
+    @Transactional(readOnly = true)
+    public EstacionamentoResponseDTO buscarEstacionamentoPorId(Long id) {
+        return estacionamentoRepository.buscarResumoPorId(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Registro de estacionamento não encontrado com ID: " + id));
+    }
+
+    /**
+     * Confere se o registro existe e já foi finalizado (imutável), sem montar o DTO.
+     * @param id O ID do registro.
+     * @return true se o registro existir e estiver FINALIZADO.
+     */
+    @Transactional(readOnly = true)
+    public boolean estaFinalizado(Long id) {
+        return estacionamentoRepository.existsByIdAndStatus(id, StatusEstacionamento.FINALIZADO);
     }
 
     private EstacionamentoResponseDTO toEstacionamentoResponseDTO(Estacionamento estacionamento) {
@@ -0,0 +1,154 @@
+package com.smartpark.api.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Índice em memória placa -> ID do estacionamento ativo, usado para responder "o veículo já está estacionado?"
+ * na entrada sem consultar o banco. O tamanho é limitado pela quantidade de vagas.
+ * As alterações valem imediatamente e são desfeitas se a transação que as fez não for confirmada.
+ * O banco continua sendo a fonte da verdade: o índice é carregado dele na inicialização, e quem encontra uma placa
+ * no índice confirma no banco antes de recusar a entrada (entradas obsoletas são descartadas).
+ * As placas são guardadas codificadas (Placa) em um MapaPlacas, sem objetos por entrada; o acesso é sincronizado
+ * (operações de dezenas de nanossegundos, sem contenção relevante no ritmo de passagens pelos portões).
+ * Placas fora do padrão brasileiro nunca entram no índice: não passam pela validação da entrada.
+ */
+@Component
+public class IndiceEstacionamentosAtivos {
+
+    private final MapaPlacas ativos = new MapaPlacas(); // Código da placa -> ID do estacionamento ativo
+
+    /**
+     * Substitui o conteúdo do índice (carga inicial a partir do banco).
+     * @param ativosPorPlaca IDs dos estacionamentos ativos, por placa.
+     */
+    public synchronized void carregar(Map<String, Long> ativosPorPlaca) {
+        ativos.limpar();
+        ativosPorPlaca.forEach((placa, estacionamentoId) -> {
+            if (Placa.valida(placa)) {
+                ativos.guardar(Placa.codificar(placa), estacionamentoId);
+            }
+        });
+    }
+
+    /**
+     * @param placa Placa do veículo.
+     * @return Um Optional com o ID do estacionamento ativo da placa, ou vazio se o veículo não estiver estacionado.
+     */
+    public Optional<Long> buscar(String placa) {
+        if (!Placa.valida(placa)) {
+            return Optional.empty();
+        }
+        long codigo = Placa.codificar(placa);
+        long estacionamentoId;
+        synchronized (this) {
+            estacionamentoId = ativos.buscar(codigo);
+        }
+        return estacionamentoId == MapaPlacas.AUSENTE ? Optional.empty() : Optional.of(estacionamentoId);
+    }
+
+    /**
+     * Registra o estacionamento como o ativo da placa. Se a transação for desfeita, o valor anterior é restaurado.
+     * @param placa Placa do veículo.
+     * @param estacionamentoId ID do estacionamento criado na entrada.
+     * @return O ID que estava registrado para a placa (entrada concorrente ou obsoleta), ou null.
+     * @throws IllegalArgumentException Se a placa não estiver no padrão brasileiro.
+     */
+    public Long registrarEntrada(String placa, Long estacionamentoId) {
+        long codigo = Placa.codificar(placa);
+        long anterior;
+        synchronized (this) {
+            anterior = ativos.guardar(codigo, estacionamentoId);
+        }
+        aoDesfazer(() -> {
+            synchronized (this) {
+                if (ativos.buscar(codigo) == estacionamentoId) {
+                    if (anterior == MapaPlacas.AUSENTE) {
+                        ativos.remover(codigo);
+                    } else {
+                        ativos.guardar(codigo, anterior);
+                    }
+                }
+            }
+        });
+        return anterior == MapaPlacas.AUSENTE ? null : anterior;
+    }
+
+    /**
+     * Remove o estacionamento finalizado do índice. Se a transação for desfeita, ele volta.
+     * @param placa Placa do veículo.
+     * @param estacionamentoId ID do estacionamento finalizado.
+     */
+    public void registrarSaida(String placa, Long estacionamentoId) {
+        if (removerSeIgual(placa, estacionamentoId)) {
+            long codigo = Placa.codificar(placa);
+            aoDesfazer(() -> {
+                synchronized (this) {
+                    if (ativos.buscar(codigo) == MapaPlacas.AUSENTE) {
+                        ativos.guardar(codigo, estacionamentoId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta uma entrada que não corresponde mais a um estacionamento ativo no banco.
+     * @param placa Placa do veículo.
+     * @param estacionamentoId ID registrado no índice.
+     */
+    public void descartar(String placa, Long estacionamentoId) {
+        removerSeIgual(placa, estacionamentoId);
+    }
+
+    public synchronized int tamanho() {
+        return ativos.tamanho();
+    }
+
+    private boolean removerSeIgual(String placa, Long estacionamentoId) {
+        if (!Placa.valida(placa) || estacionamentoId == null) {
+            return false;
+        }
+        long codigo = Placa.codificar(placa);
+        synchronized (this) {
+            if (ativos.buscar(codigo) != estacionamentoId) {
+                return false;
+            }
+            ativos.remover(codigo);
+            return true;
+        }
+    }
+
+    // As ações de uma transação são desfeitas na ordem inversa (ex: saída e nova entrada da mesma placa no mesmo lote)
+    private void aoDesfazer(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Desfazer desfazer = (Desfazer) TransactionSynchronizationManager.getResource(this);
+        if (desfazer == null) {
+            desfazer = new Desfazer();
+            TransactionSynchronizationManager.bindResource(this, desfazer);
+            TransactionSynchronizationManager.registerSynchronization(desfazer);
+        }
+        desfazer.acoes.push(acao);
+    }
+
+    private final class Desfazer implements TransactionSynchronization {
+
+        private final Deque<Runnable> acoes = new ArrayDeque<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(IndiceEstacionamentosAtivos.this);
+            if (status != STATUS_COMMITTED) {
+                acoes.forEach(Runnable::run); // push() insere no início: percorre da mais recente para a mais antiga
+            }
+        }
+    }
+}
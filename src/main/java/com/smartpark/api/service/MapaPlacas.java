@@ -0,0 +1,150 @@
+package com.smartpark.api.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa código de placa -> long (ex: ID do estacionamento) com endereçamento aberto e sondagem linear,
+ * sem objetos por entrada: chaves e valores ficam intercalados em um único long[] (chave, valor, chave, valor...).
+ * Cada entrada ocupa 16 bytes na tabela, contra ~100 bytes de um HashMap&lt;String, Long&gt; (nó, String, byte[] e Long).
+ * Não é thread-safe: quem compartilha o mapa entre threads deve sincronizar o acesso.
+ */
+public final class MapaPlacas {
+
+    /** Retornado por buscar/guardar/remover quando a placa não está no mapa. Não pode ser usado como valor. */
+    public static final long AUSENTE = -1L;
+
+    private static final long VAZIO = -1L; // Chave de posição livre: códigos de placa nunca são negativos
+    private static final float FATOR_CARGA = 0.75f;
+
+    private long[] tabela;
+    private int mascara; // Capacidade - 1 (capacidade sempre potência de 2)
+    private int deslocamento; // 64 - log2(capacidade), para o hash de Fibonacci
+    private int tamanho;
+    private int limite;
+
+    public MapaPlacas() {
+        this(16);
+    }
+
+    /**
+     * @param capacidadeEsperada Quantidade de placas esperada, para evitar redimensionamentos.
+     */
+    public MapaPlacas(int capacidadeEsperada) {
+        alocar(Math.max(2, Integer.highestOneBit(Math.max(1, (int) (capacidadeEsperada / FATOR_CARGA)) - 1) << 1));
+    }
+
+    /**
+     * @param placa Código da placa.
+     * @return O valor associado, ou AUSENTE.
+     */
+    public long buscar(long placa) {
+        int i = posicao(placa);
+        long chave;
+        while ((chave = tabela[2 * i]) != VAZIO) {
+            if (chave == placa) {
+                return tabela[2 * i + 1];
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * @param placa Código da placa.
+     * @param valor Valor a associar (diferente de AUSENTE).
+     * @return O valor anterior, ou AUSENTE.
+     */
+    public long guardar(long placa, long valor) {
+        if (placa < 0 || valor == AUSENTE) {
+            throw new IllegalArgumentException("Placa e valor não podem ser negativos/AUSENTE.");
+        }
+        int i = posicao(placa);
+        long chave;
+        while ((chave = tabela[2 * i]) != VAZIO) {
+            if (chave == placa) {
+                long anterior = tabela[2 * i + 1];
+                tabela[2 * i + 1] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        tabela[2 * i] = placa;
+        tabela[2 * i + 1] = valor;
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * @param placa Código da placa.
+     * @return O valor removido, ou AUSENTE.
+     */
+    public long remover(long placa) {
+        int i = posicao(placa);
+        long chave;
+        while ((chave = tabela[2 * i]) != VAZIO) {
+            if (chave == placa) {
+                long valor = tabela[2 * i + 1];
+                liberarPosicao(i);
+                return valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public void limpar() {
+        Arrays.fill(tabela, VAZIO);
+        tamanho = 0;
+    }
+
+    private int posicao(long placa) {
+        return (int) ((placa * 0x9E3779B97F4A7C15L) >>> deslocamento);
+    }
+
+    // Remoção com deslocamento para trás: puxa as entradas seguintes do mesmo agrupamento, sem marcas de "removido"
+    private void liberarPosicao(int livre) {
+        int j = (livre + 1) & mascara;
+        long chave;
+        while ((chave = tabela[2 * j]) != VAZIO) {
+            int ideal = posicao(chave);
+            // A entrada em j pode ocupar a posição livre se ela estiver entre sua posição ideal e j
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                tabela[2 * livre] = chave;
+                tabela[2 * livre + 1] = tabela[2 * j + 1];
+                livre = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        tabela[2 * livre] = VAZIO;
+        tamanho--;
+    }
+
+    private void redimensionar() {
+        long[] antiga = tabela;
+        alocar((mascara + 1) << 1);
+        for (int i = 0; i < antiga.length; i += 2) {
+            if (antiga[i] != VAZIO) {
+                int j = posicao(antiga[i]);
+                while (tabela[2 * j] != VAZIO) {
+                    j = (j + 1) & mascara;
+                }
+                tabela[2 * j] = antiga[i];
+                tabela[2 * j + 1] = antiga[i + 1];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        tabela = new long[2 * capacidade];
+        Arrays.fill(tabela, VAZIO);
+        mascara = capacidade - 1;
+        deslocamento = 64 - Integer.numberOfTrailingZeros(capacidade);
+        limite = (int) (capacidade * FATOR_CARGA);
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartpark.api.service;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.exception.RecursoNaoEncontradoException;
+import com.smartpark.api.exception.VagaIndisponivelException;
+import com.smartpark.api.exception.VeiculoJaEstacionadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas das operações dos portões (Micrometer, expostas em /actuator/prometheus).
+ * As tags têm poucos valores possíveis (resultado, tipo de veículo): placas e ids nunca viram tag, senão cada veículo
+ * criaria uma série nova no Prometheus. Os timers são criados uma vez aqui, e não a cada medição, para o caminho quente
+ * não pagar a busca do medidor no registro. Os histogramas (percentis p99 no Prometheus) são ligados pelo prefixo
+ * "smartpark" em management.metrics.distribution (application.yml).
+ * Os tempos de entrada e saída são medidos dentro da transação; o commit aparece em http.server.requests.
+ */
+@Component
+public class MetricasEstacionamento {
+
+    private final Map<Resultado, Timer> entradas;
+    private final Map<Resultado, Timer> saidas;
+    private final Timer alocacaoSucesso;
+    private final Timer alocacaoSemVaga;
+    private final Map<TipoVeiculo, Timer> tarifas = new EnumMap<>(TipoVeiculo.class);
+    private final Counter vagaIndisponivel;
+
+    public MetricasEstacionamento(MeterRegistry registry) {
+        this.entradas = timersPorResultado(registry, "smartpark.portao.entrada", "Tempo de registro de uma entrada");
+        this.saidas = timersPorResultado(registry, "smartpark.portao.saida", "Tempo de registro de uma saída, incluindo a tarifação");
+        this.alocacaoSucesso = timerAlocacao(registry, Resultado.SUCESSO);
+        this.alocacaoSemVaga = timerAlocacao(registry, Resultado.SEM_VAGA);
+        for (TipoVeiculo tipo : TipoVeiculo.values()) {
+            tarifas.put(tipo, Timer.builder("smartpark.tarifa.calculo")
+                    .description("Tempo de cálculo da tarifa na saída")
+                    .tag("tipo_veiculo", tipo.name())
+                    .register(registry));
+        }
+        this.vagaIndisponivel = Counter.builder("smartpark.vagas.indisponivel")
+                .description("Entradas recusadas com VagaIndisponivelException (estacionamento cheio)")
+                .register(registry);
+    }
+
+    /**
+     * Mede uma entrada, com a tag "resultado" conforme a exceção lançada (ex: veiculo_ja_estacionado, sem_vaga).
+     */
+    public <T> T medirEntrada(Supplier<T> entrada) {
+        return medir(entradas, entrada);
+    }
+
+    /**
+     * Mede uma saída, com a tag "resultado" conforme a exceção lançada (ex: nao_encontrado).
+     */
+    public <T> T medirSaida(Supplier<T> saida) {
+        return medir(saidas, saida);
+    }
+
+    /**
+     * Mede a reserva de uma vaga livre (alocador em memória + UPDATE condicional), com resultado sucesso ou sem_vaga.
+     */
+    public Optional<Vaga> medirAlocacao(Supplier<Optional<Vaga>> alocacao) {
+        long inicio = System.nanoTime();
+        Optional<Vaga> vaga = alocacao.get();
+        (vaga.isPresent() ? alocacaoSucesso : alocacaoSemVaga).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return vaga;
+    }
+
+    public BigDecimal medirTarifa(TipoVeiculo tipoVeiculo, Supplier<BigDecimal> calculo) {
+        Timer timer = tipoVeiculo != null ? tarifas.get(tipoVeiculo) : null;
+        return timer != null ? timer.record(calculo) : calculo.get();
+    }
+
+    public void registrarVagaIndisponivel() {
+        vagaIndisponivel.increment();
+    }
+
+    private static <T> T medir(Map<Resultado, Timer> timers, Supplier<T> operacao) {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.ERRO;
+        try {
+            T retorno = operacao.get();
+            resultado = Resultado.SUCESSO;
+            return retorno;
+        } catch (RuntimeException e) {
+            resultado = Resultado.de(e);
+            throw e;
+        } finally {
+            timers.get(resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Map<Resultado, Timer> timersPorResultado(MeterRegistry registry, String nome, String descricao) {
+        Map<Resultado, Timer> timers = new EnumMap<>(Resultado.class);
+        for (Resultado resultado : Resultado.values()) {
+            timers.put(resultado, Timer.builder(nome).description(descricao).tag("resultado", resultado.tag).register(registry));
+        }
+        return timers;
+    }
+
+    private static Timer timerAlocacao(MeterRegistry registry, Resultado resultado) {
+        return Timer.builder("smartpark.vagas.alocacao")
+                .description("Tempo para reservar uma vaga livre")
+                .tag("resultado", resultado.tag)
+                .register(registry);
+    }
+
+    private enum Resultado {
+        SUCESSO("sucesso", null),
+        VEICULO_JA_ESTACIONADO("veiculo_ja_estacionado", VeiculoJaEstacionadoException.class),
+        SEM_VAGA("sem_vaga", VagaIndisponivelException.class),
+        NAO_ENCONTRADO("nao_encontrado", RecursoNaoEncontradoException.class),
+        ERRO("erro", null);
+
+        private final String tag;
+        private final Class<? extends RuntimeException> excecao;
+
+        Resultado(String tag, Class<? extends RuntimeException> excecao) {
+            this.tag = tag;
+            this.excecao = excecao;
+        }
+
+        private static Resultado de(RuntimeException e) {
+            for (Resultado resultado : values()) {
+                if (resultado.excecao != null && resultado.excecao.isInstance(e)) {
+                    return resultado;
+                }
+            }
+            return ERRO;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartpark.api.service;
+
+/**
+ * Codificação de placas brasileiras (antiga ABC1234 e Mercosul ABC1B23) em um long, para usar como chave primitiva
+ * nas estruturas em memória. O código é o próprio valor: não há instâncias desta classe.
+ * Layout (misto de bases, sem perdas): 3 letras (base 26), 1 dígito, 1 dígito ou letra (base 36: 0-9 e depois A-Z)
+ * e 2 dígitos. Todos os códigos ficam entre 0 e 632.735.999, então cabem em 30 bits e -1 nunca é um código válido.
+ * As placas antiga e Mercosul do mesmo veículo (ABC1234 e ABC1C34) têm códigos diferentes, como as Strings.
+ * Validar e codificar não alocam; formatar aloca apenas a String resultante (ou nada, com escrever).
+ */
+public final class Placa {
+
+    public static final int TAMANHO = 7;
+
+    // Código máximo + 1: 26^3 * 10 * 36 * 10 * 10
+    public static final long QUANTIDADE_CODIGOS = 26L * 26 * 26 * 10 * 36 * 10 * 10;
+
+    private Placa() {
+    }
+
+    /**
+     * @param placa Texto a verificar.
+     * @return true se o texto está em um dos formatos aceitos (o mesmo padrão validado em VeiculoEntradaDTO).
+     */
+    public static boolean valida(CharSequence placa) {
+        if (placa == null || placa.length() != TAMANHO) {
+            return false;
+        }
+        return letra(placa.charAt(0)) && letra(placa.charAt(1)) && letra(placa.charAt(2))
+                && digito(placa.charAt(3))
+                && (digito(placa.charAt(4)) || letra(placa.charAt(4)))
+                && digito(placa.charAt(5)) && digito(placa.charAt(6));
+    }
+
+    /**
+     * Converte a placa no seu código.
+     * @param placa Placa no formato ABC1234 ou ABC1B23 (maiúsculas).
+     * @return O código da placa, entre 0 e QUANTIDADE_CODIGOS - 1.
+     * @throws IllegalArgumentException Se a placa não estiver em um dos formatos aceitos.
+     */
+    public static long codificar(CharSequence placa) {
+        if (!valida(placa)) {
+            throw new IllegalArgumentException("Formato de placa inválido: " + placa + " (ex: ABC1B23 ou ABC1234).");
+        }
+        long codigo = placa.charAt(0) - 'A';
+        codigo = codigo * 26 + (placa.charAt(1) - 'A');
+        codigo = codigo * 26 + (placa.charAt(2) - 'A');
+        codigo = codigo * 10 + (placa.charAt(3) - '0');
+        char quinto = placa.charAt(4);
+        codigo = codigo * 36 + (digito(quinto) ? quinto - '0' : 10 + (quinto - 'A'));
+        codigo = codigo * 10 + (placa.charAt(5) - '0');
+        return codigo * 10 + (placa.charAt(6) - '0');
+    }
+
+    /**
+     * @param codigo Código gerado por codificar.
+     * @return A placa em texto.
+     */
+    public static String formatar(long codigo) {
+        StringBuilder placa = new StringBuilder(TAMANHO);
+        escrever(codigo, placa);
+        return placa.toString();
+    }
+
+    /**
+     * Escreve a placa no StringBuilder informado, sem alocar (se houver capacidade).
+     * @param codigo Código gerado por codificar.
+     * @param destino Onde os 7 caracteres são acrescentados.
+     */
+    public static void escrever(long codigo, StringBuilder destino) {
+        if (codigo < 0 || codigo >= QUANTIDADE_CODIGOS) {
+            throw new IllegalArgumentException("Código de placa inválido: " + codigo);
+        }
+        int d6 = (int) (codigo % 10);
+        codigo /= 10;
+        int d5 = (int) (codigo % 10);
+        codigo /= 10;
+        int quinto = (int) (codigo % 36);
+        codigo /= 36;
+        int d3 = (int) (codigo % 10);
+        codigo /= 10;
+        int l2 = (int) (codigo % 26);
+        codigo /= 26;
+        int l1 = (int) (codigo % 26);
+        int l0 = (int) (codigo / 26);
+        destino.append((char) ('A' + l0)).append((char) ('A' + l1)).append((char) ('A' + l2))
+                .append((char) ('0' + d3))
+                .append(quinto < 10 ? (char) ('0' + quinto) : (char) ('A' + quinto - 10))
+                .append((char) ('0' + d5)).append((char) ('0' + d6));
+    }
+
+    private static boolean letra(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
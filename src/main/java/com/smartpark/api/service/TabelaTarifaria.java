@@ -0,0 +1,105 @@
+package com.smartpark.api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tabela de tarifação pré-calculada, em centavos.
+ * O valor de qualquer permanência dentro de um dia (0 a 1439 minutos) é calculado uma única vez na construção;
+ * permanências maiores pagam uma diária por dia completo mais o valor tabelado do resto do último dia.
+ * O cálculo por saída é uma divisão e um acesso ao array, sem alocar objetos.
+ * Regras (mesmas da tarifação original):
+ * - Até a carência: grátis
+ * - Primeira hora (ou fração): tarifa da primeira hora
+ * - Horas adicionais: tarifa adicional por hora ou fração
+ * - A partir de N horas no mesmo dia: diária
+ * - Nenhum dia custa mais que a diária (com tarifas configuradas, as horas podem somar mais que ela antes de N horas)
+ */
+public final class TabelaTarifaria {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    // Tarifação padrão: carência de 15 min, R$ 5,00 a primeira hora, R$ 2,00 a adicional, diária de R$ 25,00 a partir de 10h
+    public static final TabelaTarifaria PADRAO = new TabelaTarifaria(15, 500, 200, 2500, 10);
+
+    private final int[] centavosPorMinuto; // Índice: minutos de permanência dentro do dia
+    private final long diariaCentavos;
+
+    /**
+     * @param carenciaMinutos Permanência máxima sem cobrança, em minutos.
+     * @param primeiraHoraCentavos Valor da primeira hora (ou fração), em centavos.
+     * @param horaAdicionalCentavos Valor de cada hora adicional (ou fração), em centavos.
+     * @param diariaCentavos Valor da diária, em centavos.
+     * @param horasParaDiaria A partir de quantas horas completas no dia a diária é cobrada.
+     */
+    public TabelaTarifaria(int carenciaMinutos, int primeiraHoraCentavos, int horaAdicionalCentavos, int diariaCentavos, int horasParaDiaria) {
+        this.diariaCentavos = diariaCentavos;
+        this.centavosPorMinuto = new int[MINUTOS_POR_DIA];
+        for (int minutos = 0; minutos < MINUTOS_POR_DIA; minutos++) {
+            centavosPorMinuto[minutos] = calcularDentroDoDia(minutos, carenciaMinutos, primeiraHoraCentavos, horaAdicionalCentavos, diariaCentavos, horasParaDiaria);
+        }
+    }
+
+    /**
+     * Calcula o valor de uma permanência.
+     * @param minutos Minutos completos de permanência.
+     * @return O valor em centavos.
+     */
+    public long calcularCentavos(long minutos) {
+        if (minutos < 0) {
+            throw new IllegalArgumentException("Tempo de permanência negativo: " + minutos + " minutos.");
+        }
+        return (minutos / MINUTOS_POR_DIA) * diariaCentavos + centavosPorMinuto[(int) (minutos % MINUTOS_POR_DIA)];
+    }
+
+    /**
+     * Parte do valor de uma permanência que corresponde às diárias dos dias completos (sem o resto do último dia).
+     * @param minutos Minutos completos de permanência.
+     * @return O valor das diárias em centavos (zero para permanências de menos de um dia).
+     */
+    public long calcularCentavosDasDiarias(long minutos) {
+        return (minutos / MINUTOS_POR_DIA) * diariaCentavos;
+    }
+
+    /**
+     * Calcula o valor de uma permanência a partir das datas de entrada e saída.
+     * @param entrada Data e hora de entrada.
+     * @param saida Data e hora de saída.
+     * @return O valor em centavos.
+     */
+    public long calcularCentavos(LocalDateTime entrada, LocalDateTime saida) {
+        if (entrada == null || saida == null || saida.isBefore(entrada)) {
+            throw new IllegalArgumentException("Datas de entrada e saída inválidas para cálculo.");
+        }
+        return calcularCentavos(ChronoUnit.MINUTES.between(entrada, saida));
+    }
+
+    /**
+     * Converte centavos para o valor em reais exposto na API e gravado no registro.
+     * Permanências gratuitas retornam BigDecimal.ZERO, como na tarifação original.
+     * @param centavos Valor em centavos.
+     * @return O valor em reais, com 2 casas decimais.
+     */
+    public static BigDecimal paraReais(long centavos) {
+        return centavos == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(centavos, 2);
+    }
+
+    private static int calcularDentroDoDia(int minutos, int carenciaMinutos, int primeiraHoraCentavos, int horaAdicionalCentavos, int diariaCentavos, int horasParaDiaria) {
+        if (minutos <= carenciaMinutos) {
+            return 0;
+        }
+        int horasCompletas = minutos / 60;
+        if (horasCompletas >= horasParaDiaria) {
+            return diariaCentavos;
+        }
+        int valor = primeiraHoraCentavos;
+        if (horasCompletas > 0) {
+            valor += (horasCompletas - 1) * horaAdicionalCentavos; // A primeira hora já foi cobrada
+            if (minutos % 60 > 0) {
+                valor += horaAdicionalCentavos; // Fração da última hora
+            }
+        }
+        return Math.min(valor, diariaCentavos);
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartpark.api.service;
+
+import java.time.LocalDateTime;
+
+import com.smartpark.api.enums.TipoVeiculo;
+
+/**
+ * Política de tarifação aplicada na saída do veículo.
+ * Implementações devem ser imutáveis, para poderem ser trocadas em tempo de execução sem sincronização.
+ */
+public interface TarifaPolicy {
+
+    /**
+     * Calcula o valor de uma permanência.
+     * @param tipoVeiculo Tipo do veículo.
+     * @param entrada Data e hora de entrada.
+     * @param saida Data e hora de saída.
+     * @return O valor em centavos.
+     */
+    long calcularCentavos(TipoVeiculo tipoVeiculo, LocalDateTime entrada, LocalDateTime saida);
+}
@@ -0,0 +1,92 @@
+package com.smartpark.api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import com.smartpark.api.config.TarifaProperties;
+import com.smartpark.api.enums.TipoVeiculo;
+
+/**
+ * Forma compilada das regras de TarifaProperties: uma TabelaTarifaria por tipo de veículo
+ * e o percentual de cada minuto do dia (horário de entrada) já resolvido a partir das faixas horárias.
+ * O cálculo na saída é feito em O(1), sem percorrer as regras.
+ * O percentual da faixa vale só para o resto do último dia (a permanência de menos de 24h que sobra depois das
+ * diárias, que começa no mesmo horário da entrada). As diárias dos dias completos são cobradas integralmente.
+ */
+public final class TarifaPolicyCompilada implements TarifaPolicy {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int PERCENTUAL_INTEGRAL = 100;
+
+    private final TabelaTarifaria[] tabelaPorTipoVeiculo; // Índice: TipoVeiculo.ordinal()
+    private final short[] percentualPorMinutoDeEntrada; // Índice: minuto do dia da entrada
+    private final boolean possuiFaixasHorarias;
+
+    private TarifaPolicyCompilada(TabelaTarifaria[] tabelaPorTipoVeiculo, short[] percentualPorMinutoDeEntrada, boolean possuiFaixasHorarias) {
+        this.tabelaPorTipoVeiculo = tabelaPorTipoVeiculo;
+        this.percentualPorMinutoDeEntrada = percentualPorMinutoDeEntrada;
+        this.possuiFaixasHorarias = possuiFaixasHorarias;
+    }
+
+    /**
+     * Compila as regras de tarifação.
+     * @param regras As regras de tarifação.
+     * @return A política compilada.
+     * @throws IllegalArgumentException se algum valor for inválido (ex: mais de 2 casas decimais).
+     */
+    public static TarifaPolicyCompilada compilar(TarifaProperties regras) {
+        TabelaTarifaria[] tabelas = new TabelaTarifaria[TipoVeiculo.values().length];
+        for (TipoVeiculo tipo : TipoVeiculo.values()) {
+            TarifaProperties.TarifaVeiculo especifica = regras.getPorTipoVeiculo() == null ? null : regras.getPorTipoVeiculo().get(tipo);
+            tabelas[tipo.ordinal()] = new TabelaTarifaria(
+                    regras.getCarenciaMinutos(),
+                    emCentavos(especifica != null && especifica.getPrimeiraHora() != null ? especifica.getPrimeiraHora() : regras.getPrimeiraHora()),
+                    emCentavos(especifica != null && especifica.getHoraAdicional() != null ? especifica.getHoraAdicional() : regras.getHoraAdicional()),
+                    emCentavos(especifica != null && especifica.getDiaria() != null ? especifica.getDiaria() : regras.getDiaria()),
+                    regras.getHorasParaDiaria());
+        }
+
+        short[] percentuais = new short[MINUTOS_POR_DIA];
+        Arrays.fill(percentuais, (short) PERCENTUAL_INTEGRAL);
+        boolean possuiFaixas = regras.getFaixasHorarias() != null && !regras.getFaixasHorarias().isEmpty();
+        if (possuiFaixas) {
+            for (TarifaProperties.FaixaHoraria faixa : regras.getFaixasHorarias()) {
+                int inicio = faixa.getInicio().toSecondOfDay() / 60;
+                int fim = faixa.getFim().toSecondOfDay() / 60;
+                int duracao = Math.floorMod(fim - inicio, MINUTOS_POR_DIA);
+                if (duracao == 0) {
+                    duracao = MINUTOS_POR_DIA; // Início igual ao fim: o dia inteiro
+                }
+                for (int i = 0; i < duracao; i++) {
+                    percentuais[(inicio + i) % MINUTOS_POR_DIA] = faixa.getPercentual().shortValue();
+                }
+            }
+        }
+        return new TarifaPolicyCompilada(tabelas, percentuais, possuiFaixas);
+    }
+
+    @Override
+    public long calcularCentavos(TipoVeiculo tipoVeiculo, LocalDateTime entrada, LocalDateTime saida) {
+        TabelaTarifaria tabela = tabelaPorTipoVeiculo[tipoVeiculo.ordinal()];
+        long centavos = tabela.calcularCentavos(entrada, saida);
+        if (!possuiFaixasHorarias) {
+            return centavos;
+        }
+        int percentual = percentualPorMinutoDeEntrada[entrada.getHour() * 60 + entrada.getMinute()];
+        if (percentual == PERCENTUAL_INTEGRAL) {
+            return centavos;
+        }
+        long diarias = tabela.calcularCentavosDasDiarias(ChronoUnit.MINUTES.between(entrada, saida));
+        return diarias + ((centavos - diarias) * percentual + 50) / 100; // Arredonda meio centavo para cima
+    }
+
+    private static int emCentavos(BigDecimal valor) {
+        try {
+            return valor.movePointRight(2).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor de tarifa inválido: " + valor + " (use no máximo 2 casas decimais).");
+        }
+    }
+}
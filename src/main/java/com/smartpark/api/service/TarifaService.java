@@ -0,0 +1,152 @@
+package com.smartpark.api.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.smartpark.api.config.TarifaProperties;
+import com.smartpark.api.enums.TipoVeiculo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Mantém a política de tarifação em vigor.
+ * A política compilada é imutável e fica numa AtomicReference: a saída de veículos só faz uma leitura,
+ * sem lock, e uma atualização de regras troca a referência inteira de uma vez (quem já leu a versão anterior termina com ela).
+ * Cada versão guarda uma cópia das regras: nem o rebind do bean TarifaProperties nem quem recebeu as regras alteram a versão em vigor.
+ */
+@Service
+public class TarifaService {
+
+    private static final String PREFIXO_PROPRIEDADES = "smartpark.tarifa";
+
+    @Autowired
+    private TarifaProperties tarifaProperties;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private Validator validator;
+
+    // Arquivo YAML opcional com as chaves "smartpark.tarifa.*", relido por POST /api/v1/tarifas/recarregar
+    @Value("${smartpark.tarifa-arquivo:}")
+    private String arquivoRegras;
+
+    private final AtomicReference<Versao> versaoAtual = new AtomicReference<>(compilar(new TarifaProperties()));
+
+    @PostConstruct
+    public void carregarRegrasIniciais() {
+        if (StringUtils.hasText(arquivoRegras)) {
+            recarregarRegras();
+        } else {
+            atualizarRegras(tarifaProperties);
+        }
+    }
+
+    /**
+     * Calcula o valor de uma permanência com a política em vigor.
+     * @param tipoVeiculo Tipo do veículo.
+     * @param entrada Data e hora de entrada.
+     * @param saida Data e hora de saída.
+     * @return O valor em reais, com 2 casas decimais (ou BigDecimal.ZERO se a permanência for gratuita).
+     */
+    public BigDecimal calcularValor(TipoVeiculo tipoVeiculo, LocalDateTime entrada, LocalDateTime saida) {
+        return TabelaTarifaria.paraReais(versaoAtual.get().politica().calcularCentavos(tipoVeiculo, entrada, saida));
+    }
+
+    /**
+     * @return As regras que deram origem à política em vigor.
+     */
+    public TarifaProperties buscarRegrasAtuais() {
+        return versaoAtual.get().regras().copia();
+    }
+
+    /**
+     * Compila as novas regras e as coloca em vigor. Se a compilação falhar, a política anterior continua valendo.
+     * @param regras Novas regras de tarifação.
+     * @return As regras em vigor após a troca.
+     */
+    public TarifaProperties atualizarRegras(TarifaProperties regras) {
+        Versao novaVersao = compilar(regras.copia());
+        versaoAtual.set(novaVersao);
+        return novaVersao.regras().copia();
+    }
+
+    /**
+     * Lê de novo as regras "smartpark.tarifa.*" e as coloca em vigor. Com smartpark.tarifa-arquivo, as chaves do arquivo
+     * têm prioridade e as ausentes vêm do Environment (application.yml, variáveis de ambiente...). Regras inválidas são
+     * recusadas e a política anterior continua valendo.
+     * @return As regras em vigor após a troca.
+     * @throws IllegalArgumentException se as regras lidas forem inválidas.
+     * @throws UncheckedIOException se o arquivo não puder ser lido.
+     */
+    public TarifaProperties recarregarRegras() {
+        List<ConfigurationPropertySource> fontes = new ArrayList<>();
+        if (StringUtils.hasText(arquivoRegras)) {
+            fontes.addAll(lerArquivoRegras());
+        }
+        ConfigurationPropertySources.get(environment).forEach(fontes::add);
+        TarifaProperties regras = new Binder(fontes).bind(PREFIXO_PROPRIEDADES, TarifaProperties.class).orElseGet(TarifaProperties::new);
+
+        Set<ConstraintViolation<TarifaProperties>> violacoes = validator.validate(regras);
+        if (!violacoes.isEmpty()) {
+            throw new IllegalArgumentException("Regras de tarifação inválidas: " + violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + " " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return atualizarRegras(regras);
+    }
+
+    /**
+     * Recarrega as regras quando propriedades "smartpark.tarifa.*" mudam no Environment (ex: Config Server).
+     * As regras são lidas diretamente do Environment para não depender da ordem do rebind do bean TarifaProperties.
+     */
+    @EventListener
+    public void aoAlterarPropriedades(EnvironmentChangeEvent evento) {
+        if (evento.getKeys().stream().anyMatch(chave -> chave.startsWith(PREFIXO_PROPRIEDADES))) {
+            recarregarRegras();
+        }
+    }
+
+    private List<ConfigurationPropertySource> lerArquivoRegras() {
+        FileSystemResource arquivo = new FileSystemResource(arquivoRegras);
+        try {
+            List<ConfigurationPropertySource> fontes = new ArrayList<>();
+            new YamlPropertySourceLoader().load(arquivo.getFilename(), arquivo).forEach(fonte -> fontes.add(ConfigurationPropertySource.from(fonte)));
+            return fontes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o arquivo de tarifas " + arquivoRegras, e);
+        }
+    }
+
+    private static Versao compilar(TarifaProperties regras) {
+        return new Versao(regras, TarifaPolicyCompilada.compilar(regras));
+    }
+
+    // Regras e política compilada trocadas juntas, para que a consulta das regras nunca fique defasada da política aplicada
+    private record Versao(TarifaProperties regras, TarifaPolicy politica) {
+    }
+}
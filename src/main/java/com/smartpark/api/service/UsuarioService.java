@@ -1,18 +1,23 @@
 package com.smartpark.api.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartpark.api.dto.EstatisticasCacheDTO;
+import com.smartpark.api.dto.FiltroUsuariosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
 import com.smartpark.api.dto.UsuarioRequestDTO;
 import com.smartpark.api.dto.UsuarioResponseDTO;
 import com.smartpark.api.entity.Usuario;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.repository.UsuarioRepository;
+import com.smartpark.api.security.CacheAutenticacao;
 
 @Service
 public class UsuarioService {
@@ -23,6 +28,9 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheAutenticacao cacheAutenticacao; // Credenciais já verificadas; precisa ser invalidado quando o usuário muda
+
     @Transactional
     public UsuarioResponseDTO criarUsuario(UsuarioRequestDTO dto) {
         if (usuarioRepository.findByUsername(dto.getUsername()).isPresent()) {
@@ -38,11 +46,19 @@ public class UsuarioService {
         return toUsuarioResponseDTO(novoUsuario);
     }
 
+    /**
+     * Lista uma página de usuários usando paginação por cursor (keyset pelo id).
+     * @param filtro Filtro opcional de role.
+     * @param cursor Último id recebido na página anterior, ou nulo para começar do início.
+     * @param limite Tamanho da página (limitado a PaginaCursorDTO.LIMITE_MAXIMO).
+     * @return A página com os usuários e o cursor da próxima página.
+     */
     @Transactional(readOnly = true)
-    public List<UsuarioResponseDTO> listarTodosUsuarios() {
-        return usuarioRepository.findAll().stream()
-                .map(this::toUsuarioResponseDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<UsuarioResponseDTO> listarUsuarios(FiltroUsuariosDTO filtro, Long cursor, Integer limite) {
+        int tamanhoPagina = PaginaCursorDTO.tamanhoPagina(limite);
+        String role = filtro.getRole() == null || filtro.getRole().isBlank() ? null : filtro.getRole().trim().toUpperCase(); // Gravada em maiúsculas
+        List<UsuarioResponseDTO> registros = usuarioRepository.listarResumos(cursor, role, Limit.of(tamanhoPagina + 1));
+        return PaginaCursorDTO.de(registros, tamanhoPagina, UsuarioResponseDTO::getId);
     }
 
     @Transactional(readOnly = true)
@@ -69,6 +85,10 @@ public class UsuarioService {
             throw new IllegalArgumentException("Username '" + dto.getUsername() + "' já existe.");
         }
 
+        // Senha, role ou o próprio username podem mudar: descarta as credenciais em cache do nome antigo e do novo
+        cacheAutenticacao.invalidar(usuarioExistente.getUsername());
+        cacheAutenticacao.invalidar(dto.getUsername());
+
         usuarioExistente.setUsername(dto.getUsername());
         if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
             usuarioExistente.setPassword(passwordEncoder.encode(dto.getPassword())); // Atualiza a senha se fornecida
@@ -81,10 +101,15 @@ public class UsuarioService {
 
     @Transactional
     public void deletarUsuario(Long id) {
-        if (!usuarioRepository.existsById(id)) {
-            throw new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id);
-        }
-        usuarioRepository.deleteById(id);
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id));
+        cacheAutenticacao.invalidar(usuario.getUsername());
+        usuarioRepository.delete(usuario);
+    }
+
+    public EstatisticasCacheDTO buscarEstatisticasCacheAutenticacao() {
+        CacheStats stats = cacheAutenticacao.estatisticas();
+        return new EstatisticasCacheDTO(cacheAutenticacao.tamanho(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
     }
 
     // Método utilitário para converter Entidade em DTO
@@ -1,63 +1,206 @@
 package com.smartpark.api.service;
 
+import com.smartpark.api.dto.FiltroVagasDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.VagaResponseDTO;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.enums.StatusVaga;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.exception.VagaIndisponivelException;
 import com.smartpark.api.repository.VagaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class VagaService {
 
+    // Quantidade de vagas livres lidas do banco por rodada quando o alocador em memória está vazio
+    private static final int JANELA_ALOCACAO = 16;
+    private static final int MAX_RODADAS_ALOCACAO = 50;
+
     @Autowired
     private VagaRepository vagaRepository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private AlocadorVagasLivres alocadorVagasLivres; // Vagas livres em memória para a alocação na entrada
+
+    @Autowired
+    private ContadorOcupacao contadorOcupacao; // Contagem por status em memória para os endpoints de ocupação
+
+    @Autowired
+    private MetricasEstacionamento metricasEstacionamento; // Tempo de alocação e recusas por falta de vaga
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Carrega as vagas livres e a contagem de ocupação do banco assim que a aplicação sobe.
+    // Transação de escrita de propósito: lê do primário, nunca da réplica de leitura (que pode estar atrasada)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void carregarVagasLivres() {
+        alocadorVagasLivres.carregar(vagaRepository.findIdsByStatus(StatusVaga.LIVRE));
+        reconciliarContadorOcupacao();
+    }
+
+    /**
+     * Corrige a contagem em memória com o banco (ex: alterações feitas direto no banco ou por outra instância).
+     * Uma transação que termine durante a leitura pode deixar a contagem com uma pequena diferença até a próxima execução.
+     * Lê do primário (transação de escrita), nunca da réplica de leitura.
+     */
+    @Scheduled(fixedDelayString = "${smartpark.ocupacao.intervalo-reconciliacao:PT1M}", initialDelayString = "${smartpark.ocupacao.intervalo-reconciliacao:PT1M}")
+    @Transactional
+    public void reconciliarContadorOcupacao() {
+        contadorOcupacao.reconciliar(vagaRepository.countByStatus(StatusVaga.LIVRE), vagaRepository.countByStatus(StatusVaga.OCUPADA));
+    }
+
     public int getTotalVagas() {
-        return (int) vagaRepository.count();
+        return contadorOcupacao.total();
     }
 
-    @Transactional(readOnly = true)
     public int getVagasOcupadas() {
-        return vagaRepository.countByStatus(StatusVaga.OCUPADA);
+        return contadorOcupacao.quantidade(StatusVaga.OCUPADA);
     }
 
-    @Transactional(readOnly = true)
     public int getVagasLivres() {
-        return vagaRepository.countByStatus(StatusVaga.LIVRE);
+        return contadorOcupacao.quantidade(StatusVaga.LIVRE);
     }
 
-    @Transactional(readOnly = true)
     public boolean isEstacionamentoCheio() {
         return getVagasLivres() == 0;
     }
 
+    /**
+     * @return Total, ocupadas, livres e se está cheio, lidos de uma só vez da contagem em memória.
+     */
+    public OcupacaoDTO getOcupacao() {
+        return contadorOcupacao.snapshot();
+    }
+
+    /**
+     * Versão em memória de todas as vagas, para as ETags dos endpoints de vagas: muda após o commit de qualquer
+     * alteração feita por este serviço e a cada reconciliação com o banco. Deve ser lida antes dos dados que ela valida.
+     * @return Geração atual das vagas.
+     */
+    public long getGeracaoVagas() {
+        return contadorOcupacao.geracao();
+    }
+
+    /**
+     * Reserva e ocupa uma vaga livre de forma atômica.
+     * Cada tentativa é um UPDATE condicional (status = LIVRE), então entradas concorrentes nunca recebem a mesma vaga.
+     * As candidatas vêm do alocador em memória; se ele estiver vazio, uma janela de vagas livres é lida do banco
+     * e percorrida a partir de uma posição aleatória, para que portões concorrentes não disputem sempre a mesma linha.
+     * @return A vaga já marcada como OCUPADA.
+     */
     @Transactional
-    public Vaga encontrarProximaVagaLivre() {
-        return vagaRepository.findTopByStatus(StatusVaga.LIVRE)
-                .orElseThrow(() -> new VagaIndisponivelException("Não há vagas livres disponíveis no momento."));
+    public Vaga ocuparProximaVagaLivre() {
+        return tentarOcuparProximaVagaLivre().orElseThrow(() -> {
+            metricasEstacionamento.registrarVagaIndisponivel();
+            return new VagaIndisponivelException("Não há vagas livres disponíveis no momento.");
+        });
+    }
+
+    /**
+     * Igual a ocuparProximaVagaLivre, mas sem lançar exceção quando o estacionamento está cheio.
+     * Usado no processamento em lote, onde uma exceção marcaria a transação do bloco inteiro para rollback.
+     * @return Um Optional com a vaga já marcada como OCUPADA, ou vazio se não houver vagas livres.
+     */
+    @Transactional
+    public Optional<Vaga> tentarOcuparProximaVagaLivre() {
+        return metricasEstacionamento.medirAlocacao(this::reservarVagaLivre);
+    }
+
+    private Optional<Vaga> reservarVagaLivre() {
+        // 1. Candidatas conhecidas em memória
+        Optional<Long> idReservado;
+        while ((idReservado = alocadorVagasLivres.reservar()).isPresent()) {
+            Optional<Vaga> vaga = tentarOcupar(idReservado.get());
+            if (vaga.isPresent()) {
+                return vaga;
+            }
+            // Vaga removida ou ocupada por fora do alocador: descarta e tenta a próxima
+        }
+
+        // 2. Alocador vazio ou dessincronizado: busca candidatas no banco até não haver mais vagas livres
+        for (int rodada = 0; rodada < MAX_RODADAS_ALOCACAO; rodada++) {
+            List<Long> candidatas = vagaRepository.findIdsByStatus(StatusVaga.LIVRE, Limit.of(JANELA_ALOCACAO));
+            if (candidatas.isEmpty()) {
+                break;
+            }
+            int inicio = ThreadLocalRandom.current().nextInt(candidatas.size());
+            for (int i = 0; i < candidatas.size(); i++) {
+                Optional<Vaga> vaga = tentarOcupar(candidatas.get((inicio + i) % candidatas.size()));
+                if (vaga.isPresent()) {
+                    return vaga;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Vaga> tentarOcupar(Long id) {
+        if (vagaRepository.alterarStatusSeIgual(id, StatusVaga.LIVRE, StatusVaga.OCUPADA) == 0) {
+            return Optional.empty();
+        }
+        alocadorVagasLivres.remover(id);
+        contadorOcupacao.registrarAposCommit(StatusVaga.LIVRE, StatusVaga.OCUPADA);
+        // O UPDATE não passa pelo contexto de persistência: se a vaga já estava carregada nesta transação
+        // (ex: liberada e reocupada no mesmo lote), a instância está desatualizada e precisa ser relida do banco
+        return vagaRepository.findById(id).map(vaga -> {
+            if (vaga.getStatus() != StatusVaga.OCUPADA) {
+                entityManager.refresh(vaga);
+            }
+            return vaga;
+        });
     }
 
     @Transactional
     public Vaga ocuparVaga(Vaga vaga) {
+        StatusVaga statusAnterior = vaga.getStatus();
         vaga.setStatus(StatusVaga.OCUPADA);
+        alocadorVagasLivres.remover(vaga.getId());
+        contadorOcupacao.registrarAposCommit(statusAnterior, StatusVaga.OCUPADA);
         return vagaRepository.save(vaga);
     }
 
     @Transactional
     public Vaga liberarVaga(Vaga vaga) {
+        StatusVaga statusAnterior = vaga.getStatus();
         vaga.setStatus(StatusVaga.LIVRE);
-        return vagaRepository.save(vaga);
+        Vaga vagaLiberada = vagaRepository.save(vaga);
+        alocadorVagasLivres.devolverAposCommit(vagaLiberada.getId());
+        contadorOcupacao.registrarAposCommit(statusAnterior, StatusVaga.LIVRE);
+        return vagaLiberada;
     }
 
-    @Transactional(readOnly = true)
-    public List<Vaga> listarTodasVagas() {
-        return vagaRepository.findAll();
+    /**
+     * Lista uma página de vagas usando paginação por cursor (keyset pelo id).
+     * @param filtro Filtros opcionais de status e prefixo do número.
+     * @param cursor Último id recebido na página anterior, ou nulo para começar do início.
+     * @param limite Tamanho da página (limitado a PaginaCursorDTO.LIMITE_MAXIMO).
+     * @return A página com as vagas e o cursor da próxima página.
+     */
+    // Sem readOnly para ler do primário, e não da réplica: a ETag do GET vem da geração das vagas em memória (VagaController).
+    // Com a réplica atrasada, o corpo antigo iria com a ETag nova e o cliente continuaria com ele, recebendo 304
+    @Transactional
+    public PaginaCursorDTO<VagaResponseDTO> listarVagas(FiltroVagasDTO filtro, Long cursor, Integer limite) {
+        int tamanhoPagina = PaginaCursorDTO.tamanhoPagina(limite);
+        String prefixo = filtro.getPrefixo() == null || filtro.getPrefixo().isBlank() ? null
+                : filtro.getPrefixo().trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<VagaResponseDTO> registros = vagaRepository.listarResumos(cursor, filtro.getStatus(), prefixo, Limit.of(tamanhoPagina + 1));
+        return PaginaCursorDTO.de(registros, tamanhoPagina, VagaResponseDTO::getId);
     }
 
     @Transactional
@@ -67,7 +210,10 @@ public class VagaService {
             throw new IllegalArgumentException("Já existe uma vaga com o número " + vaga.getNumero());
         }
         vaga.setStatus(StatusVaga.LIVRE); // Nova vaga sempre começa livre
-        return vagaRepository.save(vaga);
+        Vaga novaVaga = vagaRepository.save(vaga);
+        alocadorVagasLivres.devolverAposCommit(novaVaga.getId());
+        contadorOcupacao.registrarAposCommit(null, StatusVaga.LIVRE);
+        return novaVaga;
     }
 
     @Transactional(readOnly = true)
@@ -76,12 +222,26 @@ public class VagaService {
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Vaga não encontrada com ID: " + id));
     }
 
+    @Transactional // Lida do primário, como listarVagas: a resposta também vai com a ETag da geração das vagas
+    public VagaResponseDTO buscarResumoVagaPorId(Long id) {
+        return vagaRepository.buscarResumoPorId(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Vaga não encontrada com ID: " + id));
+    }
+
     @Transactional
     public Vaga atualizarVaga(Long id, Vaga vagaAtualizada) {
         Vaga vagaExistente = buscarVagaPorId(id);
+        StatusVaga statusAnterior = vagaExistente.getStatus();
         vagaExistente.setNumero(vagaAtualizada.getNumero());
         vagaExistente.setStatus(vagaAtualizada.getStatus());
-        return vagaRepository.save(vagaExistente);
+        Vaga vagaSalva = vagaRepository.save(vagaExistente);
+        if (vagaSalva.getStatus() == StatusVaga.LIVRE) {
+            alocadorVagasLivres.devolverAposCommit(vagaSalva.getId());
+        } else {
+            alocadorVagasLivres.remover(vagaSalva.getId());
+        }
+        contadorOcupacao.registrarAposCommit(statusAnterior, vagaSalva.getStatus());
+        return vagaSalva;
     }
 
     @Transactional
@@ -91,6 +251,8 @@ public class VagaService {
         if (vagaExistente.getStatus() == StatusVaga.OCUPADA) {
             throw new IllegalStateException("Não é possível deletar uma vaga ocupada.");
         }
+        alocadorVagasLivres.remover(vagaExistente.getId());
+        contadorOcupacao.registrarAposCommit(vagaExistente.getStatus(), null);
         vagaRepository.delete(vagaExistente);
     }
 }
\ No newline at end of file
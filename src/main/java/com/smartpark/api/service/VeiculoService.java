@@ -1,13 +1,21 @@
 package com.smartpark.api.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.smartpark.api.dto.FiltroVeiculosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
 import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.dto.VeiculoResponseDTO;
 import com.smartpark.api.entity.Veiculo;
 import com.smartpark.api.enums.StatusEstacionamento;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
@@ -19,28 +27,82 @@ public class VeiculoService {
     @Autowired
     private VeiculoRepository veiculoRepository;
 
+    @Autowired
+    private CacheVeiculos cacheVeiculos; // Placa -> veículo para as entradas de clientes recorrentes
+
     @Transactional(readOnly = true)
     public Optional<Veiculo> findByPlaca(String placa) {
         return veiculoRepository.findByPlaca(placa);
     }
 
+    /**
+     * Busca o veículo pela placa (primeiro no CacheVeiculos, depois no banco) ou o cadastra com os dados da entrada.
+     * Um veículo vindo do cache é uma cópia desanexada: serve para referenciar o veículo, não para alterá-lo.
+     */
     @Transactional
     public Veiculo buscarOuCriarVeiculo(VeiculoEntradaDTO dto) {
+        Optional<Veiculo> emCache = cacheVeiculos.buscar(dto.getPlaca());
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
         return veiculoRepository.findByPlaca(dto.getPlaca())
-                .orElseGet(() -> {
-                    Veiculo novoVeiculo = new Veiculo();
-                    novoVeiculo.setPlaca(dto.getPlaca());
-                    novoVeiculo.setMarca(dto.getMarca());
-                    novoVeiculo.setModelo(dto.getModelo());
-                    novoVeiculo.setCor(dto.getCor());
-                    novoVeiculo.setTipoVeiculo(dto.getTipoVeiculo());
-                    return veiculoRepository.save(novoVeiculo);
-                });
+                .map(veiculo -> {
+                    cacheVeiculos.registrar(veiculo);
+                    return veiculo;
+                })
+                .orElseGet(() -> criarVeiculoDaEntrada(dto));
+    }
+
+    /**
+     * Cadastra o veículo com os dados informados na entrada, sem verificar se a placa já existe
+     * (quem chama já fez a busca, ex: buscarOuCriarVeiculo ou o processamento em lote).
+     */
+    @Transactional
+    public Veiculo criarVeiculoDaEntrada(VeiculoEntradaDTO dto) {
+        Veiculo novoVeiculo = new Veiculo();
+        novoVeiculo.setPlaca(dto.getPlaca());
+        novoVeiculo.setMarca(dto.getMarca());
+        novoVeiculo.setModelo(dto.getModelo());
+        novoVeiculo.setCor(dto.getCor());
+        novoVeiculo.setTipoVeiculo(dto.getTipoVeiculo());
+        Veiculo veiculoSalvo = veiculoRepository.save(novoVeiculo);
+        cacheVeiculos.registrarAposCommit(veiculoSalvo);
+        return veiculoSalvo;
+    }
+
+    /**
+     * @param placas Placas a buscar.
+     * @return Os veículos já cadastrados, indexados pela placa.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Veiculo> buscarVeiculosPorPlaca(Collection<String> placas) {
+        return veiculoRepository.findByPlacaIn(placas).stream()
+                .collect(Collectors.toMap(Veiculo::getPlaca, Function.identity()));
+    }
+
+    /**
+     * Lista uma página de veículos usando paginação por cursor (keyset pelo id).
+     * @param filtro Filtro opcional de tipo de veículo.
+     * @param cursor Último id recebido na página anterior, ou nulo para começar do início.
+     * @param limite Tamanho da página (limitado a PaginaCursorDTO.LIMITE_MAXIMO).
+     * @return A página com os veículos e o cursor da próxima página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<VeiculoResponseDTO> listarVeiculos(FiltroVeiculosDTO filtro, Long cursor, Integer limite) {
+        int tamanhoPagina = PaginaCursorDTO.tamanhoPagina(limite);
+        List<VeiculoResponseDTO> registros = veiculoRepository.listarResumos(cursor, filtro.getTipoVeiculo(), Limit.of(tamanhoPagina + 1));
+        return PaginaCursorDTO.de(registros, tamanhoPagina, VeiculoResponseDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public VeiculoResponseDTO buscarResumoVeiculoPorId(Long id) {
+        return veiculoRepository.buscarResumoPorId(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Veículo não encontrado com ID: " + id));
     }
 
     @Transactional(readOnly = true)
-    public List<Veiculo> listarTodosVeiculos() {
-        return veiculoRepository.findAll();
+    public Optional<VeiculoResponseDTO> buscarResumoVeiculoPorPlaca(String placa) {
+        return veiculoRepository.buscarResumoPorPlaca(placa);
     }
 
     @Transactional(readOnly = true)
@@ -54,7 +116,9 @@ public class VeiculoService {
         if (veiculoRepository.existsByPlaca(veiculo.getPlaca())) {
             throw new IllegalArgumentException("Veículo com a placa " + veiculo.getPlaca() + " já existe.");
         }
-        return veiculoRepository.save(veiculo);
+        Veiculo veiculoSalvo = veiculoRepository.save(veiculo);
+        cacheVeiculos.registrarAposCommit(veiculoSalvo);
+        return veiculoSalvo;
     }
 
     @Transactional
@@ -64,6 +128,7 @@ public class VeiculoService {
         veiculoExistente.setModelo(veiculoAtualizado.getModelo());
         veiculoExistente.setCor(veiculoAtualizado.getCor());
         veiculoExistente.setTipoVeiculo(veiculoAtualizado.getTipoVeiculo());
+        cacheVeiculos.invalidar(veiculoExistente.getPlaca());
         return veiculoRepository.save(veiculoExistente);
     }
 
@@ -75,5 +140,6 @@ public class VeiculoService {
             throw new IllegalStateException("Não é possível deletar um veículo com estacionamento ativo.");
         }
         veiculoRepository.delete(veiculoExistente);
+        cacheVeiculos.invalidar(veiculoExistente.getPlaca());
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.smartpark.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) do ajuste das sequências: linhas com IDs gravados fora da sequência
+ * (como em bancos anteriores a ela) fazem a sequência avançar para depois do maior ID.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AjusteSequenciasTest {
+
+    private static final long ID_EXISTENTE = 5000L;
+
+    @Autowired
+    private AjusteSequencias ajusteSequencias;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from tb_vagas where id = ?", ID_EXISTENTE);
+    }
+
+    @Test
+    @DisplayName("Deve avançar a sequência para depois do maior ID já gravado na tabela")
+    void ajustar_ShouldMoveSequencePastExistingIds() {
+        jdbcTemplate.update("insert into tb_vagas (id, numero, status) values (?, 'SEQ1', 'LIVRE')", ID_EXISTENTE);
+
+        ajusteSequencias.ajustar();
+
+        assertTrue(proximoValor("seq_vagas") > ID_EXISTENTE);
+    }
+
+    @Test
+    @DisplayName("Não deve voltar a sequência quando ela já está à frente dos IDs da tabela")
+    void ajustar_ShouldKeepSequenceAhead() {
+        long antes = proximoValor("seq_veiculos");
+
+        ajusteSequencias.ajustar();
+
+        assertTrue(proximoValor("seq_veiculos") > antes);
+    }
+
+    private long proximoValor(String sequencia) {
+        return jdbcTemplate.queryForObject("select nextval('" + sequencia + "')", Long.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.smartpark.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.repository.EstacionamentoRepository;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.repository.VeiculoRepository;
+import com.smartpark.api.service.EstacionamentoService;
+import com.smartpark.api.service.VagaService;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) de /actuator/prometheus: depois de uma entrada, uma saída e uma entrada
+ * recusada, a coleta precisa trazer os timers dos portões, a ocupação por status, HikariCP e Hibernate (inclusive o
+ * cache de segundo nível), sem nenhuma placa.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false) // Nos testes o Spring Boot usa um registro em memória no lugar do Prometheus
+@ActiveProfiles({"test", "metricas"}) // Estatísticas do Hibernate ligadas, como numa instância coletada pelo Prometheus
+class MetricasPrometheusTest {
+
+    private static final String PLACA = "MET1R23";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EstacionamentoService estacionamentoService;
+
+    @Autowired
+    private VagaService vagaService;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private EstacionamentoRepository estacionamentoRepository;
+
+    @BeforeEach
+    void setUp() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        List<Vaga> vagas = new ArrayList<>();
+        vagas.add(new Vaga(null, "M1", StatusVaga.LIVRE));
+        vagaRepository.saveAll(vagas);
+        vagaService.carregarVagasLivres();
+    }
+
+    @AfterEach
+    void tearDown() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        veiculoRepository.deleteAll();
+        estacionamentoService.carregarEstacionamentosAtivos();
+        vagaService.carregarVagasLivres();
+    }
+
+    @Test
+    @DisplayName("Deve expor as métricas dos portões, do pool e do Hibernate no formato do Prometheus, sem placas")
+    void prometheus_ShouldExposeLowCardinalityMetrics() throws Exception {
+        entrar(PLACA).andExpect(status().isCreated());
+        entrar("OUT2R34").andExpect(status().isBadRequest()); // Única vaga ocupada
+        mockMvc.perform(put("/api/v1/estacionamentos/sair/" + PLACA).with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk());
+
+        String coleta = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(temLinha(coleta, "smartpark_portao_entrada_seconds_count{", "resultado=\"sucesso\""));
+        assertTrue(temLinha(coleta, "smartpark_portao_entrada_seconds_count{", "resultado=\"sem_vaga\""));
+        assertTrue(temLinha(coleta, "smartpark_portao_entrada_seconds_bucket{", "le=")); // Histograma para p99
+        assertTrue(temLinha(coleta, "smartpark_portao_saida_seconds_count{", "resultado=\"sucesso\""));
+        assertTrue(temLinha(coleta, "smartpark_vagas_alocacao_seconds_count{", "resultado=\"sem_vaga\""));
+        assertTrue(temLinha(coleta, "smartpark_vagas_indisponivel_total{", ""));
+        assertTrue(temLinha(coleta, "smartpark_tarifa_calculo_seconds_count{", "tipo_veiculo=\"CARRO\""));
+        assertTrue(temLinha(coleta, "smartpark_autenticacao_seconds_count{", "resultado=\"sucesso\""));
+        assertTrue(temLinha(coleta, "smartpark_vagas{", "status=\"LIVRE\""));
+        assertTrue(temLinha(coleta, "smartpark_vagas{", "status=\"OCUPADA\""));
+        assertTrue(temLinha(coleta, "hikaricp_connections_max{", ""));
+        assertTrue(temLinha(coleta, "hibernate_query_executions_total{", ""));
+        assertTrue(temLinha(coleta, "hibernate_second_level_cache_requests_total{", "region=\"vagas\""));
+        assertTrue(temLinha(coleta, "hibernate_cache_query_requests_total{", "result=\"hit\""));
+        assertTrue(temLinha(coleta, "http_server_requests_seconds_count{", "uri=\"/api/v1/estacionamentos/sair/{placa}\""));
+        assertFalse(coleta.contains(PLACA)); // Placas nunca viram tag
+        assertFalse(coleta.contains("OUT2R34"));
+    }
+
+    @Test
+    @DisplayName("Deve liberar o health check e restringir as métricas ao ADMIN")
+    void actuator_ShouldRestrictMetricsToAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("user", "user123"))).andExpect(status().isForbidden());
+    }
+
+    private ResultActions entrar(String placa) throws Exception {
+        return mockMvc.perform(post("/api/v1/estacionamentos/entrar")
+                .with(httpBasic("admin", "admin123"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"placa\":\"" + placa + "\",\"marca\":\"Fiat\",\"modelo\":\"Argo\",\"cor\":\"Prata\",\"tipoVeiculo\":\"CARRO\"}"));
+    }
+
+    private static boolean temLinha(String coleta, String prefixo, String trecho) {
+        return coleta.lines().anyMatch(linha -> linha.startsWith(prefixo) && linha.contains(trecho));
+    }
+}
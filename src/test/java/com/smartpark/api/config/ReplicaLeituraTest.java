@@ -0,0 +1,180 @@
+package com.smartpark.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartpark.api.dto.FiltroVagasDTO;
+import com.smartpark.api.dto.VagaResponseDTO;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.exception.RecursoNaoEncontradoException;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.security.UserDetailsServiceImpl;
+import com.smartpark.api.service.VagaService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de integração da réplica de leitura com dois bancos H2 separados (primário e réplica, sem replicação entre
+ * eles): cada vaga existe em um só banco, então o número devolvido mostra de onde veio a leitura. O atraso da réplica
+ * é lido da tabela atraso_replica, criada só na réplica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "smartpark.replica.habilitado=true",
+        "smartpark.replica.datasource.jdbc-url=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "smartpark.replica.datasource.username=sa",
+        "smartpark.replica.datasource.password=",
+        "smartpark.replica.atraso-maximo=5s",
+        "smartpark.replica.intervalo-verificacao=PT1H", // As verificações são chamadas pelo teste
+        "smartpark.replica.consulta-atraso=select coalesce(max(segundos), 0) from atraso_replica"
+})
+@ActiveProfiles("test")
+class ReplicaLeituraTest {
+
+    private static final long ID_VAGA_REPLICA = 9001L;
+
+    @Autowired
+    private VagaService vagaService;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RoteadorReplica roteadorReplica;
+
+    @Autowired
+    @Qualifier("dataSourcePrimario")
+    private DataSource dataSourcePrimario;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource dataSourceReplica;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+    private TransactionTemplate somenteLeitura;
+
+    @BeforeEach
+    void setUp() {
+        primario = new JdbcTemplate(dataSourcePrimario);
+        replica = new JdbcTemplate(dataSourceReplica);
+        somenteLeitura = new TransactionTemplate(transactionManager);
+        somenteLeitura.setReadOnly(true);
+        replica.execute("create table if not exists tb_vagas (id bigint primary key, numero varchar(10) not null, status varchar(20) not null)");
+        replica.execute("create table if not exists atraso_replica (segundos double precision)");
+        replica.update("insert into tb_vagas (id, numero, status) values (?, 'R1', 'LIVRE')", ID_VAGA_REPLICA);
+
+        vagaRepository.deleteAll();
+        vagaRepository.save(new Vaga(null, "P1", StatusVaga.LIVRE));
+        roteadorReplica.verificar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("drop table if exists tb_vagas");
+        replica.execute("drop table if exists atraso_replica");
+        vagaRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        roteadorReplica.verificar(); // Sem a tabela de atraso: réplica indisponível
+    }
+
+    @Test
+    @DisplayName("Deve enviar transações readOnly para a réplica e as de escrita para o primário")
+    void transacoes_ShouldBeRoutedByReadOnlyFlag() {
+        assertTrue(roteadorReplica.isDisponivel());
+        assertEquals(List.of("R1"), numerosListados());
+
+        vagaService.criarVaga(new Vaga(null, "P2", StatusVaga.LIVRE));
+
+        assertEquals(1, primario.queryForObject("select count(*) from tb_vagas where numero = 'P2'", Integer.class));
+        assertEquals(0, replica.queryForObject("select count(*) from tb_vagas where numero = 'P2'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve voltar as leituras para o primário enquanto o atraso da réplica passar do máximo")
+    void verificar_ShouldFallBackToPrimaryWhileReplicaLags() {
+        long leiturasNoPrimario = roteadorReplica.getLeiturasNoPrimario();
+        replica.update("insert into atraso_replica (segundos) values (30)");
+        roteadorReplica.verificar();
+
+        assertFalse(roteadorReplica.isDisponivel());
+        assertEquals(30.0, roteadorReplica.getAtrasoSegundos());
+        assertEquals(List.of("P1"), numerosListados());
+        assertEquals(leiturasNoPrimario + 1, roteadorReplica.getLeiturasNoPrimario());
+
+        replica.update("delete from atraso_replica");
+        roteadorReplica.verificar();
+
+        assertTrue(roteadorReplica.isDisponivel());
+        assertEquals(List.of("R1"), numerosListados());
+    }
+
+    @Test
+    @DisplayName("Deve voltar as leituras para o primário quando a consulta de atraso falhar")
+    void verificar_ShouldFallBackToPrimaryWhenReplicaFails() {
+        replica.execute("drop table atraso_replica");
+        roteadorReplica.verificar();
+
+        assertFalse(roteadorReplica.isDisponivel());
+        assertTrue(Double.isNaN(roteadorReplica.getAtrasoSegundos()));
+        assertEquals(List.of("P1"), numerosListados());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache de segundo nível as entidades lidas da réplica")
+    void buscarVagaPorId_ShouldNotCacheEntitiesReadFromReplica() {
+        assertEquals("R1", vagaService.buscarVagaPorId(ID_VAGA_REPLICA).getNumero());
+
+        assertFalse(entityManagerFactory.getCache().contains(Vaga.class, ID_VAGA_REPLICA));
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário as vagas respondidas com a ETag da geração em memória, mesmo com a réplica disponível")
+    void leiturasComEtagDeGeracao_ShouldReadFromPrimary() {
+        assertTrue(roteadorReplica.isDisponivel());
+
+        assertEquals(List.of("P1"), vagaService.listarVagas(new FiltroVagasDTO(), null, null).getItens().stream().map(VagaResponseDTO::getNumero).toList());
+        assertThrows(RecursoNaoEncontradoException.class, () -> vagaService.buscarResumoVagaPorId(ID_VAGA_REPLICA)); // Só existe na réplica
+    }
+
+    @Test
+    @DisplayName("Deve autenticar lendo o usuário do primário, mesmo com a réplica disponível")
+    void loadUserByUsername_ShouldReadFromPrimary() {
+        assertTrue(roteadorReplica.isDisponivel());
+
+        assertEquals("admin", userDetailsService.loadUserByUsername("admin").getUsername()); // tb_usuarios não existe na réplica
+    }
+
+    // Uma transação readOnly qualquer: vai para a réplica enquanto ela estiver disponível
+    private List<String> numerosListados() {
+        return somenteLeitura.execute(status -> vagaRepository.findAll().stream().map(Vaga::getNumero).toList());
+    }
+}
@@ -0,0 +1,103 @@
+package com.smartpark.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.smartpark.api.entity.Usuario;
+
+@ExtendWith(MockitoExtension.class)
+class ProvedorAutenticacaoComCacheTest {
+
+    private static final BCryptPasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4); // Custo baixo só para o teste
+    private static final String SENHA_HASH = PASSWORD_ENCODER.encode("senha123");
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private CacheAutenticacao cacheAutenticacao;
+    private ProvedorAutenticacaoComCache provedor;
+
+    @BeforeEach
+    void setUp() {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(userDetailsService);
+        dao.setPasswordEncoder(PASSWORD_ENCODER);
+        cacheAutenticacao = new CacheAutenticacao(100, Duration.ofMinutes(5));
+        provedor = new ProvedorAutenticacaoComCache(dao, cacheAutenticacao);
+    }
+
+    private void comUsuarioNoBanco() {
+        when(userDetailsService.loadUserByUsername("gate01")).thenReturn(new UserDetailsImpl(new Usuario(1L, "gate01", SENHA_HASH, "USER")));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco só na primeira autenticação com as mesmas credenciais")
+    void authenticate_ShouldUseCache_ForRepeatedCredentials() {
+        comUsuarioNoBanco();
+
+        Authentication primeira = provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+        Authentication segunda = provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+
+        assertTrue(segunda.isAuthenticated());
+        assertEquals("gate01", segunda.getName());
+        assertEquals(primeira.getAuthorities(), segunda.getAuthorities());
+        verify(userDetailsService, times(1)).loadUserByUsername("gate01");
+        assertEquals(1, cacheAutenticacao.estatisticas().hitCount());
+    }
+
+    @Test
+    @DisplayName("Deve verificar de novo no provedor real quando a senha não confere com a do cache")
+    void authenticate_ShouldDelegate_WhenPasswordDoesNotMatchCachedEntry() {
+        comUsuarioNoBanco();
+        provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "outraSenha")));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("gate01");
+        assertEquals(Optional.empty(), cacheAutenticacao.buscar("gate01", "outraSenha"));
+    }
+
+    @Test
+    @DisplayName("Não deve guardar credenciais inválidas")
+    void authenticate_ShouldNotCacheFailedAuthentication() {
+        comUsuarioNoBanco();
+
+        assertThrows(BadCredentialsException.class,
+                () -> provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "errada")));
+
+        assertEquals(0, cacheAutenticacao.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve voltar a consultar o banco depois que o usuário é invalidado")
+    void authenticate_ShouldReloadUser_AfterInvalidation() {
+        comUsuarioNoBanco();
+        provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+
+        cacheAutenticacao.invalidar("gate01");
+        provedor.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("gate01", "senha123"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("gate01");
+    }
+}
@@ -0,0 +1,95 @@
+package com.smartpark.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smartpark.api.dto.LoginRequestDTO;
+import com.smartpark.api.dto.TokenResponseDTO;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    @Mock
+    private AuthenticationProvider authenticationProvider;
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+    private TokenService tokenService;
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        SecretKey chave = securityConfig.chaveToken("");
+        jwtDecoder = securityConfig.jwtDecoder(chave);
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "authenticationProvider", authenticationProvider);
+        ReflectionTestUtils.setField(tokenService, "jwtEncoder", securityConfig.jwtEncoder(chave));
+        ReflectionTestUtils.setField(tokenService, "expiracao", Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("Deve gerar um token com a role, verificável só pela assinatura")
+    void login_ShouldReturnSignedTokenWithRoleClaim() {
+        Authentication autenticado = UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(authenticationProvider.authenticate(any())).thenReturn(autenticado);
+
+        TokenResponseDTO resposta = tokenService.login(new LoginRequestDTO("admin", "admin123"));
+
+        assertEquals("Bearer", resposta.getTipo());
+        assertEquals(900, resposta.getExpiraEmSegundos());
+        Jwt jwt = jwtDecoder.decode(resposta.getToken());
+        assertEquals("admin", jwt.getSubject());
+        assertEquals("ADMIN", jwt.getClaimAsString(TokenService.CLAIM_ROLE));
+        List<String> authorities = securityConfig.jwtAuthenticationConverter().convert(jwt).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).toList();
+        assertEquals(List.of("ROLE_ADMIN"), authorities);
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha de autenticação sem gerar token")
+    void login_ShouldThrow_WhenCredentialsAreInvalid() {
+        when(authenticationProvider.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.login(new LoginRequestDTO("admin", "errada")));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token assinado com outra chave ou com o conteúdo alterado")
+    void decode_ShouldRejectForeignOrTamperedToken() {
+        Authentication autenticado = UsernamePasswordAuthenticationToken.authenticated("user", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = tokenService.gerarToken(autenticado);
+
+        JwtDecoder outraInstancia = securityConfig.jwtDecoder(securityConfig.chaveToken(""));
+        assertThrows(JwtException.class, () -> outraInstancia.decode(token));
+
+        String[] partes = token.split("\\.");
+        String payloadAdmin = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(partes[1]), StandardCharsets.UTF_8).replace("\"USER\"", "\"ADMIN\"").getBytes(StandardCharsets.UTF_8));
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(partes[0] + "." + payloadAdmin + "." + partes[2]));
+    }
+}
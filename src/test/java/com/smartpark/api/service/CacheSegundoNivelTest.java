@@ -0,0 +1,161 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartpark.api.dto.UsuarioRequestDTO;
+import com.smartpark.api.entity.Usuario;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.repository.EstacionamentoRepository;
+import com.smartpark.api.repository.UsuarioRepository;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.repository.VeiculoRepository;
+import com.smartpark.api.security.UserDetailsServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) do cache de segundo nível: leituras repetidas por ID e por username
+ * não executam SQL, e alterações (pela entidade ou pelo UPDATE condicional da alocação) nunca deixam dado velho no cache.
+ * O UPDATE condicional descarta só a vaga que ocupou.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private VagaService vagaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EstacionamentoRepository estacionamentoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        veiculoRepository.deleteAll();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        estatisticas.setStatisticsEnabled(false);
+        vagaRepository.deleteAll();
+        veiculoRepository.deleteAll();
+        vagaService.carregarVagasLivres();
+    }
+
+    @Test
+    @DisplayName("Deve ler a vaga por ID do cache, sem SQL, a partir da segunda leitura")
+    void buscarPorId_ShouldHitCacheWithoutStatements() {
+        Long vagaId = vagaRepository.save(new Vaga(null, "C1", StatusVaga.LIVRE)).getId();
+        vagaService.buscarVagaPorId(vagaId);
+        estatisticas.clear();
+
+        assertEquals("C1", vagaService.buscarVagaPorId(vagaId).getNumero());
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertEquals(1, estatisticas.getDomainDataRegionStatistics("vagas").getHitCount());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a vaga alterada, e não a versão em cache, depois de atualizá-la")
+    void atualizarVaga_ShouldUpdateCachedEntry() {
+        Long vagaId = vagaRepository.save(new Vaga(null, "C2", StatusVaga.LIVRE)).getId();
+        vagaService.buscarVagaPorId(vagaId);
+
+        vagaService.atualizarVaga(vagaId, new Vaga(null, "C2B", StatusVaga.LIVRE));
+
+        assertEquals("C2B", vagaService.buscarVagaPorId(vagaId).getNumero());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a vaga em cache quando o UPDATE condicional da alocação muda o status")
+    void alterarStatusSeIgual_ShouldEvictCachedVagas() {
+        Long vagaId = vagaRepository.save(new Vaga(null, "C3", StatusVaga.LIVRE)).getId();
+        assertEquals(StatusVaga.LIVRE, vagaService.buscarVagaPorId(vagaId).getStatus());
+
+        transactionTemplate.executeWithoutResult(status -> vagaRepository.alterarStatusSeIgual(vagaId, StatusVaga.LIVRE, StatusVaga.OCUPADA));
+
+        assertEquals(StatusVaga.OCUPADA, vagaService.buscarVagaPorId(vagaId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve manter as outras vagas e a busca por número no cache quando o UPDATE condicional ocupa uma vaga")
+    void alterarStatusSeIgual_ShouldKeepOtherCachedVagas() {
+        Long ocupadaId = vagaRepository.save(new Vaga(null, "C4", StatusVaga.LIVRE)).getId();
+        Long outraId = vagaRepository.save(new Vaga(null, "C5", StatusVaga.LIVRE)).getId();
+        vagaService.buscarVagaPorId(outraId);
+        vagaRepository.findByNumero("C5");
+
+        transactionTemplate.executeWithoutResult(status -> vagaRepository.alterarStatusSeIgual(ocupadaId, StatusVaga.LIVRE, StatusVaga.OCUPADA));
+        estatisticas.clear();
+
+        assertTrue(entityManagerFactory.getCache().contains(Vaga.class, outraId));
+        assertFalse(entityManagerFactory.getCache().contains(Vaga.class, ocupadaId));
+        assertEquals(outraId, vagaRepository.findByNumero("C5").orElseThrow().getId());
+        assertEquals(1, estatisticas.getQueryCacheHitCount());
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deve buscar o usuário pelo username no cache de consultas e refletir alterações na role")
+    void loadUserByUsername_ShouldUseQueryCacheAndSeeUpdates() {
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "cache.user", "senha-criptografada", "USER"));
+        try {
+            userDetailsService.loadUserByUsername("cache.user");
+            estatisticas.clear();
+
+            userDetailsService.loadUserByUsername("cache.user");
+            assertEquals(0, estatisticas.getPrepareStatementCount());
+            assertEquals(1, estatisticas.getQueryCacheHitCount());
+
+            usuarioService.atualizarUsuario(usuario.getId(), new UsuarioRequestDTO("cache.user", null, "ADMIN"));
+
+            UserDetails atualizado = userDetailsService.loadUserByUsername("cache.user");
+            assertTrue(atualizado.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        } finally {
+            usuarioRepository.deleteById(usuario.getId());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartpark.api.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cópia da tarifação original de EstacionamentoService (BigDecimal, laço por hora e recursão por dia).
+ * Mantida apenas como referência para o teste de equivalência e para o benchmark da TabelaTarifaria.
+ */
+public final class CalculoTarifaLegado {
+
+    private static final BigDecimal TARIFA_PRIMEIRA_HORA = new BigDecimal("5.00");
+    private static final BigDecimal TARIFA_HORA_ADICIONAL = new BigDecimal("2.00");
+    private static final BigDecimal TARIFA_DIARIA = new BigDecimal("25.00");
+
+    private CalculoTarifaLegado() {
+    }
+
+    public static BigDecimal calcularValor(LocalDateTime entrada, LocalDateTime saida) {
+        if (entrada == null || saida == null || saida.isBefore(entrada)) {
+            throw new IllegalArgumentException("Datas de entrada e saída inválidas para cálculo.");
+        }
+
+        Duration duracao = Duration.between(entrada, saida);
+        long minutos = duracao.toMinutes();
+
+        if (minutos <= 15) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal valorTotal = BigDecimal.ZERO;
+
+        double horasCompletas = Math.floor(minutos / 60.0);
+        double fracaoDeHora = (minutos % 60) / 60.0;
+
+        if (horasCompletas == 0 && minutos > 0) {
+            valorTotal = TARIFA_PRIMEIRA_HORA;
+        } else if (horasCompletas > 0) {
+            valorTotal = TARIFA_PRIMEIRA_HORA;
+            for (int i = 0; i < horasCompletas - 1; i++) {
+                valorTotal = valorTotal.add(TARIFA_HORA_ADICIONAL);
+            }
+            if (fracaoDeHora > 0) {
+                valorTotal = valorTotal.add(TARIFA_HORA_ADICIONAL);
+            }
+        }
+
+        if (duracao.toHours() >= 10 && duracao.toDays() < 1) {
+            valorTotal = TARIFA_DIARIA;
+        } else if (duracao.toDays() >= 1) {
+            long diasCompletos = duracao.toDays();
+            valorTotal = TARIFA_DIARIA.multiply(new BigDecimal(diasCompletos));
+            Duration restoDoDia = duracao.minusDays(diasCompletos);
+            if (restoDoDia.toMinutes() > 0) {
+                valorTotal = valorTotal.add(calcularValor(entrada.plusDays(diasCompletos), saida));
+            }
+        }
+
+        return valorTotal.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,168 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.enums.StatusEstacionamento;
+import com.smartpark.api.enums.TipoMovimentacao;
+import com.smartpark.api.event.MovimentacaoEstacionamentoEvent;
+import com.smartpark.api.event.OcupacaoAlteradaEvent;
+
+class DifusorEventosTest {
+
+    private DifusorEventos difusorEventos;
+    private ContadorOcupacao contadorOcupacao;
+
+    @BeforeEach
+    void setUp() {
+        contadorOcupacao = new ContadorOcupacao();
+        contadorOcupacao.reconciliar(10, 0);
+        difusorEventos = new DifusorEventos();
+        ReflectionTestUtils.setField(difusorEventos, "contadorOcupacao", contadorOcupacao);
+        ReflectionTestUtils.setField(difusorEventos, "capacidadePorAssinante", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        difusorEventos.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve enviar a ocupação atual ao assinar e depois as entradas e saídas em ordem")
+    void assinar_ShouldSendSnapshotAndThenMovements() throws InterruptedException {
+        EmitterDeTeste cliente = new EmitterDeTeste(null);
+        difusorEventos.assinar(cliente);
+        cliente.aguardarNomes(List.of(DifusorEventos.EVENTO_OCUPACAO));
+
+        difusorEventos.aoMovimentar(movimentacao(TipoMovimentacao.ENTRADA, 1L));
+        difusorEventos.aoMovimentar(movimentacao(TipoMovimentacao.SAIDA, 1L));
+
+        cliente.aguardarNomes(List.of(DifusorEventos.EVENTO_OCUPACAO, "entrada", "saida"));
+        assertEquals(new OcupacaoDTO(10, 0, 10, false), cliente.dados.get(0));
+    }
+
+    @Test
+    @DisplayName("Deve agrupar as atualizações de ocupação e descartar a fila de um cliente lento sem afetar os outros")
+    void clienteLento_ShouldBeCoalescedWithoutBlockingOthers() throws InterruptedException {
+        CountDownLatch liberarClienteLento = new CountDownLatch(1);
+        EmitterDeTeste lento = new EmitterDeTeste(liberarClienteLento);
+        EmitterDeTeste rapido = new EmitterDeTeste(null);
+        difusorEventos.assinar(lento); // Fica preso no envio do primeiro snapshot
+        difusorEventos.assinar(rapido);
+        assertTrue(lento.primeiroEnvio.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 10; i++) {
+            difusorEventos.aoAlterarOcupacao(new OcupacaoAlteradaEvent(new OcupacaoDTO(10, i, 10 - i, i == 10)));
+            difusorEventos.aoMovimentar(movimentacao(TipoMovimentacao.ENTRADA, (long) i));
+            rapido.aguardarEntradas(i); // O cliente rápido recebe tudo enquanto o lento continua preso
+        }
+        assertTrue(rapido.nomes.stream().noneMatch(DifusorEventos.EVENTO_DESCARTADOS::equals));
+
+        liberarClienteLento.countDown();
+        lento.aguardarNomes(List.of(DifusorEventos.EVENTO_OCUPACAO, DifusorEventos.EVENTO_DESCARTADOS,
+                "entrada", "entrada", "entrada", "entrada", DifusorEventos.EVENTO_OCUPACAO));
+        assertEquals(Map.of("quantidade", 6), lento.dados.get(1)); // Capacidade 4: as 6 primeiras entradas foram descartadas
+        assertEquals(new OcupacaoDTO(10, 10, 0, true), lento.dados.get(6)); // Só o snapshot mais recente
+    }
+
+    @Test
+    @DisplayName("Deve remover o assinante quando o envio falhar")
+    void envioComFalha_ShouldRemoveSubscriber() throws InterruptedException {
+        SseEmitter desconectado = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        difusorEventos.assinar(desconectado);
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (difusorEventos.quantidadeAssinantes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, difusorEventos.quantidadeAssinantes());
+    }
+
+    private static MovimentacaoEstacionamentoEvent movimentacao(TipoMovimentacao tipo, Long id) {
+        return new MovimentacaoEstacionamentoEvent(tipo, new EstacionamentoResponseDTO(id, "ABC1234", "A01",
+                LocalDateTime.now(), null, null, StatusEstacionamento.ATIVO));
+    }
+
+    // Guarda os eventos enviados; opcionalmente bloqueia no primeiro envio para simular um cliente lento
+    private static class EmitterDeTeste extends SseEmitter {
+        private final List<String> nomes = new CopyOnWriteArrayList<>();
+        private final List<Object> dados = new CopyOnWriteArrayList<>();
+        private final CountDownLatch bloqueio;
+        private final CountDownLatch primeiroEnvio = new CountDownLatch(1);
+
+        EmitterDeTeste(CountDownLatch bloqueio) {
+            this.bloqueio = bloqueio;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            primeiroEnvio.countDown();
+            try {
+                if (bloqueio != null) {
+                    bloqueio.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            String nome = null;
+            Object dado = null;
+            for (DataWithMediaType parte : builder.build()) {
+                if (parte.getData() instanceof String texto) {
+                    if (texto.startsWith("event:")) {
+                        nome = texto.substring("event:".length(), texto.indexOf('\n'));
+                    }
+                } else {
+                    dado = parte.getData();
+                }
+            }
+            if (nome != null) { // Ignora o heartbeat (comentário SSE)
+                dados.add(dado);
+                nomes.add(nome);
+            }
+        }
+
+        void aguardarNomes(List<String> esperados) throws InterruptedException {
+            aguardarQuantidade(esperados.size());
+            assertEquals(esperados, nomes);
+        }
+
+        void aguardarEntradas(long quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (nomes.stream().filter("entrada"::equals).count() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(1);
+            }
+            assertEquals(quantidade, nomes.stream().filter("entrada"::equals).count());
+        }
+
+        void aguardarQuantidade(int quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (nomes.size() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertTrue(nomes.size() >= quantidade, "Eventos recebidos: " + nomes);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.smartpark.api.controller.EstacionamentoController;
+import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.FiltroHistoricoDTO;
+import com.smartpark.api.entity.Estacionamento;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.entity.Veiculo;
+import com.smartpark.api.enums.StatusEstacionamento;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.exception.RecursoNaoEncontradoException;
+import com.smartpark.api.repository.EstacionamentoRepository;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.repository.VeiculoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) da quantidade de comandos SQL das consultas de estacionamentos,
+ * contada pelas estatísticas do Hibernate. Uma regressão N+1 (ex: veículo/vaga carregados linha a linha) faz o
+ * teste falhar, porque a contagem deixa de ser constante em relação ao número de registros.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EstacionamentoConsultasTest {
+
+    private static final int ATIVOS = 10;
+    private static final int FINALIZADOS = 20;
+
+    @Autowired
+    private EstacionamentoService estacionamentoService;
+
+    @Autowired
+    private EstacionamentoRepository estacionamentoRepository;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private IndiceEstacionamentosAtivos indiceEstacionamentosAtivos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EstacionamentoController estacionamentoController;
+
+    private Statistics estatisticas;
+    private LocalDateTime entrada;
+    private List<Long> ids;
+    private Long primeiroId;
+
+    @BeforeEach
+    void setUp() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        veiculoRepository.deleteAll();
+
+        // Cada registro com veículo e vaga próprios: nada fica reaproveitado no contexto de persistência
+        entrada = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS); // Gravado sem perder precisão: filtros exatos
+        List<Estacionamento> registros = new ArrayList<>();
+        for (int i = 0; i < ATIVOS + FINALIZADOS; i++) {
+            boolean ativo = i < ATIVOS;
+            Veiculo veiculo = veiculoRepository.save(new Veiculo(null, String.format("NPU%04d", i), "Fiat", "Argo", "Prata", TipoVeiculo.CARRO));
+            Vaga vaga = vagaRepository.save(new Vaga(null, "N" + i, ativo ? StatusVaga.OCUPADA : StatusVaga.LIVRE));
+            registros.add(new Estacionamento(null, veiculo, vaga, entrada.plusMinutes(i),
+                    ativo ? null : entrada.plusMinutes(i + 60), ativo ? null : new BigDecimal("5.00"),
+                    ativo ? StatusEstacionamento.ATIVO : StatusEstacionamento.FINALIZADO));
+        }
+        ids = estacionamentoRepository.saveAll(registros).stream().map(Estacionamento::getId).toList();
+        primeiroId = ids.get(0);
+        estacionamentoService.carregarEstacionamentosAtivos();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        estatisticas.setStatisticsEnabled(false);
+        estacionamentoRepository.deleteAll();
+        indiceEstacionamentosAtivos.carregar(Map.of());
+    }
+
+    @Test
+    @DisplayName("Deve listar os estacionamentos ativos com um único comando SQL")
+    void listarEstacionamentosAtivos_ShouldUseSingleStatement() {
+        assertEquals(ATIVOS, estacionamentoService.listarEstacionamentosAtivos().size());
+
+        assertComandos(1);
+    }
+
+    @Test
+    @DisplayName("Deve listar uma página do histórico com um único comando SQL, com e sem filtros")
+    void listarHistoricoEstacionamentos_ShouldUseSingleStatement() {
+        assertEquals(ATIVOS + FINALIZADOS, estacionamentoService.listarHistoricoEstacionamentos(new FiltroHistoricoDTO(), null, null).getItens().size());
+        assertComandos(1);
+
+        estatisticas.clear();
+        assertEquals(1, estacionamentoService.listarHistoricoEstacionamentos(new FiltroHistoricoDTO("NPU0003", null, null), null, null).getItens().size());
+        assertComandos(1);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar só os filtros informados do histórico, combinando cursor, placa e período")
+    void findHistorico_ShouldCombineOnlyGivenFilters() {
+        LocalDateTime de = entrada.plusMinutes(5);
+        LocalDateTime ate = entrada.plusMinutes(10);
+
+        assertEquals(ids.subList(5, 10), idsDoHistorico(null, null, de, ate));
+        assertEquals(ids.subList(8, 10), idsDoHistorico(ids.get(7), null, de, ate));
+        assertEquals(ids.subList(20, 30), idsDoHistorico(null, null, entrada.plusMinutes(20), null));
+        assertEquals(List.of(ids.get(3)), idsDoHistorico(null, "NPU0003", null, ate));
+        assertEquals(List.of(), idsDoHistorico(ids.get(3), "NPU0003", null, null));
+        assertEquals(List.of(), idsDoHistorico(null, "NPU0003", de, null));
+    }
+
+    @Test
+    @DisplayName("Deve exportar o histórico com um único comando SQL")
+    void percorrerHistoricoEstacionamentos_ShouldUseSingleStatement() {
+        List<Long> ids = new ArrayList<>();
+        estacionamentoService.percorrerHistoricoEstacionamentos(new FiltroHistoricoDTO(), registro -> ids.add(registro.getId()));
+
+        assertEquals(ATIVOS + FINALIZADOS, ids.size());
+        assertComandos(1);
+    }
+
+    @Test
+    @DisplayName("Deve buscar um estacionamento por ID com um único comando SQL")
+    void buscarEstacionamentoPorId_ShouldUseSingleStatement() {
+        assertEquals("NPU0000", estacionamentoService.buscarEstacionamentoPorId(primeiroId).getPlacaVeiculo());
+
+        assertComandos(1);
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 ao finalizado já em cache com um único comando SQL, e 404 a um ID inexistente")
+    void buscarEstacionamentoPorId_ShouldCheckExistenceBeforeNotModified() {
+        Long finalizadoId = estacionamentoRepository.findAll().stream()
+                .filter(e -> e.getStatus() == StatusEstacionamento.FINALIZADO).findFirst().orElseThrow().getId();
+        Long inexistenteId = finalizadoId + 1_000_000;
+        estatisticas.clear();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, estacionamentoController.buscarEstacionamentoPorId(finalizadoId,
+                "\"estacionamento-" + finalizadoId + "-FINALIZADO\"").getStatusCode());
+        assertComandos(1);
+        assertTrue(estacionamentoService.estaFinalizado(finalizadoId));
+        assertFalse(estacionamentoService.estaFinalizado(primeiroId)); // Ativo
+        assertThrows(RecursoNaoEncontradoException.class, () -> estacionamentoController.buscarEstacionamentoPorId(inexistenteId,
+                "\"estacionamento-" + inexistenteId + "-FINALIZADO\""));
+    }
+
+    @Test
+    @DisplayName("Deve registrar a saída lendo registro, veículo e vaga em um único SELECT")
+    void registrarSaida_ShouldLoadAssociationsInSameSelect() {
+        assertEquals(StatusEstacionamento.FINALIZADO, estacionamentoService.registrarSaida("NPU0001").getStatus());
+
+        // SELECT com join fetch + UPDATE da vaga + UPDATE do estacionamento
+        assertComandos(3);
+    }
+
+    private List<Long> idsDoHistorico(Long cursor, String placa, LocalDateTime de, LocalDateTime ate) {
+        return estacionamentoRepository.findHistorico(cursor, placa, de, ate, Limit.of(ATIVOS + FINALIZADOS)).stream()
+                .map(EstacionamentoResponseDTO::getId).toList();
+    }
+
+    private void assertComandos(long esperados) {
+        assertEquals(esperados, estatisticas.getPrepareStatementCount(), "comandos SQL preparados");
+        assertEquals(0, estatisticas.getEntityFetchCount(), "entidades carregadas uma a uma (N+1)");
+        assertEquals(0, estatisticas.getCollectionFetchCount(), "coleções carregadas uma a uma (N+1)");
+    }
+}
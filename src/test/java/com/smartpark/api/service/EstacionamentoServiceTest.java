@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -13,11 +14,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,21 +33,40 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.smartpark.api.dto.EstacionamentoResponseDTO;
+import com.smartpark.api.dto.EventoPortaoDTO;
+import com.smartpark.api.dto.FiltroHistoricoDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.ResultadoLoteDTO;
 import com.smartpark.api.dto.VeiculoEntradaDTO;
 import com.smartpark.api.entity.Estacionamento;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.entity.Veiculo;
 import com.smartpark.api.enums.StatusEstacionamento;
 import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.enums.TipoMovimentacao;
 import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.event.MovimentacaoEstacionamentoEvent;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.exception.VagaIndisponivelException;
 import com.smartpark.api.exception.VeiculoJaEstacionadoException;
 import com.smartpark.api.repository.EstacionamentoRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+
 @ExtendWith(MockitoExtension.class)
 class EstacionamentoServiceTest {
 
@@ -49,6 +76,21 @@ class EstacionamentoServiceTest {
     private VeiculoService veiculoService;
     @Mock
     private VagaService vagaService;
+    @Spy
+    private TarifaService tarifaService = new TarifaService(); // Regras padrão de TarifaProperties
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy // Índice real em memória; sem transação ativa as alterações valem na hora
+    private IndiceEstacionamentosAtivos indiceEstacionamentosAtivos = new IndiceEstacionamentosAtivos();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy // Timers reais, num registro em memória
+    private MetricasEstacionamento metricasEstacionamento = new MetricasEstacionamento(meterRegistry);
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Validator validator;
 
     @InjectMocks
     private EstacionamentoService estacionamentoService;
@@ -60,6 +102,9 @@ class EstacionamentoServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Bean Clock da aplicação (RelogioConfig); o teste de saída troca por um relógio fixo
+        ReflectionTestUtils.setField(estacionamentoService, "relogio", Clock.systemDefaultZone());
+
         // Inicializa Veiculo
         veiculo = new Veiculo(1L, "ABC1234", "Fiat", "Palio", "Prata", TipoVeiculo.CARRO);
 
@@ -77,17 +122,12 @@ class EstacionamentoServiceTest {
     @Test
     @DisplayName("Deve registrar a entrada de um veículo com sucesso")
     void registrarEntrada_ShouldRegisterEntrySuccessfully() {
-        // Cenário
-        when(estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO))
-                .thenReturn(Optional.empty()); // Veículo não está estacionado
-        when(vagaService.encontrarProximaVagaLivre()).thenReturn(vaga); // Encontra vaga livre
-        
-        // Simula o comportamento do vagaService.ocuparVaga
-        doAnswer(invocation -> {
-            Vaga vagaToBeOccupied = invocation.getArgument(0);
-            vagaToBeOccupied.setStatus(StatusVaga.OCUPADA);
-            return vagaToBeOccupied;
-        }).when(vagaService).ocuparVaga(any(Vaga.class));
+        // Cenário: veículo não está estacionado (placa fora do índice)
+        // Simula o comportamento do vagaService.ocuparProximaVagaLivre (encontra e ocupa a vaga)
+        when(vagaService.ocuparProximaVagaLivre()).thenAnswer(invocation -> {
+            vaga.setStatus(StatusVaga.OCUPADA);
+            return vaga;
+        });
 
         when(veiculoService.buscarOuCriarVeiculo(veiculoEntradaDTO)).thenReturn(veiculo); // Busca/Cria veículo
         when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
@@ -109,20 +149,23 @@ class EstacionamentoServiceTest {
         assertNull(result.getDataHoraSaida());
         assertNull(result.getValorCobrado());
         assertEquals(StatusVaga.OCUPADA, vaga.getStatus()); // Verifica se o status da vaga foi alterado para OCUPADA
+        assertEquals(Optional.of(1L), indiceEstacionamentosAtivos.buscar(veiculoEntradaDTO.getPlaca()));
 
-        verify(estacionamentoRepository, times(1)).findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO);
-        verify(vagaService, times(1)).encontrarProximaVagaLivre();
-        verify(vagaService, times(1)).ocuparVaga(vaga);
+        verify(estacionamentoRepository, never()).findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO); // Respondido pelo índice
+        verify(vagaService, times(1)).ocuparProximaVagaLivre();
         verify(veiculoService, times(1)).buscarOuCriarVeiculo(veiculoEntradaDTO);
         verify(estacionamentoRepository, times(1)).save(any(Estacionamento.class));
+        verify(eventPublisher, times(1)).publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.ENTRADA, result));
+        assertEquals(1, medicoes("smartpark.portao.entrada", "resultado", "sucesso"));
     }
 
     @Test
     @DisplayName("Deve lançar VeiculoJaEstacionadoException se o veículo já estiver estacionado")
     void registrarEntrada_ShouldThrowVeiculoJaEstacionadoException_WhenVeiculoAlreadyParked() {
         // Cenário
+        indiceEstacionamentosAtivos.registrarEntrada(veiculoEntradaDTO.getPlaca(), estacionamentoAtivo.getId());
         when(estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO))
-                .thenReturn(Optional.of(estacionamentoAtivo)); // Veículo já estacionado
+                .thenReturn(Optional.of(estacionamentoAtivo)); // Confirmado no banco
 
         // Ação & Verificação
         VeiculoJaEstacionadoException exception = assertThrows(VeiculoJaEstacionadoException.class,
@@ -130,25 +173,63 @@ class EstacionamentoServiceTest {
 
         assertTrue(exception.getMessage().contains("já está estacionado"));
         verify(estacionamentoRepository, times(1)).findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO);
-        verify(vagaService, never()).encontrarProximaVagaLivre(); // Não deve tentar encontrar vaga
+        verify(vagaService, never()).ocuparProximaVagaLivre(); // Não deve tentar encontrar vaga
+        assertEquals(1, medicoes("smartpark.portao.entrada", "resultado", "veiculo_ja_estacionado"));
+        assertEquals(0, medicoes("smartpark.portao.entrada", "resultado", "sucesso"));
     }
 
     @Test
     @DisplayName("Deve lançar VagaIndisponivelException se não houver vagas livres")
     void registrarEntrada_ShouldThrowVagaIndisponivelException_WhenNoVagasLivres() {
         // Cenário
-        when(estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO))
-                .thenReturn(Optional.empty());
-        when(vagaService.encontrarProximaVagaLivre()).thenThrow(new VagaIndisponivelException("Não há vagas livres disponíveis no momento."));
+        when(vagaService.ocuparProximaVagaLivre()).thenThrow(new VagaIndisponivelException("Não há vagas livres disponíveis no momento."));
 
         // Ação & Verificação
         VagaIndisponivelException exception = assertThrows(VagaIndisponivelException.class,
                 () -> estacionamentoService.registrarEntrada(veiculoEntradaDTO));
 
         assertTrue(exception.getMessage().contains("Não há vagas livres"));
-        verify(estacionamentoRepository, times(1)).findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO);
-        verify(vagaService, times(1)).encontrarProximaVagaLivre();
+        verify(vagaService, times(1)).ocuparProximaVagaLivre();
         verify(estacionamentoRepository, never()).save(any(Estacionamento.class)); // Não deve salvar
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertEquals(1, medicoes("smartpark.portao.entrada", "resultado", "sem_vaga"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada obsoleta do índice e registrar a entrada se o banco não tiver estacionamento ativo")
+    void registrarEntrada_ShouldDiscardStaleIndexEntry() {
+        indiceEstacionamentosAtivos.registrarEntrada(veiculoEntradaDTO.getPlaca(), 99L);
+        when(estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculoEntradaDTO.getPlaca(), StatusEstacionamento.ATIVO))
+                .thenReturn(Optional.empty());
+        when(vagaService.ocuparProximaVagaLivre()).thenReturn(vaga);
+        when(veiculoService.buscarOuCriarVeiculo(veiculoEntradaDTO)).thenReturn(veiculo);
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
+            Estacionamento est = invocation.getArgument(0);
+            est.setId(1L);
+            return est;
+        });
+
+        estacionamentoService.registrarEntrada(veiculoEntradaDTO);
+
+        assertEquals(Optional.of(1L), indiceEstacionamentosAtivos.buscar(veiculoEntradaDTO.getPlaca()));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a entrada se outra entrada da mesma placa for registrada no índice durante a transação")
+    void registrarEntrada_ShouldThrow_WhenConcurrentEntryWinsIndex() {
+        when(vagaService.ocuparProximaVagaLivre()).thenReturn(vaga);
+        when(veiculoService.buscarOuCriarVeiculo(veiculoEntradaDTO)).thenAnswer(invocation -> {
+            indiceEstacionamentosAtivos.registrarEntrada(veiculoEntradaDTO.getPlaca(), 50L); // Entrada concorrente
+            return veiculo;
+        });
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
+            Estacionamento est = invocation.getArgument(0);
+            est.setId(1L);
+            return est;
+        });
+
+        assertThrows(VeiculoJaEstacionadoException.class, () -> estacionamentoService.registrarEntrada(veiculoEntradaDTO));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     // --- Testes para registrarSaida ---
@@ -173,6 +254,8 @@ class EstacionamentoServiceTest {
         }).when(vagaService).liberarVaga(any(Vaga.class)); 
 
 
+        indiceEstacionamentosAtivos.registrarEntrada(veiculo.getPlaca(), estacionamentoAtivo.getId());
+
         // Ação
         EstacionamentoResponseDTO result = estacionamentoService.registrarSaida(veiculo.getPlaca());
 
@@ -181,11 +264,15 @@ class EstacionamentoServiceTest {
         assertEquals(StatusEstacionamento.FINALIZADO, result.getStatus());
         assertNotNull(result.getDataHoraSaida());
         assertEquals(new BigDecimal("5.00"), result.getValorCobrado()); // Tarifa da primeira hora
+        assertTrue(indiceEstacionamentosAtivos.buscar(veiculo.getPlaca()).isEmpty());
 
         verify(estacionamentoRepository, times(1)).findByVeiculoPlacaAndStatus(veiculo.getPlaca(), StatusEstacionamento.ATIVO);
         verify(estacionamentoRepository, times(1)).save(estacionamentoAtivo);
         verify(vagaService, times(1)).liberarVaga(estacionamentoAtivo.getVaga()); // Verify with the exact vaga passed
         assertEquals(StatusVaga.LIVRE, vaga.getStatus()); // Agora, esta verificação deve passar
+        verify(eventPublisher, times(1)).publishEvent(new MovimentacaoEstacionamentoEvent(TipoMovimentacao.SAIDA, result));
+        assertEquals(1, medicoes("smartpark.portao.saida", "resultado", "sucesso"));
+        assertEquals(1, medicoes("smartpark.tarifa.calculo", "tipo_veiculo", "CARRO"));
     }
 
     @Test
@@ -303,6 +390,24 @@ class EstacionamentoServiceTest {
         assertEquals(StatusVaga.LIVRE, vaga.getStatus());
     }
 
+    @Test
+    @DisplayName("Deve usar o relógio injetado na data de saída e no cálculo do valor")
+    void registrarSaida_ShouldUseInjectedClock() {
+        // Cenário: relógio parado em 10:00; entrada às 08:20 (1h40 = primeira hora + 1 hora adicional)
+        LocalDateTime agora = LocalDateTime.of(2025, 3, 14, 10, 0);
+        ReflectionTestUtils.setField(estacionamentoService, "relogio", Clock.fixed(agora.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        estacionamentoAtivo.setDataHoraEntrada(LocalDateTime.of(2025, 3, 14, 8, 20));
+        when(estacionamentoRepository.findByVeiculoPlacaAndStatus(veiculo.getPlaca(), StatusEstacionamento.ATIVO))
+                .thenReturn(Optional.of(estacionamentoAtivo));
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vagaService.liberarVaga(any(Vaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EstacionamentoResponseDTO result = estacionamentoService.registrarSaida(veiculo.getPlaca());
+
+        assertEquals(agora, result.getDataHoraSaida());
+        assertEquals(new BigDecimal("7.00"), result.getValorCobrado());
+    }
+
 
     @Test
     @DisplayName("Deve lançar RecursoNaoEncontradoException se o veículo não estiver no estacionamento")
@@ -325,10 +430,9 @@ class EstacionamentoServiceTest {
     @Test
     @DisplayName("Deve retornar uma lista de Estacionamentos Ativos")
     void listarEstacionamentosAtivos_ShouldReturnListOfActiveEstacionamentos() {
-        Estacionamento estacionamentoFinalizado = new Estacionamento(11L, veiculo, vaga, LocalDateTime.now().minusHours(3), LocalDateTime.now().minusHours(2), new BigDecimal("5.00"), StatusEstacionamento.FINALIZADO);
-        List<Estacionamento> allEstacionamentos = Arrays.asList(estacionamentoAtivo, estacionamentoFinalizado);
-
-        when(estacionamentoRepository.findAll()).thenReturn(allEstacionamentos);
+        // O filtro por status e a projeção no DTO são feitos no banco: o repositório já devolve apenas os ativos
+        when(estacionamentoRepository.listarResumosPorStatus(StatusEstacionamento.ATIVO))
+                .thenReturn(Collections.singletonList(resumo(estacionamentoAtivo)));
 
         List<EstacionamentoResponseDTO> result = estacionamentoService.listarEstacionamentosAtivos();
 
@@ -336,73 +440,274 @@ class EstacionamentoServiceTest {
         assertEquals(1, result.size());
         assertEquals(estacionamentoAtivo.getVeiculo().getPlaca(), result.get(0).getPlacaVeiculo());
         assertEquals(StatusEstacionamento.ATIVO, result.get(0).getStatus());
-        verify(estacionamentoRepository, times(1)).findAll();
+        verify(estacionamentoRepository, times(1)).listarResumosPorStatus(StatusEstacionamento.ATIVO);
+        verify(estacionamentoRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Deve retornar uma lista vazia se não houver Estacionamentos Ativos")
     void listarEstacionamentosAtivos_ShouldReturnEmptyList_WhenNoActiveEstacionamentos() {
-        Estacionamento estacionamentoFinalizado = new Estacionamento(11L, veiculo, vaga, LocalDateTime.now().minusHours(3), LocalDateTime.now().minusHours(2), new BigDecimal("5.00"), StatusEstacionamento.FINALIZADO);
-        when(estacionamentoRepository.findAll()).thenReturn(Collections.singletonList(estacionamentoFinalizado));
+        when(estacionamentoRepository.listarResumosPorStatus(StatusEstacionamento.ATIVO)).thenReturn(Collections.emptyList());
 
         List<EstacionamentoResponseDTO> result = estacionamentoService.listarEstacionamentosAtivos();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(estacionamentoRepository, times(1)).findAll();
+        verify(estacionamentoRepository, times(1)).listarResumosPorStatus(StatusEstacionamento.ATIVO);
     }
 
     // --- Testes para listarHistoricoEstacionamentos ---
     @Test
-    @DisplayName("Deve retornar uma lista de todos os Estacionamentos (histórico)")
-    void listarHistoricoEstacionamentos_ShouldReturnListOfAllEstacionamentos() {
+    @DisplayName("Deve retornar a última página do histórico sem cursor para a próxima")
+    void listarHistoricoEstacionamentos_ShouldReturnLastPage_WithoutNextCursor() {
         Estacionamento estacionamentoFinalizado = new Estacionamento(11L, veiculo, vaga, LocalDateTime.now().minusHours(3), LocalDateTime.now().minusHours(2), new BigDecimal("5.00"), StatusEstacionamento.FINALIZADO);
-        List<Estacionamento> allEstacionamentos = Arrays.asList(estacionamentoAtivo, estacionamentoFinalizado);
+        List<EstacionamentoResponseDTO> allEstacionamentos = Arrays.asList(resumo(estacionamentoAtivo), resumo(estacionamentoFinalizado));
+        FiltroHistoricoDTO filtro = new FiltroHistoricoDTO();
 
-        when(estacionamentoRepository.findAll()).thenReturn(allEstacionamentos);
+        when(estacionamentoRepository.findHistorico(null, null, null, null, Limit.of(51))).thenReturn(allEstacionamentos);
 
-        List<EstacionamentoResponseDTO> result = estacionamentoService.listarHistoricoEstacionamentos();
+        PaginaCursorDTO<EstacionamentoResponseDTO> result = estacionamentoService.listarHistoricoEstacionamentos(filtro, null, null);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(estacionamentoRepository, times(1)).findAll();
+        assertEquals(2, result.getItens().size());
+        assertNull(result.getProximoCursor());
+        verify(estacionamentoRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve devolver o cursor da próxima página quando houver mais registros que o limite")
+    void listarHistoricoEstacionamentos_ShouldReturnNextCursor_WhenMoreRecordsExist() {
+        Estacionamento estacionamentoFinalizado = new Estacionamento(11L, veiculo, vaga, LocalDateTime.now().minusHours(3), LocalDateTime.now().minusHours(2), new BigDecimal("5.00"), StatusEstacionamento.FINALIZADO);
+        LocalDateTime de = LocalDateTime.now().minusDays(1);
+        FiltroHistoricoDTO filtro = new FiltroHistoricoDTO("ABC1234", de, null);
+
+        // Limite 1: o repositório é consultado com 2 para detectar a próxima página
+        when(estacionamentoRepository.findHistorico(5L, "ABC1234", de, null, Limit.of(2)))
+                .thenReturn(Arrays.asList(resumo(estacionamentoAtivo), resumo(estacionamentoFinalizado)));
+
+        PaginaCursorDTO<EstacionamentoResponseDTO> result = estacionamentoService.listarHistoricoEstacionamentos(filtro, 5L, 1);
+
+        assertEquals(1, result.getItens().size());
+        assertEquals(estacionamentoAtivo.getId(), result.getProximoCursor());
     }
 
     @Test
-    @DisplayName("Deve retornar uma lista vazia se não houver histórico de Estacionamentos")
-    void listarHistoricoEstacionamentos_ShouldReturnEmptyList_WhenNoHistory() {
-        when(estacionamentoRepository.findAll()).thenReturn(Collections.emptyList());
+    @DisplayName("Deve retornar uma página vazia se não houver histórico de Estacionamentos")
+    void listarHistoricoEstacionamentos_ShouldReturnEmptyPage_WhenNoHistory() {
+        when(estacionamentoRepository.findHistorico(null, null, null, null, Limit.of(51))).thenReturn(Collections.emptyList());
 
-        List<EstacionamentoResponseDTO> result = estacionamentoService.listarHistoricoEstacionamentos();
+        PaginaCursorDTO<EstacionamentoResponseDTO> result = estacionamentoService.listarHistoricoEstacionamentos(new FiltroHistoricoDTO(), null, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(estacionamentoRepository, times(1)).findAll();
+        assertTrue(result.getItens().isEmpty());
+        assertNull(result.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tamanho da página ao máximo permitido")
+    void listarHistoricoEstacionamentos_ShouldCapPageSize() {
+        when(estacionamentoRepository.findHistorico(null, null, null, null, Limit.of(PaginaCursorDTO.LIMITE_MAXIMO + 1)))
+                .thenReturn(Collections.emptyList());
+
+        estacionamentoService.listarHistoricoEstacionamentos(new FiltroHistoricoDTO(), null, 1_000_000);
+
+        verify(estacionamentoRepository, times(1)).findHistorico(null, null, null, null, Limit.of(PaginaCursorDTO.LIMITE_MAXIMO + 1));
+    }
+
+    @Test
+    @DisplayName("Deve entregar cada registro do histórico ao consumidor e fechar o stream")
+    void percorrerHistoricoEstacionamentos_ShouldConsumeAndCloseStream() {
+        EstacionamentoResponseDTO registro = new EstacionamentoResponseDTO(10L, "ABC1234", "A1", LocalDateTime.now(), null, null, StatusEstacionamento.ATIVO);
+        AtomicBoolean fechado = new AtomicBoolean(false);
+        when(estacionamentoRepository.streamHistorico("ABC1234", null, null))
+                .thenReturn(Stream.of(registro, registro).onClose(() -> fechado.set(true)));
+
+        List<EstacionamentoResponseDTO> recebidos = new ArrayList<>();
+        estacionamentoService.percorrerHistoricoEstacionamentos(new FiltroHistoricoDTO("ABC1234", null, null), recebidos::add);
+
+        assertEquals(2, recebidos.size());
+        assertTrue(fechado.get());
+    }
+
+    // --- Testes para registrarLote ---
+    private void executarTransacoesDiretamente() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    // Como executarTransacoesDiretamente, mas com as sincronizações de transação ativas: se o callback falhar, elas são
+    // avisadas do rollback (o índice em memória desfaz as entradas do bloco)
+    private void executarTransacoesComSincronizacao() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            int status = TransactionSynchronization.STATUS_ROLLED_BACK;
+            try {
+                Object resultado = ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null);
+                status = TransactionSynchronization.STATUS_COMMITTED;
+                return resultado;
+            } finally {
+                for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+                    sincronizacao.afterCompletion(status);
+                }
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Deve processar entradas e saídas do lote em ordem usando o horário do portão")
+    void registrarLote_ShouldProcessEntryAndExitInOrder() {
+        executarTransacoesDiretamente();
+        LocalDateTime entrada = LocalDateTime.of(2025, 1, 10, 8, 0);
+        LocalDateTime saida = entrada.plusMinutes(90);
+        when(veiculoService.buscarVeiculosPorPlaca(anyCollection())).thenReturn(Map.of());
+        when(estacionamentoRepository.findAllByStatusAndPlacaIn(any(), anyCollection())).thenReturn(List.of());
+        when(vagaService.tentarOcuparProximaVagaLivre()).thenReturn(Optional.of(vaga));
+        when(veiculoService.criarVeiculoDaEntrada(veiculoEntradaDTO)).thenReturn(veiculo);
+        AtomicLong ids = new AtomicLong();
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
+            Estacionamento est = invocation.getArgument(0);
+            est.setId(ids.incrementAndGet()); // Simula o ID da sequência, atribuído no persist
+            return est;
+        });
+        when(vagaService.liberarVaga(vaga)).thenReturn(vaga);
+        when(vagaService.ocuparVaga(vaga)).thenReturn(vaga);
+
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(List.of(
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, entrada, veiculoEntradaDTO, null),
+                new EventoPortaoDTO(TipoMovimentacao.SAIDA, saida, null, "ABC1234"),
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, saida.plusMinutes(5), veiculoEntradaDTO, null)));
+
+        assertEquals(3, resultado.getSucessos());
+        assertEquals(0, resultado.getFalhas());
+        EstacionamentoResponseDTO saidaDto = resultado.getResultados().get(1).getEstacionamento();
+        assertEquals(entrada, saidaDto.getDataHoraEntrada());
+        assertEquals(saida, saidaDto.getDataHoraSaida());
+        assertEquals(new BigDecimal("7.00"), saidaDto.getValorCobrado()); // 1h30: R$ 5,00 + R$ 2,00
+        assertEquals(StatusEstacionamento.FINALIZADO, saidaDto.getStatus());
+        assertEquals(Optional.of(2L), indiceEstacionamentosAtivos.buscar("ABC1234")); // Segunda entrada ativa no índice
+        verify(estacionamentoRepository, times(1)).findAllByStatusAndPlacaIn(any(), anyCollection()); // Uma consulta por bloco
+        verify(vagaService, times(1)).liberarVaga(vaga);
+        verify(vagaService, times(1)).tentarOcuparProximaVagaLivre();
+        verify(vagaService, times(1)).ocuparVaga(vaga); // Vaga liberada no próprio bloco reaproveitada na nova entrada
+        verify(entityManager, times(1)).flush();
+        verify(eventPublisher, times(3)).publishEvent(any(MovimentacaoEstacionamentoEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha só nos eventos inválidos do lote")
+    void registrarLote_ShouldReportPerItemFailures() {
+        executarTransacoesDiretamente();
+        when(veiculoService.buscarVeiculosPorPlaca(anyCollection())).thenReturn(Map.of("ABC1234", veiculo));
+        when(estacionamentoRepository.findAllByStatusAndPlacaIn(any(), anyCollection())).thenReturn(List.of(estacionamentoAtivo));
+
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(List.of(
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, LocalDateTime.now(), veiculoEntradaDTO, null), // Já estacionado
+                new EventoPortaoDTO(TipoMovimentacao.SAIDA, LocalDateTime.now(), null, "XYZ9876"), // Sem entrada
+                new EventoPortaoDTO(TipoMovimentacao.SAIDA, estacionamentoAtivo.getDataHoraEntrada().minusMinutes(1), null, "ABC1234"))); // Antes da entrada
+
+        assertEquals(3, resultado.getFalhas());
+        assertEquals("Veículo com placa ABC1234 já está estacionado na vaga A1.", resultado.getResultados().get(0).getErro());
+        assertEquals("Veículo com placa XYZ9876 não encontrado no estacionamento ou já saiu.", resultado.getResultados().get(1).getErro());
+        assertEquals(2, resultado.getResultados().get(2).getIndice());
+        verify(vagaService, never()).tentarOcuparProximaVagaLivre();
+        verify(estacionamentoRepository, never()).save(any(Estacionamento.class));
+    }
+
+    @Test
+    @DisplayName("Deve reprocessar item a item quando o bloco falhar inteiro")
+    void registrarLote_ShouldRetryItemsWhenChunkFails() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new IllegalStateException("Falha no flush"))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null))
+                .thenThrow(new IllegalStateException("Violação de constraint"));
+        when(veiculoService.buscarVeiculosPorPlaca(anyCollection())).thenReturn(Map.of());
+        when(estacionamentoRepository.findAllByStatusAndPlacaIn(any(), anyCollection())).thenReturn(List.of());
+        when(vagaService.tentarOcuparProximaVagaLivre()).thenReturn(Optional.of(vaga));
+        when(veiculoService.criarVeiculoDaEntrada(veiculoEntradaDTO)).thenReturn(veiculo);
+        AtomicLong ids = new AtomicLong();
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
+            Estacionamento est = invocation.getArgument(0);
+            est.setId(ids.incrementAndGet()); // Simula o ID da sequência, atribuído no persist
+            return est;
+        });
+
+        VeiculoEntradaDTO outroVeiculo = new VeiculoEntradaDTO("DEF5678", "Honda", "Civic", "Preto", TipoVeiculo.CARRO);
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(List.of(
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, LocalDateTime.now(), veiculoEntradaDTO, null),
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, LocalDateTime.now(), outroVeiculo, null)));
+
+        assertEquals(1, resultado.getSucessos());
+        assertTrue(resultado.getResultados().get(0).isSucesso());
+        assertEquals("Erro ao processar o evento: Violação de constraint", resultado.getResultados().get(1).getErro());
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o bloco e recusar só o item quando outra entrada da mesma placa chegar ao índice antes")
+    void registrarLote_ShouldRejectItem_WhenConcurrentEntryWinsIndex() {
+        executarTransacoesComSincronizacao();
+        when(veiculoService.buscarVeiculosPorPlaca(anyCollection())).thenReturn(Map.of());
+        when(estacionamentoRepository.findAllByStatusAndPlacaIn(any(), anyCollection())).thenReturn(List.of());
+        when(vagaService.tentarOcuparProximaVagaLivre()).thenReturn(Optional.of(vaga));
+        when(veiculoService.criarVeiculoDaEntrada(any(VeiculoEntradaDTO.class))).thenAnswer(invocation -> {
+            VeiculoEntradaDTO dto = invocation.getArgument(0);
+            return new Veiculo(null, dto.getPlaca(), dto.getMarca(), dto.getModelo(), dto.getCor(), dto.getTipoVeiculo());
+        });
+        AtomicLong ids = new AtomicLong();
+        when(estacionamentoRepository.save(any(Estacionamento.class))).thenAnswer(invocation -> {
+            Estacionamento est = invocation.getArgument(0);
+            est.setId(ids.incrementAndGet());
+            return est;
+        });
+        indiceEstacionamentosAtivos.registrarEntrada(veiculoEntradaDTO.getPlaca(), 50L); // Entrada concorrente, ainda sem commit
+
+        VeiculoEntradaDTO outroVeiculo = new VeiculoEntradaDTO("DEF5678", "Honda", "Civic", "Preto", TipoVeiculo.CARRO);
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(List.of(
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, LocalDateTime.now(), outroVeiculo, null),
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, LocalDateTime.now(), veiculoEntradaDTO, null)));
+
+        assertEquals(1, resultado.getSucessos());
+        assertTrue(resultado.getResultados().get(0).isSucesso());
+        assertEquals("Erro ao processar o evento: Veículo com placa ABC1234 já está estacionado.", resultado.getResultados().get(1).getErro());
+        assertEquals(Optional.of(50L), indiceEstacionamentosAtivos.buscar(veiculoEntradaDTO.getPlaca())); // Entrada concorrente mantida
+        verify(transactionTemplate, times(3)).execute(any()); // Bloco + reprocessamento de cada item
     }
 
     // --- Testes para buscarEstacionamentoPorId ---
     @Test
     @DisplayName("Deve retornar EstacionamentoResponseDTO se o ID existir")
     void buscarEstacionamentoPorId_ShouldReturnDTO_WhenIdExists() {
-        when(estacionamentoRepository.findById(estacionamentoAtivo.getId())).thenReturn(Optional.of(estacionamentoAtivo));
+        when(estacionamentoRepository.buscarResumoPorId(estacionamentoAtivo.getId())).thenReturn(Optional.of(resumo(estacionamentoAtivo)));
 
         EstacionamentoResponseDTO result = estacionamentoService.buscarEstacionamentoPorId(estacionamentoAtivo.getId());
 
         assertNotNull(result);
         assertEquals(estacionamentoAtivo.getId(), result.getId());
         assertEquals(estacionamentoAtivo.getVeiculo().getPlaca(), result.getPlacaVeiculo());
-        verify(estacionamentoRepository, times(1)).findById(estacionamentoAtivo.getId());
+        verify(estacionamentoRepository, times(1)).buscarResumoPorId(estacionamentoAtivo.getId());
+        verify(estacionamentoRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("Deve lançar RecursoNaoEncontradoException se o ID não existir")
     void buscarEstacionamentoPorId_ShouldThrowException_WhenIdDoesNotExist() {
-        when(estacionamentoRepository.findById(99L)).thenReturn(Optional.empty());
+        when(estacionamentoRepository.buscarResumoPorId(99L)).thenReturn(Optional.empty());
 
         RecursoNaoEncontradoException exception = assertThrows(RecursoNaoEncontradoException.class,
                 () -> estacionamentoService.buscarEstacionamentoPorId(99L));
 
         assertEquals("Registro de estacionamento não encontrado com ID: 99", exception.getMessage());
-        verify(estacionamentoRepository, times(1)).findById(99L);
+        verify(estacionamentoRepository, times(1)).buscarResumoPorId(99L);
+    }
+
+    private long medicoes(String metrica, String tag, String valor) {
+        return meterRegistry.get(metrica).tag(tag, valor).timer().count();
+    }
+
+    // O que as consultas com projeção devolvem para o registro
+    private static EstacionamentoResponseDTO resumo(Estacionamento estacionamento) {
+        return new EstacionamentoResponseDTO(estacionamento.getId(), estacionamento.getVeiculo().getPlaca(),
+                estacionamento.getVaga().getNumero(), estacionamento.getDataHoraEntrada(), estacionamento.getDataHoraSaida(),
+                estacionamento.getValorCobrado(), estacionamento.getStatus());
     }
 }
\ No newline at end of file
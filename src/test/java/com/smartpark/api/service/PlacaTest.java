@@ -0,0 +1,94 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PlacaTest {
+
+    // Mesmo padrão validado em VeiculoEntradaDTO
+    private static final Pattern PADRAO_PLACA = Pattern.compile("^[A-Z]{3}[0-9][0-9A-Z][0-9]{2}$");
+
+    @Test
+    @DisplayName("Deve codificar e formatar de volta as placas antiga e Mercosul, com códigos distintos")
+    void codificar_ShouldRoundTrip_ForBothFormats() {
+        long antiga = Placa.codificar("ABC1234");
+        long mercosul = Placa.codificar("ABC1C34");
+
+        assertEquals("ABC1234", Placa.formatar(antiga));
+        assertEquals("ABC1C34", Placa.formatar(mercosul));
+        assertNotEquals(antiga, mercosul);
+        assertEquals(0, Placa.codificar("AAA0000"));
+        assertEquals(Placa.QUANTIDADE_CODIGOS - 1, Placa.codificar("ZZZ9Z99"));
+    }
+
+    @Test
+    @DisplayName("Deve ser uma bijeção entre placas válidas e códigos, para placas aleatórias")
+    void codificar_ShouldBeBijective_ForRandomPlates() {
+        Random random = new Random(20250101L); // Semente fixa: falhas são reproduzíveis
+        Map<Long, String> vistos = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long codigo = (long) (random.nextDouble() * Placa.QUANTIDADE_CODIGOS);
+            String placa = Placa.formatar(codigo);
+
+            assertTrue(PADRAO_PLACA.matcher(placa).matches(), placa);
+            assertEquals(codigo, Placa.codificar(placa));
+            String anterior = vistos.put(codigo, placa);
+            assertTrue(anterior == null || anterior.equals(placa));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente o mesmo que o padrão do DTO de entrada")
+    void valida_ShouldMatchDtoPattern() {
+        for (String placa : new String[] {"ABC1234", "ABC1B23", "XYZ9Z99", "abc1234", "ABC-1234", "AB1234", "ABC12345",
+                "1BC1234", "ABCD234", "ABC1B2C", "ABC 234", "", "ÁBC1234"}) {
+            assertEquals(PADRAO_PLACA.matcher(placa).matches(), Placa.valida(placa), placa);
+        }
+        assertFalse(Placa.valida(null));
+    }
+
+    @Test
+    @DisplayName("Deve lançar IllegalArgumentException para placas e códigos inválidos")
+    void codificar_ShouldThrow_WhenInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Placa.codificar("ABC-1234"));
+        assertThrows(IllegalArgumentException.class, () -> Placa.formatar(-1));
+        assertThrows(IllegalArgumentException.class, () -> Placa.formatar(Placa.QUANTIDADE_CODIGOS));
+    }
+
+    @Test
+    @DisplayName("MapaPlacas deve se comportar como um HashMap em uma sequência aleatória de operações")
+    void mapaPlacas_ShouldMatchHashMap_ForRandomOperations() {
+        Random random = new Random(20250102L);
+        MapaPlacas mapa = new MapaPlacas(4); // Pequeno: força redimensionamentos e agrupamentos
+        Map<Long, Long> referencia = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long placa = random.nextInt(5_000); // Poucas chaves: muitas colisões, atualizações e remoções
+            long valor = random.nextInt(1_000_000);
+            int operacao = random.nextInt(3);
+            Long esperado = switch (operacao) {
+                case 0 -> referencia.put(placa, valor);
+                case 1 -> referencia.remove(placa);
+                default -> referencia.get(placa);
+            };
+            long obtido = switch (operacao) {
+                case 0 -> mapa.guardar(placa, valor);
+                case 1 -> mapa.remover(placa);
+                default -> mapa.buscar(placa);
+            };
+            assertEquals(esperado == null ? MapaPlacas.AUSENTE : esperado, obtido, "operação " + operacao + " em " + placa);
+            assertEquals(referencia.size(), mapa.tamanho());
+        }
+        referencia.forEach((placa, valor) -> assertEquals(valor, mapa.buscar(placa)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.smartpark.api.enums.TipoVeiculo;
+
+/**
+ * Teste de integração da recarga de tarifas: o arquivo de smartpark.tarifa-arquivo é editado com a aplicação no ar e
+ * POST /api/v1/tarifas/recarregar coloca as novas regras em vigor para as próximas saídas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecargaTarifasTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2024, 1, 10, 10, 0);
+
+    @TempDir
+    static Path diretorio;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registro) throws IOException {
+        escreverArquivo("""
+                smartpark:
+                  tarifa:
+                    primeira-hora: 6.00
+                """);
+        registro.add("smartpark.tarifa-arquivo", () -> diretorio.resolve("tarifas.yml").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        escreverArquivo("""
+                smartpark:
+                  tarifa:
+                    primeira-hora: 6.00
+                """);
+        tarifaService.recarregarRegras();
+    }
+
+    @Test
+    @DisplayName("Deve carregar o arquivo na inicialização e aplicar as alterações dele ao recarregar")
+    void recarregar_ShouldApplyEditedFile() throws Exception {
+        assertEquals(new BigDecimal("6.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+
+        escreverArquivo("""
+                smartpark:
+                  tarifa:
+                    primeira-hora: 7.50
+                    por-tipo-veiculo:
+                      MOTO:
+                        primeira-hora: 3.00
+                """);
+        mockMvc.perform(post("/api/v1/tarifas/recarregar").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.primeiraHora").value(7.5))
+                .andExpect(jsonPath("$.diaria").value(25.0)); // Chave ausente no arquivo: vem do application.yml
+
+        assertEquals(new BigDecimal("7.50"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+        assertEquals(new BigDecimal("3.00"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusHours(1)));
+        mockMvc.perform(get("/api/v1/tarifas").with(httpBasic("user", "user123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.primeiraHora").value(7.5));
+    }
+
+    @Test
+    @DisplayName("Deve recusar um arquivo com regras inválidas e manter a política anterior")
+    void recarregar_ShouldRejectInvalidFile() throws Exception {
+        escreverArquivo("""
+                smartpark:
+                  tarifa:
+                    primeira-hora: -1.00
+                """);
+
+        mockMvc.perform(post("/api/v1/tarifas/recarregar").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isBadRequest());
+        assertEquals(new BigDecimal("6.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+    }
+
+    private static void escreverArquivo(String conteudo) throws IOException {
+        Files.writeString(diretorio.resolve("tarifas.yml"), conteudo);
+    }
+}
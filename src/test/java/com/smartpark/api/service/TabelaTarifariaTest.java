@@ -0,0 +1,79 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TabelaTarifariaTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Test
+    @DisplayName("Deve calcular exatamente o mesmo valor da tarifação original para cada minuto dos primeiros 3 dias")
+    void calcularCentavos_ShouldMatchLegacy_ForEveryMinuteOfThreeDays() {
+        for (long minutos = 0; minutos <= 3 * 24 * 60; minutos++) {
+            assertMesmoValor(ENTRADA, ENTRADA.plusMinutes(minutos));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular exatamente o mesmo valor da tarifação original para permanências aleatórias de até 60 dias")
+    void calcularCentavos_ShouldMatchLegacy_ForRandomStays() {
+        Random random = new Random(20250101L); // Semente fixa: falhas são reproduzíveis
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime entrada = ENTRADA.plusSeconds(random.nextInt(365 * 24 * 60 * 60));
+            LocalDateTime saida = entrada.plusSeconds(random.nextInt(60 * 24 * 60 * 60)).plusNanos(random.nextInt(1_000_000_000));
+            assertMesmoValor(entrada, saida);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve cobrar os valores esperados nos cenários de referência")
+    void calcularCentavos_ShouldReturnExpectedValues() {
+        assertEquals(0, TabelaTarifaria.PADRAO.calcularCentavos(15)); // Carência
+        assertEquals(500, TabelaTarifaria.PADRAO.calcularCentavos(16)); // Primeira hora
+        assertEquals(900, TabelaTarifaria.PADRAO.calcularCentavos(180)); // 3 horas
+        assertEquals(2500, TabelaTarifaria.PADRAO.calcularCentavos(11 * 60)); // Diária
+        assertEquals(30 * 2500, TabelaTarifaria.PADRAO.calcularCentavos(30 * 24 * 60)); // 30 diárias
+        assertEquals(2 * 2500 + 500, TabelaTarifaria.PADRAO.calcularCentavos(2 * 24 * 60 + 60)); // 2 diárias + primeira hora
+    }
+
+    @Test
+    @DisplayName("Não deve cobrar mais que a diária antes de atingir as horas para diária")
+    void calcularCentavos_ShouldCapAtDiaria_WhenHoursAddUpToMore() {
+        // R$ 10,00 a primeira hora e a adicional, diária de R$ 25,00 a partir de 10h: 9 horas somariam R$ 90,00
+        TabelaTarifaria tabela = new TabelaTarifaria(15, 1000, 1000, 2500, 10);
+
+        assertEquals(2000, tabela.calcularCentavos(2 * 60)); // Abaixo da diária
+        assertEquals(2500, tabela.calcularCentavos(9 * 60)); // 9 * R$ 10,00 > diária
+        assertEquals(2500, tabela.calcularCentavos(10 * 60)); // Diária
+        assertEquals(2500 + 2500, tabela.calcularCentavos(24 * 60 + 5 * 60)); // Diária + resto do dia limitado à diária
+    }
+
+    @Test
+    @DisplayName("Deve separar as diárias dos dias completos do resto do último dia")
+    void calcularCentavosDasDiarias_ShouldCountOnlyFullDays() {
+        assertEquals(0, TabelaTarifaria.PADRAO.calcularCentavosDasDiarias(23 * 60 + 59));
+        assertEquals(2500, TabelaTarifaria.PADRAO.calcularCentavosDasDiarias(24 * 60));
+        assertEquals(2 * 2500, TabelaTarifaria.PADRAO.calcularCentavosDasDiarias(2 * 24 * 60 + 60));
+    }
+
+    @Test
+    @DisplayName("Deve lançar IllegalArgumentException se a saída for anterior à entrada")
+    void calcularCentavos_ShouldThrow_WhenSaidaBeforeEntrada() {
+        assertThrows(IllegalArgumentException.class, () -> TabelaTarifaria.PADRAO.calcularCentavos(ENTRADA, ENTRADA.minusMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> TabelaTarifaria.PADRAO.calcularCentavos(null, ENTRADA));
+    }
+
+    private void assertMesmoValor(LocalDateTime entrada, LocalDateTime saida) {
+        BigDecimal esperado = CalculoTarifaLegado.calcularValor(entrada, saida);
+        BigDecimal calculado = TabelaTarifaria.paraReais(TabelaTarifaria.PADRAO.calcularCentavos(entrada, saida));
+        assertEquals(esperado, calculado, () -> "Divergência para entrada " + entrada + " e saída " + saida); // equals compara também a escala
+    }
+}
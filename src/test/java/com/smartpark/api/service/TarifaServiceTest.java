@@ -0,0 +1,170 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smartpark.api.config.TarifaProperties;
+import com.smartpark.api.enums.TipoVeiculo;
+
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+class TarifaServiceTest {
+
+    private static final LocalDateTime ENTRADA = LocalDateTime.of(2024, 1, 10, 10, 0);
+
+    @Spy
+    private TarifaProperties tarifaProperties = new TarifaProperties();
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @InjectMocks
+    private TarifaService tarifaService;
+
+    private TarifaProperties regras;
+
+    @BeforeEach
+    void setUp() {
+        regras = new TarifaProperties();
+        ReflectionTestUtils.setField(tarifaService, "environment", environment);
+        ReflectionTestUtils.setField(tarifaService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar as regras padrão, equivalentes à tabela original")
+    void calcularValor_ShouldUseDefaultRules() {
+        assertEquals(BigDecimal.ZERO, tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusMinutes(15)));
+        assertEquals(new BigDecimal("5.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusMinutes(60)));
+        assertEquals(new BigDecimal("7.00"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusMinutes(90)));
+        assertEquals(new BigDecimal("55.00"), tarifaService.calcularValor(TipoVeiculo.CAMINHAO, ENTRADA, ENTRADA.plusDays(2).plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Deve usar a tarifa do tipo de veículo e herdar os campos não informados")
+    void calcularValor_ShouldUseRatesPerVehicleType() {
+        regras.setPorTipoVeiculo(Map.of(
+                TipoVeiculo.MOTO, new TarifaProperties.TarifaVeiculo(new BigDecimal("2.50"), new BigDecimal("1.00"), null),
+                TipoVeiculo.CAMINHAO, new TarifaProperties.TarifaVeiculo(null, null, new BigDecimal("60.00"))));
+        tarifaService.atualizarRegras(regras);
+
+        assertEquals(new BigDecimal("3.50"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusMinutes(90)));
+        assertEquals(new BigDecimal("25.00"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusHours(11))); // Diária geral
+        assertEquals(new BigDecimal("7.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusMinutes(90)));
+        assertEquals(new BigDecimal("60.00"), tarifaService.calcularValor(TipoVeiculo.CAMINHAO, ENTRADA, ENTRADA.plusHours(11)));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o percentual da faixa horária da entrada, inclusive faixas que atravessam a meia-noite")
+    void calcularValor_ShouldApplyTimeOfDayBands() {
+        regras.setFaixasHorarias(List.of(
+                new TarifaProperties.FaixaHoraria(LocalTime.of(22, 0), LocalTime.of(6, 0), 80),
+                new TarifaProperties.FaixaHoraria(LocalTime.of(12, 0), LocalTime.of(14, 0), 150)));
+        tarifaService.atualizarRegras(regras);
+
+        LocalDateTime noturna = LocalDateTime.of(2024, 1, 10, 23, 30);
+        LocalDateTime madrugada = LocalDateTime.of(2024, 1, 11, 5, 59);
+        LocalDateTime almoco = LocalDateTime.of(2024, 1, 10, 13, 59);
+        LocalDateTime foraDasFaixas = LocalDateTime.of(2024, 1, 10, 6, 0);
+
+        assertEquals(new BigDecimal("4.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, noturna, noturna.plusHours(1)));
+        assertEquals(new BigDecimal("5.60"), tarifaService.calcularValor(TipoVeiculo.CARRO, madrugada, madrugada.plusMinutes(90)));
+        assertEquals(new BigDecimal("7.50"), tarifaService.calcularValor(TipoVeiculo.CARRO, almoco, almoco.plusHours(1)));
+        assertEquals(new BigDecimal("5.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, foraDasFaixas, foraDasFaixas.plusHours(1)));
+        assertEquals(BigDecimal.ZERO, tarifaService.calcularValor(TipoVeiculo.CARRO, noturna, noturna.plusMinutes(10))); // Carência continua gratuita
+    }
+
+    @Test
+    @DisplayName("Deve cobrar as diárias integrais e aplicar o percentual da faixa só ao resto do último dia")
+    void calcularValor_ShouldApplyTimeOfDayBandOnlyToLastPartialDay() {
+        regras.setFaixasHorarias(List.of(new TarifaProperties.FaixaHoraria(LocalTime.of(22, 0), LocalTime.of(6, 0), 80)));
+        tarifaService.atualizarRegras(regras);
+
+        LocalDateTime noturna = LocalDateTime.of(2024, 1, 10, 23, 0);
+
+        // 2 diárias (R$ 50,00) + primeira hora com 80% (R$ 4,00)
+        assertEquals(new BigDecimal("54.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, noturna, noturna.plusDays(2).plusHours(1)));
+        // Dias completos sem resto: só diárias, sem desconto
+        assertEquals(new BigDecimal("75.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, noturna, noturna.plusDays(3)));
+        // Resto dentro da carência: gratuito, sem arredondar as diárias
+        assertEquals(new BigDecimal("25.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, noturna, noturna.plusDays(1).plusMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("Deve manter a política anterior quando as novas regras forem inválidas")
+    void atualizarRegras_ShouldKeepPreviousPolicy_WhenRulesAreInvalid() {
+        TarifaProperties regrasAnteriores = tarifaService.buscarRegrasAtuais();
+        regras.setPrimeiraHora(new BigDecimal("5.001"));
+
+        assertThrows(IllegalArgumentException.class, () -> tarifaService.atualizarRegras(regras));
+
+        assertEquals(regrasAnteriores, tarifaService.buscarRegrasAtuais());
+        assertEquals(new BigDecimal("5.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Deve carregar uma cópia das regras do bean de propriedades na inicialização")
+    void carregarRegrasIniciais_ShouldCompileSnapshotOfConfiguredRules() {
+        tarifaProperties.setCarenciaMinutos(0);
+        tarifaProperties.setPrimeiraHora(new BigDecimal("8.00"));
+        tarifaProperties.setPorTipoVeiculo(new EnumMap<>(Map.of(
+                TipoVeiculo.MOTO, new TarifaProperties.TarifaVeiculo(new BigDecimal("4.00"), null, null))));
+
+        tarifaService.carregarRegrasIniciais();
+        TarifaProperties regrasCarregadas = tarifaService.buscarRegrasAtuais();
+
+        // Rebind do @ConfigurationProperties altera o bean no lugar: a versão em vigor não pode mudar junto
+        tarifaProperties.setPrimeiraHora(new BigDecimal("99.00"));
+        tarifaProperties.getPorTipoVeiculo().get(TipoVeiculo.MOTO).setPrimeiraHora(new BigDecimal("99.00"));
+        regrasCarregadas.setDiaria(new BigDecimal("1.00"));
+
+        assertEquals(new BigDecimal("8.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusMinutes(5)));
+        assertEquals(new BigDecimal("4.00"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusMinutes(5)));
+        assertEquals(new BigDecimal("8.00"), tarifaService.buscarRegrasAtuais().getPrimeiraHora());
+        assertEquals(new BigDecimal("4.00"), tarifaService.buscarRegrasAtuais().getPorTipoVeiculo().get(TipoVeiculo.MOTO).getPrimeiraHora());
+        assertEquals(new BigDecimal("25.00"), tarifaService.buscarRegrasAtuais().getDiaria());
+        assertNotSame(tarifaProperties, tarifaService.buscarRegrasAtuais());
+    }
+
+    @Test
+    @DisplayName("Deve recusar regras inválidas do Environment na recarga e manter a política anterior")
+    void recarregarRegras_ShouldRejectInvalidRules() {
+        environment.setProperty("smartpark.tarifa.horas-para-diaria", "30");
+
+        assertThrows(IllegalArgumentException.class, () -> tarifaService.recarregarRegras());
+        assertEquals(10, tarifaService.buscarRegrasAtuais().getHorasParaDiaria());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar as regras do Environment quando propriedades de tarifa mudarem")
+    void aoAlterarPropriedades_ShouldReloadRules_WhenTariffKeysChange() {
+        environment.setProperty("smartpark.tarifa.primeira-hora", "6.00");
+        environment.setProperty("smartpark.tarifa.por-tipo-veiculo.MOTO.primeira-hora", "3.00");
+
+        tarifaService.aoAlterarPropriedades(new EnvironmentChangeEvent(Set.of("server.port")));
+        assertEquals(new BigDecimal("5.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+
+        tarifaService.aoAlterarPropriedades(new EnvironmentChangeEvent(Set.of("smartpark.tarifa.primeira-hora")));
+        assertEquals(new BigDecimal("6.00"), tarifaService.calcularValor(TipoVeiculo.CARRO, ENTRADA, ENTRADA.plusHours(1)));
+        assertEquals(new BigDecimal("3.00"), tarifaService.calcularValor(TipoVeiculo.MOTO, ENTRADA, ENTRADA.plusHours(1)));
+    }
+}
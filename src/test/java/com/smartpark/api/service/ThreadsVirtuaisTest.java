@@ -0,0 +1,140 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.repository.EstacionamentoRepository;
+import com.smartpark.api.repository.VagaRepository;
+import com.smartpark.api.repository.VeiculoRepository;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) do modo com threads virtuais (spring.threads.virtual.enabled).
+ * Entradas e saídas simultâneas em threads virtuais não podem prender a thread da plataforma (pinning: bloquear dentro
+ * de synchronized ou de código nativo), o que o JFR registra como jdk.VirtualThreadPinned. Fora dos testes, o mesmo
+ * diagnóstico é feito com -Djdk.tracePinnedThreads=short ou uma gravação JFR (ver README).
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class ThreadsVirtuaisTest {
+
+    private static final int TOTAL_VAGAS = 100;
+
+    @Autowired
+    private EstacionamentoService estacionamentoService;
+
+    @Autowired
+    private VagaService vagaService;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private EstacionamentoRepository estacionamentoRepository;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor; // Executor das tarefas @Async
+
+    @Autowired
+    private TaskScheduler taskScheduler; // Executor das tarefas @Scheduled
+
+    @BeforeEach
+    void setUp() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        List<Vaga> vagas = new ArrayList<>();
+        for (int i = 1; i <= TOTAL_VAGAS; i++) {
+            vagas.add(new Vaga(null, "T" + i, StatusVaga.LIVRE));
+        }
+        vagaRepository.saveAll(vagas);
+        vagaService.carregarVagasLivres();
+    }
+
+    @AfterEach
+    void tearDown() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        veiculoRepository.deleteAll();
+        estacionamentoService.carregarEstacionamentosAtivos();
+        vagaService.carregarVagasLivres();
+    }
+
+    @Test
+    @DisplayName("Deve executar as tarefas @Async e @Scheduled em threads virtuais")
+    void executores_ShouldUseVirtualThreads() throws Exception {
+        CompletableFuture<Boolean> assincrona = new CompletableFuture<>();
+        taskExecutor.execute(() -> assincrona.complete(Thread.currentThread().isVirtual()));
+        CompletableFuture<Boolean> agendada = new CompletableFuture<>();
+        taskScheduler.schedule(() -> agendada.complete(Thread.currentThread().isVirtual()), Instant.now());
+
+        assertTrue(assincrona.get(5, TimeUnit.SECONDS));
+        assertTrue(agendada.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Não deve prender threads da plataforma em entradas e saídas simultâneas em threads virtuais")
+    void entradasESaidas_ShouldNotPinCarrierThreads() throws Exception {
+        List<String> fixacoes = new CopyOnWriteArrayList<>();
+        AtomicInteger erros = new AtomicInteger();
+
+        try (RecordingStream gravacao = new RecordingStream()) {
+            gravacao.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            gravacao.onEvent("jdk.VirtualThreadPinned", evento -> fixacoes.add(evento.getStackTrace() == null ? "?"
+                    : evento.getStackTrace().getFrames().stream().limit(15).map(RecordedFrame::toString).toList().toString()));
+            gravacao.startAsync();
+
+            // Um veículo por vaga, todos ao mesmo tempo: disputam as vagas, o índice em memória e as conexões do pool
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < TOTAL_VAGAS; i++) {
+                    String placa = String.format("VTH%04d", i);
+                    executor.submit(() -> {
+                        try {
+                            estacionamentoService.registrarEntrada(new VeiculoEntradaDTO(placa, "Fiat", "Uno", "Azul", TipoVeiculo.CARRO));
+                            estacionamentoService.registrarSaida(placa);
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                    });
+                }
+            }
+            gravacao.stop(); // Entrega aos handlers os eventos ainda no buffer
+        }
+
+        assertEquals(0, erros.get());
+        assertEquals(List.of(), fixacoes);
+        assertEquals(new OcupacaoDTO(TOTAL_VAGAS, 0, TOTAL_VAGAS, false), vagaService.getOcupacao());
+    }
+}
@@ -3,6 +3,7 @@ package com.smartpark.api.service;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,13 +27,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.smartpark.api.dto.FiltroUsuariosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
 import com.smartpark.api.dto.UsuarioRequestDTO;
 import com.smartpark.api.dto.UsuarioResponseDTO;
 import com.smartpark.api.entity.Usuario;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.repository.UsuarioRepository;
+import com.smartpark.api.security.CacheAutenticacao;
 
 @ExtendWith(MockitoExtension.class)
 class UsuarioServiceTest {
@@ -43,6 +48,9 @@ class UsuarioServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CacheAutenticacao cacheAutenticacao;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -99,32 +107,35 @@ class UsuarioServiceTest {
         verify(usuarioRepository, never()).save(any(Usuario.class));
     }
 
-    // --- Testes para listarTodosUsuarios ---
+    // --- Testes para listarUsuarios ---
     @Test
-    @DisplayName("Deve retornar uma lista de todos os usuários como DTOs")
-    void listarTodosUsuarios_ShouldReturnListOfUserDTOs() {
-        List<Usuario> usuarios = Arrays.asList(adminUser, commonUser);
-        when(usuarioRepository.findAll()).thenReturn(usuarios);
+    @DisplayName("Deve retornar uma página de usuários como DTOs, projetada direto no banco")
+    void listarUsuarios_ShouldReturnPageOfUserDTOs() {
+        List<UsuarioResponseDTO> usuarios = Arrays.asList(
+                new UsuarioResponseDTO(adminUser.getId(), adminUser.getUsername(), adminUser.getRole()),
+                new UsuarioResponseDTO(commonUser.getId(), commonUser.getUsername(), commonUser.getRole()));
+        when(usuarioRepository.listarResumos(null, null, Limit.of(PaginaCursorDTO.LIMITE_PADRAO + 1))).thenReturn(usuarios);
 
-        List<UsuarioResponseDTO> result = usuarioService.listarTodosUsuarios();
+        PaginaCursorDTO<UsuarioResponseDTO> result = usuarioService.listarUsuarios(new FiltroUsuariosDTO(), null, null);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(adminUser.getUsername(), result.get(0).getUsername());
-        assertEquals(commonUser.getUsername(), result.get(1).getUsername());
-        verify(usuarioRepository, times(1)).findAll();
+        assertEquals(2, result.getItens().size());
+        assertEquals(adminUser.getUsername(), result.getItens().get(0).getUsername());
+        assertEquals(commonUser.getUsername(), result.getItens().get(1).getUsername());
+        assertNull(result.getProximoCursor());
+        verify(usuarioRepository, never()).findAll(); // A senha nunca é carregada
     }
 
     @Test
-    @DisplayName("Deve retornar uma lista vazia se não houver usuários cadastrados")
-    void listarTodosUsuarios_ShouldReturnEmptyList_WhenNoUsersExist() {
-        when(usuarioRepository.findAll()).thenReturn(Collections.emptyList());
+    @DisplayName("Deve filtrar pela role em maiúsculas e retornar uma página vazia se não houver usuários")
+    void listarUsuarios_ShouldFilterByUppercaseRole() {
+        when(usuarioRepository.listarResumos(3L, "ADMIN", Limit.of(11))).thenReturn(Collections.emptyList());
 
-        List<UsuarioResponseDTO> result = usuarioService.listarTodosUsuarios();
+        PaginaCursorDTO<UsuarioResponseDTO> result = usuarioService.listarUsuarios(new FiltroUsuariosDTO(" admin "), 3L, 10);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(usuarioRepository, times(1)).findAll();
+        assertTrue(result.getItens().isEmpty());
+        verify(usuarioRepository, times(1)).listarResumos(3L, "ADMIN", Limit.of(11));
     }
 
     // --- Testes para buscarUsuarioPorId ---
@@ -207,6 +218,8 @@ class UsuarioServiceTest {
         verify(usuarioRepository, times(1)).findByUsername("newadmin");
         verify(passwordEncoder, times(1)).encode("newpass123");
         verify(usuarioRepository, times(1)).save(adminUser); // Save é chamado com o objeto original, mas modificado
+        verify(cacheAutenticacao, times(1)).invalidar("admin"); // Credenciais em cache do username antigo
+        verify(cacheAutenticacao, times(1)).invalidar("newadmin");
     }
 
     @Test
@@ -267,6 +280,7 @@ class UsuarioServiceTest {
         verify(usuarioRepository, times(1)).findById(1L);
         verify(usuarioRepository, times(1)).findByUsername("otheruser");
         verify(usuarioRepository, never()).save(any(Usuario.class));
+        verify(cacheAutenticacao, never()).invalidar(anyString());
     }
 
 
@@ -274,25 +288,27 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Deve deletar o usuário com sucesso")
     void deletarUsuario_ShouldDeleteUserSuccessfully() {
-        when(usuarioRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(usuarioRepository).deleteById(1L);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(adminUser));
+        doNothing().when(usuarioRepository).delete(adminUser);
 
         assertDoesNotThrow(() -> usuarioService.deletarUsuario(1L));
 
-        verify(usuarioRepository, times(1)).existsById(1L);
-        verify(usuarioRepository, times(1)).deleteById(1L);
+        verify(usuarioRepository, times(1)).findById(1L);
+        verify(usuarioRepository, times(1)).delete(adminUser);
+        verify(cacheAutenticacao, times(1)).invalidar("admin"); // Credenciais em cache deixam de valer
     }
 
     @Test
     @DisplayName("Deve lançar RecursoNaoEncontradoException se o ID não existir ao deletar")
     void deletarUsuario_ShouldThrowException_WhenIdDoesNotExist() {
-        when(usuarioRepository.existsById(99L)).thenReturn(false);
+        when(usuarioRepository.findById(99L)).thenReturn(Optional.empty());
 
         RecursoNaoEncontradoException exception = assertThrows(RecursoNaoEncontradoException.class,
                 () -> usuarioService.deletarUsuario(99L));
 
         assertEquals("Usuário não encontrado com ID: 99", exception.getMessage());
-        verify(usuarioRepository, times(1)).existsById(99L);
+        verify(usuarioRepository, times(1)).findById(99L);
+        verify(usuarioRepository, never()).delete(any(Usuario.class));
         verify(usuarioRepository, never()).deleteById(anyLong());
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.smartpark.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.smartpark.api.dto.EventoPortaoDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.ResultadoLoteDTO;
+import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.entity.Vaga;
+import com.smartpark.api.enums.StatusVaga;
+import com.smartpark.api.enums.TipoMovimentacao;
+import com.smartpark.api.enums.TipoVeiculo;
+import com.smartpark.api.exception.VagaIndisponivelException;
+import com.smartpark.api.repository.EstacionamentoRepository;
+import com.smartpark.api.repository.VagaRepository;
+
+/**
+ * Teste de integração (H2 em modo PostgreSQL) da alocação de vagas com muitas entradas simultâneas e em lote.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VagaServiceConcorrenciaTest {
+
+    private static final int TOTAL_VAGAS = 20;
+    private static final int ENTRADAS_SIMULTANEAS = 64;
+
+    @Autowired
+    private VagaService vagaService;
+
+    @Autowired
+    private VagaRepository vagaRepository;
+
+    @Autowired
+    private EstacionamentoRepository estacionamentoRepository;
+
+    @Autowired
+    private AlocadorVagasLivres alocadorVagasLivres;
+
+    @Autowired
+    private EstacionamentoService estacionamentoService;
+
+    @BeforeEach
+    void setUp() {
+        estacionamentoRepository.deleteAll();
+        vagaRepository.deleteAll();
+        List<Vaga> vagas = new ArrayList<>();
+        for (int i = 1; i <= TOTAL_VAGAS; i++) {
+            vagas.add(new Vaga(null, "C" + i, StatusVaga.LIVRE));
+        }
+        vagaRepository.saveAll(vagas);
+        vagaService.reconciliarContadorOcupacao();
+    }
+
+    @Test
+    @DisplayName("Não deve alocar a mesma vaga duas vezes com entradas concorrentes usando o alocador em memória")
+    void ocuparProximaVagaLivre_SemDuplicidade_ComAlocador() throws InterruptedException {
+        vagaService.carregarVagasLivres();
+
+        assertSemDuplicidade(ocuparEmParalelo());
+    }
+
+    @Test
+    @DisplayName("Não deve alocar a mesma vaga duas vezes com entradas concorrentes disputando as mesmas linhas no banco")
+    void ocuparProximaVagaLivre_SemDuplicidade_SemAlocador() throws InterruptedException {
+        alocadorVagasLivres.carregar(List.of()); // Força todas as entradas a buscar candidatas no banco
+
+        assertSemDuplicidade(ocuparEmParalelo());
+    }
+
+    @Test
+    @DisplayName("Não deve devolver ao alocador a vaga liberada e reocupada no mesmo bloco do lote")
+    void registrarLote_ShouldNotReturnReoccupiedVagaToAllocator() {
+        vagaService.carregarVagasLivres();
+        LocalDateTime entrada = LocalDateTime.of(2025, 1, 10, 8, 0);
+
+        ResultadoLoteDTO resultado = estacionamentoService.registrarLote(List.of(
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, entrada, new VeiculoEntradaDTO("LTE1234", "Fiat", "Argo", "Prata", TipoVeiculo.CARRO), null),
+                new EventoPortaoDTO(TipoMovimentacao.SAIDA, entrada.plusHours(1), null, "LTE1234"),
+                new EventoPortaoDTO(TipoMovimentacao.ENTRADA, entrada.plusHours(2), new VeiculoEntradaDTO("LTE5678", "Fiat", "Argo", "Prata", TipoVeiculo.CARRO), null)));
+
+        assertEquals(3, resultado.getSucessos());
+        assertEquals(TOTAL_VAGAS - 1, alocadorVagasLivres.quantidadeLivres()); // A vaga da segunda entrada não voltou
+        assertEquals(TOTAL_VAGAS - 1, vagaRepository.countByStatus(StatusVaga.LIVRE));
+        estacionamentoRepository.deleteAll();
+        estacionamentoService.carregarEstacionamentosAtivos();
+    }
+
+    private Queue<Long> ocuparEmParalelo() throws InterruptedException {
+        Queue<Long> vagasAlocadas = new ConcurrentLinkedQueue<>();
+        AtomicInteger recusadas = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        for (int i = 0; i < ENTRADAS_SIMULTANEAS; i++) {
+            executor.submit(() -> {
+                try {
+                    largada.await();
+                    vagasAlocadas.add(vagaService.ocuparProximaVagaLivre().getId());
+                } catch (VagaIndisponivelException e) {
+                    recusadas.incrementAndGet();
+                } catch (Exception e) {
+                    erros.incrementAndGet();
+                }
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(0, erros.get());
+        assertEquals(ENTRADAS_SIMULTANEAS - TOTAL_VAGAS, recusadas.get());
+        return vagasAlocadas;
+    }
+
+    private void assertSemDuplicidade(Queue<Long> vagasAlocadas) {
+        assertEquals(TOTAL_VAGAS, vagasAlocadas.size());
+        assertEquals(TOTAL_VAGAS, new HashSet<>(vagasAlocadas).size()); // Nenhuma vaga entregue duas vezes
+        assertEquals(TOTAL_VAGAS, vagaRepository.countByStatus(StatusVaga.OCUPADA));
+        assertEquals(0, vagaRepository.countByStatus(StatusVaga.LIVRE));
+        assertEquals(new OcupacaoDTO(TOTAL_VAGAS, TOTAL_VAGAS, 0, true), vagaService.getOcupacao()); // Contagem em memória igual ao banco
+    }
+}
@@ -1,11 +1,13 @@
 package com.smartpark.api.service;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,8 +15,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -22,18 +26,39 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.smartpark.api.dto.FiltroVagasDTO;
+import com.smartpark.api.dto.OcupacaoDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
+import com.smartpark.api.dto.VagaResponseDTO;
 import com.smartpark.api.entity.Vaga;
 import com.smartpark.api.enums.StatusVaga;
 import com.smartpark.api.exception.RecursoNaoEncontradoException;
 import com.smartpark.api.exception.VagaIndisponivelException;
 import com.smartpark.api.repository.VagaRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class) // Habilita a extensão Mockito para JUnit 5
 class VagaServiceTest {
 
     @Mock // Cria um mock do VagaRepository
     private VagaRepository vagaRepository;
 
+    @Spy // Alocador real em memória, para verificar a sincronização com as operações do serviço
+    private AlocadorVagasLivres alocadorVagasLivres = new AlocadorVagasLivres();
+
+    @Spy // Contagem real em memória; sem transação ativa as alterações são aplicadas na hora
+    private ContadorOcupacao contadorOcupacao = new ContadorOcupacao();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy // Timers e contadores reais, num registro em memória
+    private MetricasEstacionamento metricasEstacionamento = new MetricasEstacionamento(meterRegistry);
+
     @InjectMocks // Injeta os mocks (vagaRepository) no VagaService
     private VagaService vagaService;
 
@@ -43,30 +68,35 @@ class VagaServiceTest {
         // MockitoAnnotations.openMocks(this);
     }
 
+    // Simula a reconciliação da contagem em memória com o banco
+    private void reconciliarComBanco(int livres, int ocupadas) {
+        when(vagaRepository.countByStatus(StatusVaga.LIVRE)).thenReturn(livres);
+        when(vagaRepository.countByStatus(StatusVaga.OCUPADA)).thenReturn(ocupadas);
+        vagaService.reconciliarContadorOcupacao();
+    }
+
     @Test
     @DisplayName("Deve retornar o número total de vagas")
     void testGetTotalVagas() {
-        // Cenário: vagaRepository.count() retorna 5
-        when(vagaRepository.count()).thenReturn(5L);
+        // Cenário: o banco tem 3 vagas livres e 2 ocupadas
+        reconciliarComBanco(3, 2);
 
         // Ação: Chamar o método do serviço
         int totalVagas = vagaService.getTotalVagas();
 
-        // Verificação: O resultado deve ser 5 e o método do mock deve ter sido chamado uma vez
+        // Verificação: O resultado deve ser 5, lido da contagem em memória
         assertEquals(5, totalVagas);
-        verify(vagaRepository, times(1)).count();
+        verify(vagaRepository, never()).count();
     }
 
     @Test
     @DisplayName("Deve retornar o número de vagas ocupadas")
     void testGetVagasOcupadas() {
-        // Cenário: vagaRepository.countByStatus(OCUPADA) retorna 2
-        when(vagaRepository.countByStatus(StatusVaga.OCUPADA)).thenReturn(2);
+        reconciliarComBanco(3, 2);
 
-        // Ação: Chamar o método do serviço
         int vagasOcupadas = vagaService.getVagasOcupadas();
 
-        // Verificação: O resultado deve ser 2 e o método do mock deve ter sido chamado uma vez
+        // Verificação: O resultado deve ser 2 e o banco só é consultado na reconciliação
         assertEquals(2, vagasOcupadas);
         verify(vagaRepository, times(1)).countByStatus(StatusVaga.OCUPADA);
     }
@@ -74,13 +104,10 @@ class VagaServiceTest {
     @Test
     @DisplayName("Deve retornar o número de vagas livres")
     void testGetVagasLivres() {
-        // Cenário: vagaRepository.countByStatus(LIVRE) retorna 3
-        when(vagaRepository.countByStatus(StatusVaga.LIVRE)).thenReturn(3);
+        reconciliarComBanco(3, 2);
 
-        // Ação: Chamar o método do serviço
         int vagasLivres = vagaService.getVagasLivres();
 
-        // Verificação: O resultado deve ser 3 e o método do mock deve ter sido chamado uma vez
         assertEquals(3, vagasLivres);
         verify(vagaRepository, times(1)).countByStatus(StatusVaga.LIVRE);
     }
@@ -88,8 +115,7 @@ class VagaServiceTest {
     @Test
     @DisplayName("Deve indicar que o estacionamento está cheio quando não há vagas livres")
     void testIsEstacionamentoCheio_True() {
-        // Cenário: vagaRepository.countByStatus(LIVRE) retorna 0
-        when(vagaRepository.countByStatus(StatusVaga.LIVRE)).thenReturn(0);
+        reconciliarComBanco(0, 4);
 
         // Ação & Verificação
         assertTrue(vagaService.isEstacionamentoCheio());
@@ -99,8 +125,7 @@ class VagaServiceTest {
     @Test
     @DisplayName("Deve indicar que o estacionamento não está cheio quando há vagas livres")
     void testIsEstacionamentoCheio_False() {
-        // Cenário: vagaRepository.countByStatus(LIVRE) retorna 1
-        when(vagaRepository.countByStatus(StatusVaga.LIVRE)).thenReturn(1);
+        reconciliarComBanco(1, 3);
 
         // Ação & Verificação
         assertFalse(vagaService.isEstacionamentoCheio());
@@ -108,30 +133,110 @@ class VagaServiceTest {
     }
 
     @Test
-    @DisplayName("Deve encontrar e retornar a próxima vaga livre")
-    void testEncontrarProximaVagaLivre_Success() {
-        // Cenário: Há uma vaga livre disponível
-        Vaga vagaLivre = new Vaga(1L, "A1", StatusVaga.LIVRE);
-        when(vagaRepository.findTopByStatus(StatusVaga.LIVRE)).thenReturn(Optional.of(vagaLivre));
+    @DisplayName("Deve manter a contagem de ocupação em memória ao ocupar, liberar, criar e deletar vagas")
+    void testOcupacao_AcompanhaAlteracoesDasVagas() {
+        reconciliarComBanco(2, 0);
+        Vaga vaga = new Vaga(1L, "A01", StatusVaga.LIVRE);
+        when(vagaRepository.save(any(Vaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vagaRepository.findByNumero("A03")).thenReturn(Optional.empty());
+        when(vagaRepository.findById(2L)).thenReturn(Optional.of(new Vaga(2L, "A02", StatusVaga.LIVRE)));
+
+        vagaService.ocuparVaga(vaga);
+        assertEquals(new OcupacaoDTO(2, 1, 1, false), vagaService.getOcupacao());
+
+        vagaService.criarVaga(new Vaga(null, "A03", null));
+        vagaService.deletarVaga(2L);
+        assertEquals(new OcupacaoDTO(2, 1, 1, false), vagaService.getOcupacao());
+
+        vagaService.liberarVaga(vaga);
+        assertEquals(new OcupacaoDTO(2, 0, 2, false), vagaService.getOcupacao());
+        verify(vagaRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Deve avançar a geração das vagas a cada alteração, inclusive só de número, e não em leituras")
+    void testGeracaoVagas_AvancaSomenteEmAlteracoes() {
+        reconciliarComBanco(1, 0);
+        Vaga vaga = new Vaga(1L, "A01", StatusVaga.LIVRE);
+        when(vagaRepository.save(any(Vaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vagaRepository.findById(1L)).thenReturn(Optional.of(vaga));
+
+        long inicial = vagaService.getGeracaoVagas();
+        vagaService.getOcupacao();
+        vagaService.buscarVagaPorId(1L);
+        assertEquals(inicial, vagaService.getGeracaoVagas());
+
+        vagaService.ocuparVaga(vaga);
+        long aposOcupar = vagaService.getGeracaoVagas();
+        assertTrue(aposOcupar > inicial);
+
+        // Mesmo status: a contagem não muda, mas o número sim, então a ETag precisa mudar
+        vagaService.atualizarVaga(1L, new Vaga(null, "B01", StatusVaga.OCUPADA));
+        assertEquals(new OcupacaoDTO(1, 1, 0, true), vagaService.getOcupacao());
+        assertTrue(vagaService.getGeracaoVagas() > aposOcupar);
+    }
+
+    @Test
+    @DisplayName("Deve ocupar a próxima vaga livre do banco quando o alocador em memória está vazio")
+    void testOcuparProximaVagaLivre_DoBanco() {
+        // Cenário: Há uma vaga livre disponível no banco
+        Vaga vagaOcupada = new Vaga(1L, "A1", StatusVaga.OCUPADA);
+        when(vagaRepository.findIdsByStatus(eq(StatusVaga.LIVRE), any(Limit.class))).thenReturn(List.of(1L));
+        when(vagaRepository.alterarStatusSeIgual(1L, StatusVaga.LIVRE, StatusVaga.OCUPADA)).thenReturn(1);
+        when(vagaRepository.findById(1L)).thenReturn(Optional.of(vagaOcupada));
 
         // Ação: Chamar o método do serviço
-        Vaga vagaEncontrada = vagaService.encontrarProximaVagaLivre();
+        Vaga vagaEncontrada = vagaService.ocuparProximaVagaLivre();
 
-        // Verificação: A vaga encontrada deve ser a mesma mockada
+        // Verificação: A vaga foi ocupada pelo UPDATE condicional
         assertNotNull(vagaEncontrada);
         assertEquals("A1", vagaEncontrada.getNumero());
-        verify(vagaRepository, times(1)).findTopByStatus(StatusVaga.LIVRE);
+        assertEquals(StatusVaga.OCUPADA, vagaEncontrada.getStatus());
+        verify(vagaRepository, times(1)).alterarStatusSeIgual(1L, StatusVaga.LIVRE, StatusVaga.OCUPADA);
+    }
+
+    @Test
+    @DisplayName("Deve ocupar a vaga a partir do alocador em memória, sem consultar vagas livres no banco")
+    void testOcuparProximaVagaLivre_DoAlocador() {
+        Vaga vagaOcupada = new Vaga(7L, "C7", StatusVaga.OCUPADA);
+        alocadorVagasLivres.carregar(List.of(7L));
+        when(vagaRepository.alterarStatusSeIgual(7L, StatusVaga.LIVRE, StatusVaga.OCUPADA)).thenReturn(1);
+        when(vagaRepository.findById(7L)).thenReturn(Optional.of(vagaOcupada));
+
+        Vaga vagaEncontrada = vagaService.ocuparProximaVagaLivre();
+
+        assertEquals("C7", vagaEncontrada.getNumero());
+        assertEquals(0, alocadorVagasLivres.quantidadeLivres());
+        verify(vagaRepository, never()).findIdsByStatus(any(StatusVaga.class), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Deve tentar a próxima candidata quando outra entrada já ocupou a vaga")
+    void testOcuparProximaVagaLivre_VagaJaOcupadaPorOutraEntrada() {
+        Vaga vagaOcupada = new Vaga(2L, "A2", StatusVaga.OCUPADA);
+        alocadorVagasLivres.carregar(List.of(1L, 2L));
+        when(vagaRepository.alterarStatusSeIgual(1L, StatusVaga.LIVRE, StatusVaga.OCUPADA)).thenReturn(0); // Perdeu a disputa
+        when(vagaRepository.alterarStatusSeIgual(2L, StatusVaga.LIVRE, StatusVaga.OCUPADA)).thenReturn(1);
+        when(vagaRepository.findById(2L)).thenReturn(Optional.of(vagaOcupada));
+
+        Vaga vagaEncontrada = vagaService.ocuparProximaVagaLivre();
+
+        assertEquals("A2", vagaEncontrada.getNumero());
+        verify(vagaRepository, never()).findById(1L);
+        assertEquals(1, meterRegistry.get("smartpark.vagas.alocacao").tag("resultado", "sucesso").timer().count());
     }
 
     @Test
     @DisplayName("Deve lançar VagaIndisponivelException quando não há vagas livres")
-    void testEncontrarProximaVagaLivre_NotFound() {
+    void testOcuparProximaVagaLivre_NotFound() {
         // Cenário: Não há vagas livres
-        when(vagaRepository.findTopByStatus(StatusVaga.LIVRE)).thenReturn(Optional.empty());
+        when(vagaRepository.findIdsByStatus(eq(StatusVaga.LIVRE), any(Limit.class))).thenReturn(List.of());
 
         // Ação & Verificação: Deve lançar a exceção esperada
-        assertThrows(VagaIndisponivelException.class, () -> vagaService.encontrarProximaVagaLivre());
-        verify(vagaRepository, times(1)).findTopByStatus(StatusVaga.LIVRE);
+        assertThrows(VagaIndisponivelException.class, () -> vagaService.ocuparProximaVagaLivre());
+        verify(vagaRepository, never()).alterarStatusSeIgual(any(), any(), any());
+        assertEquals(1, meterRegistry.get("smartpark.vagas.alocacao").tag("resultado", "sem_vaga").timer().count());
+        assertEquals(1, meterRegistry.get("smartpark.vagas.indisponivel").counter().count());
     }
 
     @Test
@@ -146,6 +251,19 @@ class VagaServiceTest {
         assertNotNull(resultado);
         assertEquals(StatusVaga.OCUPADA, resultado.getStatus());
         verify(vagaRepository, times(1)).save(vaga);
+        verify(alocadorVagasLivres, times(1)).remover(1L);
+    }
+
+    @Test
+    @DisplayName("Deve liberar uma vaga e devolvê-la ao alocador em memória")
+    void testLiberarVaga() {
+        Vaga vaga = new Vaga(1L, "A1", StatusVaga.OCUPADA);
+        when(vagaRepository.save(any(Vaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Vaga resultado = vagaService.liberarVaga(vaga);
+
+        assertEquals(StatusVaga.LIVRE, resultado.getStatus());
+        assertEquals(1, alocadorVagasLivres.quantidadeLivres());
     }
 
     @Test
@@ -165,6 +283,7 @@ class VagaServiceTest {
         assertEquals(StatusVaga.LIVRE, resultado.getStatus());
         verify(vagaRepository, times(1)).findByNumero("B5");
         verify(vagaRepository, times(1)).save(novaVaga); // Verifica que o save foi chamado com a vaga preparada
+        assertEquals(1, alocadorVagasLivres.quantidadeLivres()); // Nova vaga entra no alocador
     }
 
     @Test
@@ -191,6 +310,42 @@ class VagaServiceTest {
         verify(vagaRepository, times(1)).findById(99L);
     }
 
+    @Test
+    @DisplayName("Deve listar uma página de vagas projetadas no DTO, com o cursor da próxima página")
+    void testListarVagas_ReturnsPageWithNextCursor() {
+        // Limite 2: o repositório é consultado com 3 para detectar a próxima página
+        when(vagaRepository.listarResumos(null, StatusVaga.LIVRE, "B%", Limit.of(3))).thenReturn(List.of(
+                new VagaResponseDTO(4L, "B01", StatusVaga.LIVRE),
+                new VagaResponseDTO(7L, "B02", StatusVaga.LIVRE),
+                new VagaResponseDTO(9L, "B03", StatusVaga.LIVRE)));
+
+        PaginaCursorDTO<VagaResponseDTO> pagina = vagaService.listarVagas(new FiltroVagasDTO(StatusVaga.LIVRE, "B"), null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        assertEquals("B02", pagina.getItens().get(1).getNumero());
+        assertEquals(7L, pagina.getProximoCursor());
+        verify(vagaRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve escapar curingas do prefixo e limitar o tamanho da página ao máximo permitido")
+    void testListarVagas_EscapesPrefixAndCapsPageSize() {
+        when(vagaRepository.listarResumos(10L, null, "A\\_1\\%%", Limit.of(PaginaCursorDTO.LIMITE_MAXIMO + 1))).thenReturn(List.of());
+
+        PaginaCursorDTO<VagaResponseDTO> pagina = vagaService.listarVagas(new FiltroVagasDTO(null, " A_1% "), 10L, 1_000_000);
+
+        assertTrue(pagina.getItens().isEmpty());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve lançar RecursoNaoEncontradoException ao buscar o resumo de uma vaga inexistente")
+    void testBuscarResumoVagaPorId_NotFound() {
+        when(vagaRepository.buscarResumoPorId(99L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNaoEncontradoException.class, () -> vagaService.buscarResumoVagaPorId(99L));
+    }
+
     @Test
     @DisplayName("Deve deletar uma vaga livre com sucesso")
     void testDeletarVaga_Success() {
@@ -198,9 +353,12 @@ class VagaServiceTest {
         when(vagaRepository.findById(1L)).thenReturn(Optional.of(vagaLivre));
         doNothing().when(vagaRepository).delete(vagaLivre); // Mockar void methods
 
+        alocadorVagasLivres.carregar(List.of(1L));
+
         assertDoesNotThrow(() -> vagaService.deletarVaga(1L));
         verify(vagaRepository, times(1)).findById(1L);
         verify(vagaRepository, times(1)).delete(vagaLivre);
+        assertEquals(0, alocadorVagasLivres.quantidadeLivres()); // Vaga removida não pode mais ser alocada
     }
 
     @Test
@@ -215,4 +373,42 @@ class VagaServiceTest {
         verify(vagaRepository, times(1)).findById(1L);
         verify(vagaRepository, never()).delete(any(Vaga.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve devolver a vaga ao alocador quando a exclusão é desfeita")
+    void testDeletarVaga_RollbackDevolveAoAlocador() {
+        Vaga vagaLivre = new Vaga(1L, "A1", StatusVaga.LIVRE);
+        when(vagaRepository.findById(1L)).thenReturn(Optional.of(vagaLivre));
+        alocadorVagasLivres.carregar(List.of(1L));
+
+        desfazerAoFinal(() -> vagaService.deletarVaga(1L));
+
+        assertEquals(1, alocadorVagasLivres.quantidadeLivres());
+        assertEquals(Optional.of(1L), alocadorVagasLivres.reservar());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a vaga ao alocador quando a ocupação é desfeita")
+    void testOcuparVaga_RollbackDevolveAoAlocador() {
+        Vaga vaga = new Vaga(1L, "A1", StatusVaga.LIVRE);
+        when(vagaRepository.save(any(Vaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        alocadorVagasLivres.carregar(List.of(1L));
+
+        desfazerAoFinal(() -> vagaService.ocuparVaga(vaga));
+
+        assertEquals(1, alocadorVagasLivres.quantidadeLivres());
+    }
+
+    // Executa a operação numa transação simulada e a desfaz: durante a transação a vaga já saiu do alocador
+    private void desfazerAoFinal(Runnable operacao) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            operacao.run();
+            assertEquals(0, alocadorVagasLivres.quantidadeLivres());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -13,6 +15,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -24,9 +27,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import com.smartpark.api.dto.FiltroVeiculosDTO;
+import com.smartpark.api.dto.PaginaCursorDTO;
 import com.smartpark.api.dto.VeiculoEntradaDTO;
+import com.smartpark.api.dto.VeiculoResponseDTO;
 import com.smartpark.api.entity.Estacionamento;
 import com.smartpark.api.entity.Veiculo;
 import com.smartpark.api.enums.StatusEstacionamento;
@@ -40,6 +48,9 @@ class VeiculoServiceTest {
     @Mock
     private VeiculoRepository veiculoRepository;
 
+    @Spy // Cache real em memória; sem transação ativa os registros valem na hora
+    private CacheVeiculos cacheVeiculos = new CacheVeiculos(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private VeiculoService veiculoService;
 
@@ -112,31 +123,76 @@ class VeiculoServiceTest {
         verify(veiculoRepository, times(1)).save(any(Veiculo.class)); // Deve salvar o novo veículo
     }
 
-    // --- Testes para listarTodosVeiculos ---
     @Test
-    @DisplayName("Deve retornar uma lista de todos os Veiculos cadastrados")
-    void listarTodosVeiculos_ShouldReturnListOfAllVeiculos() {
-        List<Veiculo> veiculos = Arrays.asList(veiculoExistente, new Veiculo(2L, "DEF5678", "GM", "Onix", "Preto", TipoVeiculo.CARRO));
-        when(veiculoRepository.findAll()).thenReturn(veiculos);
+    @DisplayName("Deve responder buscarOuCriarVeiculo pelo cache na segunda entrada da mesma placa")
+    void buscarOuCriarVeiculo_ShouldUseCache_ForReturningVehicle() {
+        when(veiculoRepository.findByPlaca(veiculoExistente.getPlaca())).thenReturn(Optional.of(veiculoExistente));
+        VeiculoEntradaDTO dto = new VeiculoEntradaDTO(veiculoExistente.getPlaca(), "Marca", "Modelo", "Cor", TipoVeiculo.CARRO);
 
-        List<Veiculo> result = veiculoService.listarTodosVeiculos();
+        veiculoService.buscarOuCriarVeiculo(dto);
+        Veiculo result = veiculoService.buscarOuCriarVeiculo(dto);
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("ABC1234", result.get(0).getPlaca());
-        verify(veiculoRepository, times(1)).findAll();
+        assertEquals(veiculoExistente.getId(), result.getId());
+        assertEquals(veiculoExistente.getMarca(), result.getMarca());
+        assertNotSame(veiculoExistente, result); // Cópia desanexada, nunca a instância guardada
+        verify(veiculoRepository, times(1)).findByPlaca(veiculoExistente.getPlaca());
+    }
+
+    @Test
+    @DisplayName("Deve colocar no cache o veículo criado na entrada")
+    void buscarOuCriarVeiculo_ShouldCacheNewVehicle() {
+        when(veiculoRepository.findByPlaca(veiculoEntradaDTO.getPlaca())).thenReturn(Optional.empty());
+        when(veiculoRepository.save(any(Veiculo.class))).thenAnswer(invocation -> {
+            Veiculo newVeiculo = invocation.getArgument(0);
+            newVeiculo.setId(2L);
+            return newVeiculo;
+        });
+
+        veiculoService.buscarOuCriarVeiculo(veiculoEntradaDTO);
+
+        assertEquals(2L, cacheVeiculos.buscar(veiculoEntradaDTO.getPlaca()).orElseThrow().getId());
     }
 
+    // --- Testes para listarVeiculos ---
     @Test
-    @DisplayName("Deve retornar uma lista vazia se não houver Veiculos")
-    void listarTodosVeiculos_ShouldReturnEmptyList_WhenNoVeiculosExist() {
-        when(veiculoRepository.findAll()).thenReturn(Collections.emptyList());
+    @DisplayName("Deve retornar a última página de Veiculos, projetada direto no DTO, sem cursor para a próxima")
+    void listarVeiculos_ShouldReturnLastPage_WithoutNextCursor() {
+        List<VeiculoResponseDTO> veiculos = Arrays.asList(VeiculoResponseDTO.de(veiculoExistente),
+                new VeiculoResponseDTO(2L, "DEF5678", "GM", "Onix", "Preto", TipoVeiculo.CARRO));
+        when(veiculoRepository.listarResumos(null, TipoVeiculo.CARRO, Limit.of(PaginaCursorDTO.LIMITE_PADRAO + 1))).thenReturn(veiculos);
 
-        List<Veiculo> result = veiculoService.listarTodosVeiculos();
+        PaginaCursorDTO<VeiculoResponseDTO> result = veiculoService.listarVeiculos(new FiltroVeiculosDTO(TipoVeiculo.CARRO), null, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(veiculoRepository, times(1)).findAll();
+        assertEquals(2, result.getItens().size());
+        assertEquals("ABC1234", result.getItens().get(0).getPlaca());
+        assertNull(result.getProximoCursor());
+        verify(veiculoRepository, never()).findAll(); // Nenhuma entidade (nem histórico) carregada
+    }
+
+    @Test
+    @DisplayName("Deve devolver o cursor da próxima página quando houver mais Veiculos que o limite")
+    void listarVeiculos_ShouldReturnNextCursor_WhenMoreRecordsExist() {
+        when(veiculoRepository.listarResumos(5L, null, Limit.of(2))).thenReturn(Arrays.asList(
+                new VeiculoResponseDTO(6L, "DEF5678", "GM", "Onix", "Preto", TipoVeiculo.CARRO),
+                new VeiculoResponseDTO(8L, "GHI9012", "Honda", "CG", "Vermelha", TipoVeiculo.MOTO)));
+
+        PaginaCursorDTO<VeiculoResponseDTO> result = veiculoService.listarVeiculos(new FiltroVeiculosDTO(), 5L, 1);
+
+        assertEquals(1, result.getItens().size());
+        assertEquals(6L, result.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve lançar RecursoNaoEncontradoException ao buscar o resumo de um ID inexistente")
+    void buscarResumoVeiculoPorId_ShouldThrowException_WhenIdDoesNotExist() {
+        when(veiculoRepository.buscarResumoPorId(99L)).thenReturn(Optional.empty());
+
+        RecursoNaoEncontradoException exception = assertThrows(RecursoNaoEncontradoException.class,
+                () -> veiculoService.buscarResumoVeiculoPorId(99L));
+
+        assertEquals("Veículo não encontrado com ID: 99", exception.getMessage());
+        verify(veiculoRepository, never()).findById(any());
     }
 
     // --- Testes para buscarVeiculoPorId ---
@@ -204,6 +260,7 @@ class VeiculoServiceTest {
     @DisplayName("Deve atualizar os dados de um Veiculo existente e retorná-lo")
     void atualizarVeiculo_ShouldUpdateExistingVeiculo_Success() {
         Veiculo veiculoAtualizadoInfo = new Veiculo(null, "ABC1234", "Honda", "Civic", "Branco", TipoVeiculo.CARRO);
+        cacheVeiculos.registrar(veiculoExistente);
         
         when(veiculoRepository.findById(1L)).thenReturn(Optional.of(veiculoExistente));
         when(veiculoRepository.save(any(Veiculo.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -218,6 +275,7 @@ class VeiculoServiceTest {
         assertEquals("Branco", result.getCor());
         verify(veiculoRepository, times(1)).findById(1L);
         verify(veiculoRepository, times(1)).save(veiculoExistente);
+        assertTrue(cacheVeiculos.buscar("ABC1234").isEmpty()); // Dados antigos fora do cache
     }
 
     @Test
@@ -243,10 +301,13 @@ class VeiculoServiceTest {
         when(veiculoRepository.findById(1L)).thenReturn(Optional.of(veiculoExistente));
         doNothing().when(veiculoRepository).delete(any(Veiculo.class));
 
+        cacheVeiculos.registrar(veiculoExistente);
+
         assertDoesNotThrow(() -> veiculoService.deletarVeiculo(1L));
 
         verify(veiculoRepository, times(1)).findById(1L);
         verify(veiculoRepository, times(1)).delete(veiculoExistente);
+        assertTrue(cacheVeiculos.buscar(veiculoExistente.getPlaca()).isEmpty());
     }
 
     @Test